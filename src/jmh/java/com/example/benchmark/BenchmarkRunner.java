@@ -0,0 +1,27 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run every benchmark of this package with the GC profiler (allocation rate, gc.alloc.rate.norm per op)
+ * and keep the results as JSON so they can be compared with a previous baseline.
+ * java -cp target/benchmarks.jar com.example.benchmark.BenchmarkRunner [result file]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile= args.length > 0 ? args[0] : "target/jmh-result.json";
+        Options options= new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
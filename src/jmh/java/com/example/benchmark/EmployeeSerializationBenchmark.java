@@ -0,0 +1,59 @@
+package com.example.benchmark;
+
+import com.example.model.EmployeeDetails;
+import com.example.utils.JsonMappers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmployeeDetails serialized the way TestEmployee does it (a fresh ObjectMapper and pretty printer per call)
+ * against the shared ObjectWriter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EmployeeSerializationBenchmark {
+
+    private EmployeeDetails employee;
+    private byte[] employeeJson;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        employee= new EmployeeDetails();
+        employee.setName("Vibha");
+        employee.setSalary(75000);
+        employee.setAge(30);
+        employeeJson= JsonMappers.EMPLOYEE_WRITER.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public String serializeFreshMapperPretty() throws IOException {
+        return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(employee);
+    }
+
+    @Benchmark
+    public byte[] serializeSharedWriter() throws IOException {
+        return JsonMappers.EMPLOYEE_WRITER.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public EmployeeDetails deserializeSharedReader() throws IOException {
+        return JsonMappers.EMPLOYEE_READER.readValue(employeeJson);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.benchmark;
+
+import com.example.contract.ContractResult;
+import com.example.contract.JsonContract;
+import com.example.data.PersonGenerator;
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of checking a getAllPerson body against the Person contract, next to mapping the same body to a List
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonContractBenchmark {
+
+    private static final JsonContract CONTRACT= JsonContract.compile(Person.class, List.of("id", "firstName"), 20);
+
+    @Param({"10", "1000"})
+    private int persons;
+
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        List<Person> list= PersonGenerator.builder().seed(42).build().stream(persons).collect(Collectors.toList());
+        body= JsonMappers.PERSON_LIST_WRITER.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public ContractResult validate(){
+        return CONTRACT.validateArray(body);
+    }
+
+    @Benchmark
+    public List<Person> map() throws IOException {
+        return JsonMappers.PERSON_LIST_READER.readValue(body);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.benchmark;
+
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+import com.example.utils.JsonPathExtractor;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading fields of a Person response the way the tests assert on them: RestAssured's GPath
+ * (response.jsonPath()) against the compiled streaming JsonPathExtractor
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonPathBenchmark {
+
+    private static final JsonPathExtractor ID= JsonPathExtractor.compile("id");
+    private static final JsonPathExtractor PHONE_NUMBER= JsonPathExtractor.compile("phoneNumber");
+
+    private byte[] personJson;
+    private Response personResponse;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Person person= new Person();
+        person.setId(4);
+        person.setFirstName("ZOLO");
+        person.setLastName("Muffin");
+        person.setAge(23);
+        person.setAddress("New york");
+        person.setPhoneNumber("4765772273");
+        personJson= JsonMappers.PERSON_WRITER.writeValueAsBytes(person);
+        personResponse= new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(personJson)
+                .build();
+    }
+
+    @Benchmark
+    public String idGPath() {
+        return personResponse.jsonPath().getString("id");
+    }
+
+    @Benchmark
+    public String idCompiled() {
+        return ID.getString(personResponse);
+    }
+
+    //last field of the body, the extractor has to skip everything before it
+    @Benchmark
+    public String phoneNumberGPath() {
+        return new JsonPath(new String(personJson)).getString("phoneNumber");
+    }
+
+    @Benchmark
+    public String phoneNumberCompiled() {
+        return PHONE_NUMBER.getString(personJson);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.benchmark;
+
+import com.example.data.FieldSize;
+import com.example.data.PersonGenerator;
+import com.example.model.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persons per second out of PersonGenerator, with small and long tailed address sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PersonGeneratorBenchmark {
+
+    @Param({"16-40", "200~2000"})
+    private String addressLength;
+
+    private PersonGenerator generator;
+    private long index;
+
+    @Setup
+    public void setup(){
+        generator= PersonGenerator.builder()
+                .seed(42)
+                .shuffledIds(1, 100_000_000)
+                .addressSize(FieldSize.parse(addressLength))
+                .build();
+    }
+
+    @Benchmark
+    public Person person(){
+        index= (index + 1) % 100_000_000;
+        return generator.person(index);
+    }
+}
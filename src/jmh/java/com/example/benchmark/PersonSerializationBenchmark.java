@@ -0,0 +1,131 @@
+package com.example.benchmark;
+
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the Person model layer: single objects and large List payloads, mapped through
+ * RestAssured's response.as(...) and through the shared ObjectReader/ObjectWriter of JsonMappers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PersonSerializationBenchmark {
+
+    private static final Type PERSON_LIST_TYPE= new TypeReference<List<Person>>(){}.getType();
+
+    private Person person;
+    private byte[] personJson;
+    private Response singleResponse;
+
+    /**
+     * The list payload, in a state of its own so that only the list benchmarks run once per listSize
+     */
+    @State(Scope.Benchmark)
+    public static class PersonList {
+
+        @Param({"1000", "100000"})
+        private int listSize;
+
+        private List<Person> persons;
+        private byte[] personsJson;
+        private Response listResponse;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            persons= new ArrayList<>(listSize);
+            for(int i=0; i<listSize; i++){
+                persons.add(person(i));
+            }
+            personsJson= JsonMappers.PERSON_LIST_WRITER.writeValueAsBytes(persons);
+            listResponse= response(personsJson);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        person= person(1);
+        personJson= JsonMappers.PERSON_WRITER.writeValueAsBytes(person);
+        singleResponse= response(personJson);
+    }
+
+    @Benchmark
+    public byte[] serializePersonSharedWriter() throws IOException {
+        return JsonMappers.PERSON_WRITER.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public byte[] serializePersonFreshMapper() throws IOException {
+        return new ObjectMapper().writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public Person deserializePersonSharedReader() throws IOException {
+        return JsonMappers.PERSON_READER.readValue(personJson);
+    }
+
+    @Benchmark
+    public Person deserializePersonRestAssured() {
+        return singleResponse.as(Person.class);
+    }
+
+    @Benchmark
+    public byte[] serializePersonListSharedWriter(PersonList list) throws IOException {
+        return JsonMappers.PERSON_LIST_WRITER.writeValueAsBytes(list.persons);
+    }
+
+    @Benchmark
+    public List<Person> deserializePersonListSharedReader(PersonList list) throws IOException {
+        return JsonMappers.PERSON_LIST_READER.readValue(list.personsJson);
+    }
+
+    @Benchmark
+    public List<Person> deserializePersonListRestAssured(PersonList list) {
+        return list.listResponse.as(PERSON_LIST_TYPE);
+    }
+
+    private static Response response(byte[] body){
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(body)
+                .build();
+    }
+
+    private static Person person(int id){
+        Person person= new Person();
+        person.setId(id);
+        person.setFirstName("ZOLO");
+        person.setLastName("Muffin");
+        person.setAge(23);
+        person.setAddress("New york");
+        person.setPhoneNumber("4765772273");
+        return person;
+    }
+}
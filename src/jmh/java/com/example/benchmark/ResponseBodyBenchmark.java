@@ -0,0 +1,95 @@
+package com.example.benchmark;
+
+import com.example.body.BodySpiller;
+import com.example.body.ResponseBody;
+import com.example.data.PersonGenerator;
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mapping and hashing a getAllPerson body held on the heap, next to the same body spilled to a mapped file or a
+ * direct buffer. Run with -prof gc to compare what each one allocates
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResponseBodyBenchmark {
+
+    @Param({"1000", "20000"})
+    private int persons;
+
+    private byte[] body;
+    private ResponseBody heap;
+    private ResponseBody mapped;
+    private ResponseBody direct;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        List<Person> list= PersonGenerator.builder().seed(42).build().stream(persons).collect(Collectors.toList());
+        body= JsonMappers.PERSON_LIST_WRITER.writeValueAsBytes(list);
+        heap= ResponseBody.of(body);
+        mapped= new BodySpiller(0, BodySpiller.Mode.FILE, null).read(new ByteArrayInputStream(body), body.length);
+        direct= new BodySpiller(0, BodySpiller.Mode.DIRECT, null).read(new ByteArrayInputStream(body), body.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        mapped.close();
+    }
+
+    /**
+     * What a caller of asString() pays before it even starts parsing
+     */
+    @Benchmark
+    public List<Person> mapString() throws IOException {
+        return JsonMappers.PERSON_LIST_READER.readValue(new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public List<Person> mapHeap(){
+        return heap.read(JsonMappers.PERSON_LIST_READER);
+    }
+
+    @Benchmark
+    public List<Person> mapMapped(){
+        return mapped.read(JsonMappers.PERSON_LIST_READER);
+    }
+
+    @Benchmark
+    public List<Person> mapDirect(){
+        return direct.read(JsonMappers.PERSON_LIST_READER);
+    }
+
+    @Benchmark
+    public byte[] sha256Heap(){
+        return heap.digest("SHA-256");
+    }
+
+    @Benchmark
+    public byte[] sha256Mapped(){
+        return mapped.digest("SHA-256");
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.body;
+
+import com.example.transport.HttpTransport;
+import com.example.utils.ConfigManager;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Reads response bodies into {@link ResponseBody}s, keeping those larger than the threshold off the heap:
+ * in a temp file that is then memory-mapped (FILE) or in a direct buffer (DIRECT, bounded by -XX:MaxDirectMemorySize).
+ * The body is copied from the connection to the file by the channel in small chunks, so a multi-MB body only ever
+ * has a chunk of it on the heap. The request must carry {@link HttpTransport#STREAMED_RESPONSE}, otherwise the
+ * transport has already buffered it. Bodies are limited to 2 GB (one mapping)
+ */
+public class BodySpiller {
+
+    public enum Mode {
+        FILE, DIRECT
+    }
+
+    private final int threshold;
+    private final Mode mode;
+    //null for the default temp directory
+    private final Path directory;
+
+    /**
+     * @param threshold bodies up to that many bytes stay on the heap
+     * @param mode where larger bodies go
+     * @param directory of the temp files, null for java.io.tmpdir
+     */
+    public BodySpiller(int threshold, Mode mode, Path directory){
+        if(threshold < 0){
+            throw new IllegalArgumentException("Spill threshold must not be negative: " + threshold);
+        }
+        this.threshold= threshold;
+        this.mode= mode;
+        this.directory= directory;
+    }
+
+    /**
+     * Spiller of the spill.* keys in config.properties, null unless spill.enabled
+     */
+    public static BodySpiller fromConfig(){
+        ConfigManager config= ConfigManager.getInstance();
+        if(!config.getBoolean("spill.enabled", false)){
+            return null;
+        }
+        String directory= config.getString("spill.dir", "");
+        return new BodySpiller(config.getInt("spill.threshold", 1 << 20),
+                Mode.valueOf(config.getString("spill.mode", "FILE").trim().toUpperCase(Locale.ROOT)),
+                directory.isBlank() ? null : Paths.get(directory));
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Read the whole body of a streamed response and close its stream, which hands the connection back.
+     * Content-Length, when the body is not compressed, tells up front whether it will be spilled
+     */
+    public ResponseBody read(Response response){
+        String length= response.getHeader("Content-Length");
+        long contentLength= -1;
+        if(length != null && response.getHeader("Content-Encoding") == null){
+            try {
+                contentLength= Long.parseLong(length.trim());
+            } catch (NumberFormatException e) {
+                //read as a body of unknown length
+            }
+        }
+        return read(response.asInputStream(), contentLength);
+    }
+
+    /**
+     * Read the stream to its end and close it
+     * @param contentLength size of the body when known, -1 otherwise
+     */
+    public ResponseBody read(InputStream body, long contentLength){
+        try (InputStream in= body) {
+            if(contentLength >= 0 && contentLength <= threshold){
+                return ResponseBody.of(in.readAllBytes());
+            }
+            //of unknown length, kept on the heap until it grows past the threshold
+            byte[] head= contentLength > threshold ? new byte[0] : in.readNBytes((int) Math.min(threshold + 1L, Integer.MAX_VALUE - 8));
+            if(contentLength < 0 && head.length <= threshold){
+                return ResponseBody.of(head);
+            }
+            return mode == Mode.FILE ? toFile(head, in) : toDirect(head, in, contentLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the response body", e);
+        }
+    }
+
+    private ResponseBody toFile(byte[] head, InputStream in) throws IOException {
+        Path file= directory == null ? Files.createTempFile("body-", ".tmp") : Files.createTempFile(Files.createDirectories(directory), "body-", ".tmp");
+        try (FileChannel channel= FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer first= ByteBuffer.wrap(head);
+            while(first.hasRemaining()){
+                channel.write(first);
+            }
+            ReadableByteChannel source= Channels.newChannel(in);
+            long size= head.length;
+            long transferred;
+            while((transferred= channel.transferFrom(source, size, Integer.MAX_VALUE)) > 0){
+                size+= transferred;
+            }
+            if(size > Integer.MAX_VALUE){
+                throw new IllegalStateException("Response body of " + size + " bytes is larger than 2 GB");
+            }
+            //the mapping stays valid once the channel is closed
+            MappedByteBuffer map= channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new ResponseBody(map, file, true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private ResponseBody toDirect(byte[] head, InputStream in, long contentLength) throws IOException {
+        //one byte more than announced, so reaching the end does not need a larger buffer.
+        //Of unknown length, twice what was read so far and doubled whenever it fills up
+        long capacity= contentLength >= 0 ? contentLength + 1 : 2L * head.length;
+        ByteBuffer buffer= ByteBuffer.allocateDirect((int) Math.min(capacity, Integer.MAX_VALUE));
+        buffer.put(head);
+        ReadableByteChannel source= Channels.newChannel(in);
+        while(true){
+            if(!buffer.hasRemaining()){
+                buffer= grow(buffer);
+            }
+            if(source.read(buffer) < 0){
+                break;
+            }
+        }
+        buffer.flip();
+        return new ResponseBody(buffer, null, true);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer){
+        if(buffer.capacity() == Integer.MAX_VALUE){
+            throw new IllegalStateException("Response body is larger than 2 GB");
+        }
+        ByteBuffer larger= ByteBuffer.allocateDirect((int) Math.min(2L * buffer.capacity(), Integer.MAX_VALUE));
+        buffer.flip();
+        return larger.put(buffer);
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.body;
+
+import com.example.utils.JsonMappers;
+import com.example.utils.JsonPathExtractor;
+import com.example.utils.JsonStreams;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.response.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A response body read once from the connection and then read as often as needed: from a byte array when it is
+ * small, otherwise from a memory-mapped temp file or a direct buffer, see {@link BodySpiller}.
+ * Mapping, path extraction and hashing read the buffer in place through an input stream or a ByteBuffer view,
+ * so a spilled body is never copied onto the heap as a whole. Views are independent, several threads can read
+ * at once. Close it to delete the temp file
+ */
+public final class ResponseBody implements Closeable {
+
+    private static final char[] HEX= "0123456789abcdef".toCharArray();
+
+    //read only, position 0 and limit the body size, only ever read through duplicates
+    private final ByteBuffer buffer;
+    //null unless spilled to a file
+    private final Path file;
+    private final boolean spilled;
+
+    ResponseBody(ByteBuffer buffer, Path file, boolean spilled){
+        this.buffer= buffer.asReadOnlyBuffer();
+        this.file= file;
+        this.spilled= spilled;
+    }
+
+    /**
+     * Body held in the byte array, which must not be modified afterwards
+     */
+    public static ResponseBody of(byte[] body){
+        return new ResponseBody(ByteBuffer.wrap(body), null, false);
+    }
+
+    /**
+     * Body of the response, read by the spiller when there is one and buffered by RestAssured otherwise
+     */
+    public static ResponseBody of(Response response, BodySpiller spiller){
+        return spiller == null ? of(response.asByteArray()) : spiller.read(response);
+    }
+
+    public long size(){
+        return buffer.limit();
+    }
+
+    /**
+     * True when the body is off heap, in a temp file or a direct buffer
+     */
+    public boolean isSpilled() {
+        return spilled;
+    }
+
+    /**
+     * The temp file holding the body, null unless it was spilled to a file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Read only view of the whole body, with its own position
+     */
+    public ByteBuffer buffer(){
+        return buffer.duplicate();
+    }
+
+    /**
+     * Stream over the body from its first byte, reading the buffer in place
+     */
+    public InputStream inputStream(){
+        return new BufferInputStream(buffer());
+    }
+
+    /**
+     * Map the body with the reader, e.g. {@link JsonMappers#PERSON_LIST_READER}
+     */
+    public <T> T read(ObjectReader reader){
+        try (InputStream in= inputStream()) {
+            return reader.readValue(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map the response body", e);
+        }
+    }
+
+    /**
+     * Lazily map every element of the top level JSON array, see {@link JsonStreams#streamArray(InputStream, Class)}
+     */
+    public <T> Stream<T> streamArray(Class<T> type){
+        return JsonStreams.streamArray(inputStream(), type);
+    }
+
+    public String getString(JsonPathExtractor path){
+        return path.getString(inputStream());
+    }
+
+    public Integer getInt(JsonPathExtractor path){
+        return path.getInt(inputStream());
+    }
+
+    public List<String> getStrings(JsonPathExtractor path){
+        return path.getStrings(inputStream());
+    }
+
+    /**
+     * CRC32 of the body, computed on the buffer without copying it
+     */
+    public long crc32(){
+        CRC32 crc= new CRC32();
+        crc.update(buffer());
+        return crc.getValue();
+    }
+
+    /**
+     * Digest of the body with the algorithm, e.g. SHA-256. Off-heap bodies are fed to it in small chunks
+     */
+    public byte[] digest(String algorithm){
+        MessageDigest digest;
+        try {
+            digest= MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unknown digest algorithm " + algorithm, e);
+        }
+        digest.update(buffer());
+        return digest.digest();
+    }
+
+    /**
+     * SHA-256 of the body in lower case hex
+     */
+    public String sha256(){
+        byte[] digest= digest("SHA-256");
+        char[] hex= new char[digest.length * 2];
+        for(int i=0; i<digest.length; i++){
+            hex[2 * i]= HEX[(digest[i] >> 4) & 0xF];
+            hex[2 * i + 1]= HEX[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Print the body, indented when it is JSON and as it is otherwise, without building it as a String first
+     */
+    public void prettyPrint(PrintStream out){
+        try {
+            if(isJson()){
+                try (JsonParser parser= JsonMappers.MAPPER.getFactory().createParser(inputStream());
+                     JsonGenerator generator= JsonMappers.MAPPER.getFactory().createGenerator(out)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.useDefaultPrettyPrinter();
+                    while(parser.nextToken() != null){
+                        generator.copyCurrentStructure(parser);
+                    }
+                }
+            } else {
+                WritableByteChannel channel= Channels.newChannel(out);
+                ByteBuffer view= buffer();
+                while(view.hasRemaining()){
+                    channel.write(view);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to print the response body", e);
+        }
+        out.println();
+    }
+
+    /**
+     * Delete the temp file, views must not be used afterwards. Where a mapped file cannot be deleted (Windows)
+     * it is left to be deleted when the JVM exits
+     */
+    @Override
+    public void close() {
+        if(file == null){
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseBody{" + size() + " bytes" + (file != null ? " in " + file : spilled ? " off heap" : "") + "}";
+    }
+
+    /**
+     * Whether the first byte that is not white space opens an object or an array
+     */
+    private boolean isJson(){
+        for(int i=0; i<buffer.limit(); i++){
+            byte b= buffer.get(i);
+            if(b != ' ' && b != '\t' && b != '\r' && b != '\n'){
+                return b == '{' || b == '[';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * InputStream over a buffer of its own, reads copy only what the caller asks for
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer){
+            this.buffer= buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if(len == 0){
+                return 0;
+            }
+            if(!buffer.hasRemaining()){
+                return -1;
+            }
+            int n= Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped= (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.contract;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one validation pass: how many objects were checked and the violations found, up to the error cap.
+ * Warnings (properties out of the declared order) do not make the body invalid
+ */
+public class ContractResult {
+
+    private final long checked;
+    private final List<String> violations;
+    private final List<String> warnings;
+    private final boolean truncated;
+
+    ContractResult(long checked, List<String> violations, List<String> warnings, boolean truncated){
+        this.checked= checked;
+        this.violations= Collections.unmodifiableList(violations);
+        this.warnings= Collections.unmodifiableList(warnings);
+        this.truncated= truncated;
+    }
+
+    public boolean isValid(){
+        return violations.isEmpty();
+    }
+
+    /**
+     * Objects checked before the pass ended
+     */
+    public long getChecked() {
+        return checked;
+    }
+
+    /**
+     * "path: problem" per violation, e.g. "$[3].age: expected an integer but found a string"
+     */
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    /**
+     * "path: problem" per warning, up to the error cap, e.g. "$[3].lastName: out of order, expected before address"
+     */
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    /**
+     * The error cap was reached and the rest of the body was not checked
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public String toString() {
+        String result= isValid() ? "valid, " + checked + " checked"
+                : violations.size() + (truncated ? "+" : "") + " violations in " + checked + " checked: " + violations;
+        return warnings.isEmpty() ? result : result + ", " + warnings.size() + " warnings: " + warnings;
+    }
+}
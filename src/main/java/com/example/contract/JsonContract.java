@@ -0,0 +1,374 @@
+package com.example.contract;
+
+import com.example.model.Person;
+import com.example.utils.ConfigManager;
+import com.example.utils.JsonMappers;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shape of a JSON object compiled once from its model class: the properties in @JsonPropertyOrder order,
+ * their JSON types, which ones are required, and no other keys (they would silently end up in the
+ * additional properties of the model). Validation is a single pass of Jackson's streaming parser without
+ * mapping anything: properties arriving in the declared order are matched with a pre-encoded name compare,
+ * properties out of that order are only a warning unless the contract is strict about order (JSON object order
+ * is not semantic, servers such as json-server return records as they are stored),
+ * unknown subtrees are skipped, and the pass stops once the error cap is reached. That makes it cheap enough
+ * for every response of a load run. Instances are immutable and thread-safe
+ */
+public final class JsonContract {
+
+    private static volatile JsonContract person;
+
+    private final String name;
+    private final Property[] properties;
+    private final SerializedString[] encodedNames;
+    private final Map<String, Integer> slots;
+    private final long requiredMask;
+    private final int maxErrors;
+    private final boolean strictOrder;
+
+    private JsonContract(String name, Property[] properties, long requiredMask, int maxErrors, boolean strictOrder){
+        this.name= name;
+        this.properties= properties;
+        this.requiredMask= requiredMask;
+        this.maxErrors= maxErrors;
+        this.strictOrder= strictOrder;
+        this.encodedNames= new SerializedString[properties.length];
+        this.slots= new HashMap<>();
+        for(int i=0; i<properties.length; i++){
+            encodedNames[i]= new SerializedString(properties[i].name);
+            slots.put(properties[i].name, i);
+        }
+    }
+
+    /**
+     * Person contract when contract.enabled (the default), null when responses are not to be validated
+     */
+    public static JsonContract fromConfig(){
+        return ConfigManager.getInstance().getBoolean("contract.enabled", true) ? person() : null;
+    }
+
+    /**
+     * Contract of Person with the contract.required properties (id and firstName by default), contract.max_errors
+     * and contract.strict_order
+     */
+    public static JsonContract person(){
+        JsonContract contract= person;
+        if(contract == null){
+            ConfigManager config= ConfigManager.getInstance();
+            List<String> required= config.getList("contract.required");
+            contract= compile(Person.class, required.isEmpty() ? Arrays.asList("id", "firstName") : required,
+                    config.getInt("contract.max_errors", 20), config.getBoolean("contract.strict_order", false));
+            person= contract;
+        }
+        return contract;
+    }
+
+    /**
+     * Contract of a model class that reports properties out of order as warnings, see {@link #compile(Class, List, int, boolean)}
+     */
+    public static JsonContract compile(Class<?> type, List<String> required, int maxErrors){
+        return compile(type, required, maxErrors, false);
+    }
+
+    /**
+     * Contract of a model class: the @JsonProperty (or plain instance) fields, in @JsonPropertyOrder order when
+     * the class has one, the others after them in declaration order
+     * @param strictOrder whether properties out of that order are violations rather than warnings
+     */
+    public static JsonContract compile(Class<?> type, List<String> required, int maxErrors, boolean strictOrder){
+        if(maxErrors < 1){
+            throw new IllegalArgumentException("Error cap must be at least 1: " + maxErrors);
+        }
+        Map<String, Kind> declared= new LinkedHashMap<>();
+        for(Field field : type.getDeclaredFields()){
+            if(Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(JsonIgnore.class)){
+                continue;
+            }
+            JsonProperty property= field.getAnnotation(JsonProperty.class);
+            String name= property == null || property.value().isEmpty() ? field.getName() : property.value();
+            declared.put(name, Kind.of(field.getType()));
+        }
+        List<String> order= new ArrayList<>();
+        JsonPropertyOrder propertyOrder= type.getAnnotation(JsonPropertyOrder.class);
+        if(propertyOrder != null){
+            order.addAll(Arrays.asList(propertyOrder.value()));
+        }
+        for(String name : declared.keySet()){
+            if(!order.contains(name)){
+                order.add(name);
+            }
+        }
+        if(order.size() > 64){
+            throw new IllegalArgumentException(type.getName() + " has more than 64 properties");
+        }
+        Property[] properties= new Property[order.size()];
+        long requiredMask= 0;
+        for(int i=0; i<properties.length; i++){
+            String name= order.get(i);
+            properties[i]= new Property(name, declared.getOrDefault(name, Kind.ANY));
+            if(required.contains(name)){
+                requiredMask|= 1L << i;
+            }
+        }
+        for(String name : required){
+            if(!order.contains(name)){
+                throw new IllegalArgumentException(type.getName() + " has no property " + name);
+            }
+        }
+        return new JsonContract(type.getSimpleName(), properties, requiredMask, maxErrors, strictOrder);
+    }
+
+    /**
+     * Validate a body holding one object
+     */
+    public ContractResult validate(byte[] body){
+        try (JsonParser parser= JsonMappers.MAPPER.getFactory().createParser(body)) {
+            return validate(parser, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Validate a streamed body holding one object without buffering it
+     */
+    public ContractResult validate(InputStream body){
+        try (JsonParser parser= JsonMappers.MAPPER.getFactory().createParser(body)) {
+            return validate(parser, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Validate a body holding an array of objects, in one pass however large the array
+     */
+    public ContractResult validateArray(byte[] body){
+        try (JsonParser parser= JsonMappers.MAPPER.getFactory().createParser(body)) {
+            return validate(parser, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Validate a streamed array of objects without buffering it
+     */
+    public ContractResult validateArray(InputStream body){
+        try (JsonParser parser= JsonMappers.MAPPER.getFactory().createParser(body)) {
+            return validate(parser, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ContractResult validate(JsonParser parser, boolean array) throws IOException {
+        Errors errors= new Errors(maxErrors);
+        long checked= 0;
+        try {
+            JsonToken token= parser.nextToken();
+            if(array){
+                if(token != JsonToken.START_ARRAY){
+                    errors.add("$", "expected an array of " + name + " but found " + describe(token));
+                    return new ContractResult(0, errors.messages, errors.warnings, false);
+                }
+                long index= 0;
+                while((token= parser.nextToken()) != JsonToken.END_ARRAY && token != null && !errors.full()){
+                    validateObject(parser, token, index, errors);
+                    index++;
+                    checked++;
+                }
+            } else {
+                validateObject(parser, token, -1, errors);
+                checked++;
+            }
+        } catch (IOException e) {
+            errors.add("$", "malformed JSON: " + e.getMessage());
+        }
+        return new ContractResult(checked, errors.messages, errors.warnings, errors.full());
+    }
+
+    private void validateObject(JsonParser parser, JsonToken token, long index, Errors errors) throws IOException {
+        if(token != JsonToken.START_OBJECT){
+            errors.add(path(index, null), "expected a " + name + " object but found " + describe(token));
+            parser.skipChildren();
+            return;
+        }
+        long seen= 0;
+        int expected= 0;
+        int previous= -1;
+        while(true){
+            int slot;
+            boolean inOrder= false;
+            if(expected < properties.length){
+                //fast path: the next property in the declared order
+                inOrder= parser.nextFieldName(encodedNames[expected]);
+            } else {
+                parser.nextToken();
+            }
+            if(inOrder){
+                slot= expected;
+            } else {
+                if(parser.currentToken() != JsonToken.FIELD_NAME){
+                    break;
+                }
+                String field= parser.getCurrentName();
+                Integer known= slots.get(field);
+                if(known == null){
+                    errors.add(path(index, field), "unexpected property, it would land in additionalProperties");
+                    parser.nextToken();
+                    parser.skipChildren();
+                    continue;
+                }
+                slot= known;
+            }
+            Property property= properties[slot];
+            if((seen & (1L << slot)) != 0){
+                errors.add(path(index, property.name), "duplicate property");
+            } else if(slot < previous){
+                errors.addOrdering(path(index, property.name), "out of order, expected before " + properties[previous].name, strictOrder);
+            }
+            seen|= 1L << slot;
+            previous= Math.max(previous, slot);
+            expected= slot + 1;
+
+            JsonToken value= parser.nextToken();
+            if(value == JsonToken.VALUE_NULL){
+                //null is left out by the model (NON_NULL), so it counts as missing
+                seen&= ~(1L << slot);
+            } else if(!property.kind.accepts(value, parser)){
+                errors.add(path(index, property.name), "expected " + property.kind.description + " but found " + describe(value));
+            }
+            parser.skipChildren();
+        }
+        long missing= requiredMask & ~seen;
+        while(missing != 0){
+            int slot= Long.numberOfTrailingZeros(missing);
+            errors.add(path(index, properties[slot].name), "required property is missing");
+            missing&= missing - 1;
+        }
+    }
+
+    private static String path(long index, String field){
+        return "$" + (index < 0 ? "" : "[" + index + "]") + (field == null ? "" : "." + field);
+    }
+
+    private static String describe(JsonToken token){
+        if(token == null){
+            return "the end of the body";
+        }
+        switch (token){
+            case START_OBJECT: return "an object";
+            case START_ARRAY: return "an array";
+            case VALUE_STRING: return "a string";
+            case VALUE_NUMBER_INT: return "an integer";
+            case VALUE_NUMBER_FLOAT: return "a decimal number";
+            case VALUE_TRUE:
+            case VALUE_FALSE: return "a boolean";
+            case VALUE_NULL: return "null";
+            default: return token.toString();
+        }
+    }
+
+    private enum Kind {
+        STRING("a string"),
+        INT("a 32 bit integer"),
+        LONG("an integer"),
+        NUMBER("a number"),
+        BOOLEAN("a boolean"),
+        ANY("any value");
+
+        private final String description;
+
+        Kind(String description){
+            this.description= description;
+        }
+
+        static Kind of(Class<?> type){
+            if(type == String.class || type == char.class || type == Character.class){
+                return STRING;
+            }
+            if(type == int.class || type == Integer.class || type == short.class || type == Short.class){
+                return INT;
+            }
+            if(type == long.class || type == Long.class){
+                return LONG;
+            }
+            if(type == double.class || type == Double.class || type == float.class || type == Float.class
+                    || Number.class.isAssignableFrom(type)){
+                return NUMBER;
+            }
+            if(type == boolean.class || type == Boolean.class){
+                return BOOLEAN;
+            }
+            return ANY;
+        }
+
+        boolean accepts(JsonToken token, JsonParser parser) throws IOException {
+            switch (this){
+                case STRING: return token == JsonToken.VALUE_STRING;
+                case INT: return token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT;
+                case LONG: return token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER;
+                case NUMBER: return token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+                case BOOLEAN: return token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE;
+                default: return true;
+            }
+        }
+    }
+
+    private static final class Property {
+        final String name;
+        final Kind kind;
+
+        Property(String name, Kind kind){
+            this.name= name;
+            this.kind= kind;
+        }
+    }
+
+    private static final class Errors {
+        final List<String> messages= new ArrayList<>();
+        final List<String> warnings= new ArrayList<>();
+        final int cap;
+
+        Errors(int cap){
+            this.cap= cap;
+        }
+
+        void add(String path, String message){
+            if(messages.size() < cap){
+                messages.add(path + ": " + message);
+            }
+        }
+
+        void addOrdering(String path, String message, boolean strict){
+            if(strict){
+                add(path, message);
+            } else if(warnings.size() < cap){
+                warnings.add(path + ": " + message);
+            }
+        }
+
+        boolean full(){
+            return messages.size() >= cap;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.data;
+
+/**
+ * Distribution the {@link PersonGenerator} draws the length of a text field from, to control payload sizes
+ */
+@FunctionalInterface
+public interface FieldSize {
+
+    /**
+     * 2.326 is the z-score of the 99th percentile of a standard normal distribution
+     */
+    double Z_99= 2.326;
+
+    int sample(SeededRandom random);
+
+    static FieldSize fixed(int size){
+        checkSize(size);
+        return random -> size;
+    }
+
+    static FieldSize uniform(int min, int max){
+        checkSize(min);
+        if(max < min){
+            throw new IllegalArgumentException("max " + max + " is below min " + min);
+        }
+        return random -> random.nextInt(min, max);
+    }
+
+    /**
+     * Long tailed sizes given by their median and 99th percentile
+     */
+    static FieldSize logNormal(int median, int p99){
+        checkSize(median);
+        if(p99 < median){
+            throw new IllegalArgumentException("p99 " + p99 + " is below the median " + median);
+        }
+        double mu= Math.log(median);
+        double sigma= Math.log((double) p99 / median) / Z_99;
+        return random -> (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(Math.exp(mu + sigma * random.nextGaussian()))));
+    }
+
+    /**
+     * "12" fixed, "4-12" uniform or "20~200" log-normal with median 20 and p99 200
+     */
+    static FieldSize parse(String spec){
+        String value= spec.trim();
+        try {
+            int tilde= value.indexOf('~');
+            if(tilde > 0){
+                return logNormal(Integer.parseInt(value.substring(0, tilde).trim()), Integer.parseInt(value.substring(tilde + 1).trim()));
+            }
+            int dash= value.indexOf('-');
+            if(dash > 0){
+                return uniform(Integer.parseInt(value.substring(0, dash).trim()), Integer.parseInt(value.substring(dash + 1).trim()));
+            }
+            return fixed(Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid field size: " + spec, e);
+        }
+    }
+
+    private static void checkSize(int size){
+        if(size < 1){
+            throw new IllegalArgumentException("Field size must be at least 1: " + size);
+        }
+    }
+}
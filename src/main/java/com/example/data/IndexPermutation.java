@@ -0,0 +1,46 @@
+package com.example.data;
+
+/**
+ * Seeded bijection of [0, size): every index maps to a distinct value, so unique values can be drawn in a
+ * shuffled order without remembering the ones already used. A few invertible mixing steps on the enclosing
+ * power of two, repeated (cycle walking) until the value falls inside the range, which takes under two
+ * rounds on average
+ */
+final class IndexPermutation {
+
+    private final long size;
+    private final long mask;
+    private final int shift;
+    private final long multiplier1;
+    private final long multiplier2;
+    private final long increment;
+
+    IndexPermutation(long size, long seed){
+        if(size < 1){
+            throw new IllegalArgumentException("Size must be at least 1: " + size);
+        }
+        int bits= 64 - Long.numberOfLeadingZeros(size - 1);
+        this.size= size;
+        this.mask= bits == 64 ? -1L : (1L << bits) - 1;
+        this.shift= Math.max(1, bits / 2);
+        //odd multipliers are invertible modulo any power of two
+        this.multiplier1= SeededRandom.mix(seed) | 1;
+        this.multiplier2= SeededRandom.mix(seed + 1) | 1;
+        this.increment= SeededRandom.mix(seed + 2);
+    }
+
+    long apply(long index){
+        if(index < 0 || index >= size){
+            throw new IllegalArgumentException("Index " + index + " is outside [0, " + size + ")");
+        }
+        long x= index;
+        do {
+            x= (x * multiplier1) & mask;
+            x^= x >>> shift;
+            x= (x + increment) & mask;
+            x= (x * multiplier2) & mask;
+            x^= x >>> shift;
+        } while(x >= size);
+        return x;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of a byte range of a file through positional FileChannel reads into a fixed buffer,
+ * so any number of readers can share one channel and only the current line is ever materialized.
+ * The range has to start at the beginning of a line
+ */
+final class LineReader {
+
+    private static final int BUFFER_SIZE= 64 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final ByteBuffer buffer= ByteBuffer.allocate(BUFFER_SIZE);
+    private long position;
+    private byte[] line= new byte[256];
+    private int lineLength;
+
+    LineReader(FileChannel channel, long start, long end){
+        this.channel= channel;
+        this.position= start;
+        this.end= end;
+        buffer.flip();
+    }
+
+    /**
+     * Next line without its line terminator, null once the range is exhausted
+     */
+    String readLine() throws IOException {
+        lineLength= 0;
+        boolean sawAny= false;
+        while(true){
+            if(!buffer.hasRemaining() && !fill()){
+                return sawAny ? decode() : null;
+            }
+            sawAny= true;
+            byte b= buffer.get();
+            if(b == '\n'){
+                return decode();
+            }
+            append(b);
+        }
+    }
+
+    /**
+     * File offset of the first byte not returned yet
+     */
+    long offset(){
+        return position - buffer.remaining();
+    }
+
+    private boolean fill() throws IOException {
+        if(position >= end){
+            return false;
+        }
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - position));
+        int read= channel.read(buffer, position);
+        buffer.flip();
+        if(read <= 0){
+            return false;
+        }
+        position+= read;
+        return true;
+    }
+
+    private void append(byte b){
+        if(lineLength == line.length){
+            line= Arrays.copyOf(line, line.length * 2);
+        }
+        line[lineLength++]= b;
+    }
+
+    private String decode(){
+        int length= lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Offset of the first line starting at or after the given position
+     */
+    static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        if(from == 0){
+            return 0;
+        }
+        //the byte before 'from' tells whether 'from' already is a line start
+        ByteBuffer small= ByteBuffer.allocate(8 * 1024);
+        long position= from - 1;
+        while(position < size){
+            small.clear();
+            int read= channel.read(small, position);
+            if(read <= 0){
+                break;
+            }
+            for(int i=0; i<read; i++){
+                if(small.get(i) == '\n'){
+                    return position + i + 1;
+                }
+            }
+            position+= read;
+        }
+        return size;
+    }
+}
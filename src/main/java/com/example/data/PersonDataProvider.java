@@ -0,0 +1,31 @@
+package com.example.data;
+
+import org.testng.annotations.DataProvider;
+
+import java.util.Iterator;
+
+/**
+ * TestNG data providers backed by {@link PersonFeeder}, use with
+ * {@code @Test(dataProvider = "persons", dataProviderClass = PersonDataProvider.class)}.
+ * The feeder streams data.file, but what stays in memory depends on the provider:
+ * <ul>
+ *     <li>persons runs the rows on the data provider thread pool (-Ddataproviderthreadcount=N or
+ *     data-provider-thread-count in testng.xml). TestNG 7.6 drains the whole iterator to queue one task per row
+ *     first, so every row of the file is in memory before the first one runs. Meant for files of a few thousand rows</li>
+ *     <li>personsStreamed runs the rows one after the other and TestNG only pulls the next row when the previous
+ *     one is done, so a single row is in memory at a time. Use it for large files, or
+ *     {@link PersonFeeder#forEachParallel} for large files that also need parallelism</li>
+ * </ul>
+ */
+public class PersonDataProvider {
+
+    @DataProvider(name = "persons", parallel = true)
+    public static Iterator<Object[]> persons(){
+        return PersonFeeder.fromConfig().dataProviderRows();
+    }
+
+    @DataProvider(name = "personsStreamed")
+    public static Iterator<Object[]> personsStreamed(){
+        return PersonFeeder.fromConfig().dataProviderRows();
+    }
+}
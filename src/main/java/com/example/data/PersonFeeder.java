@@ -0,0 +1,217 @@
+package com.example.data;
+
+import com.example.model.Person;
+import com.example.utils.ConfigManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily maps the rows of a CSV (first line is the header) or NDJSON file to Person objects.
+ * The file is read through a FileChannel with a fixed size buffer, so only the row being mapped is held in memory
+ * however large the file is
+ */
+public class PersonFeeder {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        static Format of(Path file){
+            String name= file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? NDJSON : CSV;
+        }
+    }
+
+    private final Path file;
+    private final Format format;
+
+    public PersonFeeder(Path file, Format format){
+        this.file= file;
+        this.format= format;
+    }
+
+    /**
+     * Format picked from the extension: .ndjson/.jsonl or CSV for anything else
+     */
+    public static PersonFeeder of(Path file){
+        return new PersonFeeder(file, Format.of(file));
+    }
+
+    /**
+     * Feeder over data.file from config.properties (src/resources/TestData.csv by default)
+     */
+    public static PersonFeeder fromConfig(){
+        return of(Paths.get(ConfigManager.getInstance().getString("data.file", "src/resources/TestData.csv")));
+    }
+
+    /**
+     * Rows in file order. Close the stream (try-with-resources) to release the file
+     */
+    public Stream<Person> stream(){
+        FileChannel channel= open();
+        try {
+            long size= channel.size();
+            LineReader reader= new LineReader(channel, 0, size);
+            PersonRowMapper mapper= mapper(reader);
+            Iterator<Person> rows= rows(reader, mapper);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> close(channel));
+        } catch (IOException e) {
+            close(channel);
+            throw new UncheckedIOException("Unable to read " + file, e);
+        }
+    }
+
+    /**
+     * Rows wrapped for a TestNG data provider, the file is closed once the last row has been handed out
+     */
+    public Iterator<Object[]> dataProviderRows(){
+        Stream<Person> stream= stream();
+        Iterator<Person> persons= stream.iterator();
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                boolean hasNext= persons.hasNext();
+                if(!hasNext){
+                    stream.close();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{persons.next()};
+            }
+        };
+    }
+
+    /**
+     * Split the file in as many line aligned byte ranges as there are threads and map each range on its own
+     * thread. Memory stays at one buffer and one row per thread, which makes this the way to go through files
+     * with millions of rows. The consumer is called concurrently and has to be thread-safe
+     * @return number of rows fed
+     */
+    public long forEachParallel(int threads, Consumer<Person> consumer){
+        FileChannel channel= open();
+        ExecutorService executor= Executors.newFixedThreadPool(threads);
+        try {
+            long size= channel.size();
+            LineReader headerReader= new LineReader(channel, 0, size);
+            PersonRowMapper mapper= mapper(headerReader);
+            long dataStart= format == Format.CSV ? headerReader.offset() : 0;
+
+            long[] bounds= new long[threads + 1];
+            bounds[0]= dataStart;
+            bounds[threads]= size;
+            for(int i=1; i<threads; i++){
+                long approximate= dataStart + (size - dataStart) * i / threads;
+                bounds[i]= Math.max(bounds[i - 1], LineReader.nextLineStart(channel, approximate, size));
+            }
+
+            LongAdder count= new LongAdder();
+            List<Future<?>> parts= new ArrayList<>();
+            for(int i=0; i<threads; i++){
+                LineReader reader= new LineReader(channel, bounds[i], bounds[i + 1]);
+                parts.add(executor.submit(() -> {
+                    Iterator<Person> rows= rows(reader, mapper);
+                    while(rows.hasNext()){
+                        consumer.accept(rows.next());
+                        count.increment();
+                    }
+                    return null;
+                }));
+            }
+            for(Future<?> part : parts){
+                part.get();
+            }
+            return count.sum();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while feeding " + file, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Feeding " + file + " failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            close(channel);
+        }
+    }
+
+    private PersonRowMapper mapper(LineReader reader) throws IOException {
+        if(format == Format.NDJSON){
+            return PersonRowMapper.ndjson();
+        }
+        String header= reader.readLine();
+        //an empty file has no header and no rows
+        return PersonRowMapper.csv(header == null ? "" : header);
+    }
+
+    private static Iterator<Person> rows(LineReader reader, PersonRowMapper mapper){
+        return new Iterator<Person>() {
+            private String next= advance();
+
+            private String advance(){
+                try {
+                    String line;
+                    do {
+                        line= reader.readLine();
+                    } while(line != null && line.trim().isEmpty());
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Person next() {
+                if(next == null){
+                    throw new NoSuchElementException();
+                }
+                Person person= mapper.map(next);
+                next= advance();
+                return person;
+            }
+        };
+    }
+
+    private FileChannel open(){
+        try {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open " + file, e);
+        }
+    }
+
+    private static void close(FileChannel channel){
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
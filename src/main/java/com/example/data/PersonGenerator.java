@@ -0,0 +1,493 @@
+package com.example.data;
+
+import com.example.model.EmployeeDetails;
+import com.example.model.Person;
+import com.example.utils.ConfigManager;
+import com.example.utils.ConfigSnapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Reproducible synthetic persons. Record {@code index} only depends on the seed and the index, so the same
+ * builder settings give the same data on every run, in any order and on any number of threads.
+ * Fields are generated as ASCII bytes into a per thread scratch record: the file writers never create a
+ * Person or a String, {@link #person(long)} only allocates the Person and its strings.
+ * Ids are unique (sequential from firstId, or shuffled inside an id space), phone numbers are unique unless
+ * turned off, and the name and address lengths follow {@link FieldSize} distributions to control payload size
+ */
+public class PersonGenerator {
+
+    private static final byte[][] SYLLABLES= ascii("ka", "to", "mi", "ra", "lo", "ne", "sa", "vi", "an", "el", "or", "is",
+            "ur", "ba", "de", "go", "ju", "pe", "ti", "zo", "ly", "ma", "ri", "co", "na", "th", "en", "ha");
+    private static final byte[][] STREETS= ascii("Oak", "Maple", "Cedar", "Pine", "Elm", "Lake", "Hill", "Park", "River",
+            "Mill", "Church", "Main", "High", "Spring", "Sunset", "Forest");
+    private static final byte[][] STREET_TYPES= ascii("St", "Ave", "Rd", "Blvd", "Ln", "Dr", "Way", "Ct");
+    private static final byte[][] CITIES= ascii("New York", "Boston", "Chicago", "Denver", "Austin", "Seattle", "Portland",
+            "Atlanta", "Phoenix", "Dallas", "Miami", "Detroit");
+    private static final byte[] CSV_HEADER= "firstName,lastName,age,id,address,phoneNumber\n".getBytes(StandardCharsets.US_ASCII);
+    private static final long PHONE_SPACE= 1_000_000_000L;
+    private static final int WRITE_BUFFER= 1 << 16;
+
+    private final long seed;
+    private final int firstId;
+    private final long idSpace;
+    //null for sequential ids
+    private final IndexPermutation idPermutation;
+    //null when phone numbers may repeat
+    private final IndexPermutation phonePermutation;
+    private final byte phonePrefix;
+    private final FieldSize firstNameSize;
+    private final FieldSize lastNameSize;
+    private final FieldSize addressSize;
+    private final int minAge;
+    private final int maxAge;
+    private final ThreadLocal<Scratch> scratch= ThreadLocal.withInitial(Scratch::new);
+
+    private PersonGenerator(Builder builder){
+        this.seed= builder.seed;
+        this.firstId= builder.firstId;
+        this.idSpace= builder.idSpace > 0 ? builder.idSpace : (long) Integer.MAX_VALUE - builder.firstId + 1;
+        this.idPermutation= builder.idSpace > 0 ? new IndexPermutation(builder.idSpace, seed) : null;
+        this.phonePermutation= builder.uniquePhones ? new IndexPermutation(PHONE_SPACE, seed + 1) : null;
+        //area codes never start with 0 or 1
+        this.phonePrefix= (byte) ('2' + Math.floorMod(seed, 8));
+        this.firstNameSize= builder.firstNameSize;
+        this.lastNameSize= builder.lastNameSize;
+        this.addressSize= builder.addressSize;
+        this.minAge= builder.minAge;
+        this.maxAge= builder.maxAge;
+    }
+
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    /**
+     * Generator set up from the generator.* keys of config.properties
+     */
+    public static PersonGenerator fromConfig(){
+        ConfigSnapshot config= ConfigManager.getInstance().snapshot();
+        Builder builder= builder()
+                .seed(config.getLong("generator.seed", 42))
+                .uniquePhones(config.getBoolean("generator.unique_phones", true));
+        int firstId= config.getInt("generator.first_id", 1);
+        if(config.contains("generator.id_space")){
+            builder.shuffledIds(firstId, config.getLong("generator.id_space"));
+        } else {
+            builder.sequentialIds(firstId);
+        }
+        if(config.contains("generator.first_name_length")){
+            builder.firstNameSize(FieldSize.parse(config.getString("generator.first_name_length")));
+        }
+        if(config.contains("generator.last_name_length")){
+            builder.lastNameSize(FieldSize.parse(config.getString("generator.last_name_length")));
+        }
+        if(config.contains("generator.address_length")){
+            builder.addressSize(FieldSize.parse(config.getString("generator.address_length")));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Largest number of records with distinct ids (and phone numbers when unique)
+     */
+    public long capacity(){
+        return phonePermutation == null ? idSpace : Math.min(idSpace, PHONE_SPACE);
+    }
+
+    public Person person(long index){
+        Scratch record= fill(index);
+        Person person= new Person();
+        person.setFirstName(record.first.string());
+        person.setLastName(record.last.string());
+        person.setAge(record.age);
+        person.setId(record.id);
+        person.setAddress(record.address.string());
+        person.setPhoneNumber(record.phone.string());
+        return person;
+    }
+
+    /**
+     * Employee of record {@code index}: the person's full name and age with a long tailed salary
+     */
+    public EmployeeDetails employee(long index){
+        Scratch record= fill(index);
+        EmployeeDetails employee= new EmployeeDetails();
+        employee.setName(record.first.string() + " " + record.last.string());
+        employee.setAge(record.age);
+        //median 60k, p99 250k, in cents
+        double salary= Math.exp(Math.log(60_000) + Math.log(250_000.0 / 60_000) / FieldSize.Z_99 * record.random.nextGaussian());
+        employee.setSalary(Math.round(salary * 100) / 100.0);
+        return employee;
+    }
+
+    /**
+     * Records [0, count) in order. Sequential, or parallel with {@code .parallel()} since every record is generated on its own
+     */
+    public Stream<Person> stream(long count){
+        checkCount(count);
+        return LongStream.range(0, count).mapToObj(this::person);
+    }
+
+    /**
+     * Records [from, from + count) generated on demand, e.g. for {@code createPersons(Iterator, ...)} or a data provider
+     */
+    public Iterator<Person> iterator(long from, long count){
+        checkCount(from + count);
+        return new Iterator<Person>() {
+            private long next= from;
+
+            @Override
+            public boolean hasNext() {
+                return next < from + count;
+            }
+
+            @Override
+            public Person next() {
+                if(!hasNext()){
+                    throw new NoSuchElementException();
+                }
+                return person(next++);
+            }
+        };
+    }
+
+    /**
+     * Write records [0, count) as NDJSON, in the same field order as Person's JSON, readable by {@link PersonFeeder}
+     * @return number of records written
+     */
+    public long writeNdjson(Path file, long count){
+        return write(file, count, false);
+    }
+
+    /**
+     * Write records [0, count) as CSV with a header, readable by {@link PersonFeeder}
+     * @return number of records written
+     */
+    public long writeCsv(Path file, long count){
+        return write(file, count, true);
+    }
+
+    private long write(Path file, long count, boolean csv){
+        checkCount(count);
+        try (OutputStream out= new BufferedOutputStream(Files.newOutputStream(file), WRITE_BUFFER)) {
+            if(csv){
+                out.write(CSV_HEADER);
+            }
+            for(long index=0; index<count; index++){
+                Scratch record= fill(index);
+                if(csv){
+                    writeCsv(record, out);
+                } else {
+                    writeJson(record, out);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write generated persons to " + file, e);
+        }
+        return count;
+    }
+
+    private static void writeJson(Scratch record, OutputStream out) throws IOException {
+        Field digits= record.digits;
+        out.write('{');
+        writeJsonText(out, "\"firstName\":\"", record.first);
+        writeJsonText(out, ",\"lastName\":\"", record.last);
+        writeAscii(out, ",\"age\":");
+        digits.setNumber(record.age);
+        digits.writeTo(out);
+        writeAscii(out, ",\"id\":");
+        digits.setNumber(record.id);
+        digits.writeTo(out);
+        writeJsonText(out, ",\"address\":\"", record.address);
+        writeJsonText(out, ",\"phoneNumber\":\"", record.phone);
+        out.write('}');
+        out.write('\n');
+    }
+
+    private static void writeCsv(Scratch record, OutputStream out) throws IOException {
+        Field digits= record.digits;
+        record.first.writeTo(out);
+        out.write(',');
+        record.last.writeTo(out);
+        out.write(',');
+        digits.setNumber(record.age);
+        digits.writeTo(out);
+        out.write(',');
+        digits.setNumber(record.id);
+        digits.writeTo(out);
+        //addresses carry a comma before the city, generated text never contains quotes
+        out.write(',');
+        out.write('"');
+        record.address.writeTo(out);
+        out.write('"');
+        out.write(',');
+        record.phone.writeTo(out);
+        out.write('\n');
+    }
+
+    //generated text is letters, digits, spaces and commas only, nothing to escape
+    private static void writeJsonText(OutputStream out, String prefix, Field field) throws IOException {
+        writeAscii(out, prefix);
+        field.writeTo(out);
+        out.write('"');
+    }
+
+    private static void writeAscii(OutputStream out, String text) throws IOException {
+        for(int i=0; i<text.length(); i++){
+            out.write(text.charAt(i));
+        }
+    }
+
+    private void checkCount(long count){
+        if(count < 0 || count > capacity()){
+            throw new IllegalArgumentException("Count must be between 0 and " + capacity() + ": " + count);
+        }
+    }
+
+    /**
+     * Generate record {@code index} into this thread's scratch record
+     */
+    private Scratch fill(long index){
+        if(index < 0 || index >= capacity()){
+            throw new IllegalArgumentException("Index " + index + " is outside [0, " + capacity() + ")");
+        }
+        Scratch record= scratch.get();
+        SeededRandom random= record.random;
+        random.reseed(SeededRandom.seedOf(seed, index));
+        record.id= (int) (firstId + (idPermutation == null ? index : idPermutation.apply(index)));
+        record.age= random.nextInt(minAge, maxAge);
+        name(random, firstNameSize.sample(random), record.first);
+        name(random, lastNameSize.sample(random), record.last);
+        address(random, addressSize.sample(random), record.address);
+        phone(random, index, record.phone);
+        return record;
+    }
+
+    private static void name(SeededRandom random, int length, Field field){
+        field.clear(length);
+        while(field.length < length){
+            field.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        field.length= length;
+        field.bytes[0]= (byte) Character.toUpperCase(field.bytes[0]);
+    }
+
+    /**
+     * "12 Oak Mill Ave, Boston", with as many street words as needed to reach the length and cut to it
+     */
+    private static void address(SeededRandom random, int length, Field field){
+        byte[] type= STREET_TYPES[random.nextInt(STREET_TYPES.length)];
+        byte[] city= CITIES[random.nextInt(CITIES.length)];
+        field.clear(length);
+        field.appendNumber(random.nextInt(1, 9999));
+        do {
+            field.append((byte) ' ');
+            field.append(STREETS[random.nextInt(STREETS.length)]);
+        } while(field.length + 1 + type.length + 2 + city.length < length);
+        field.append((byte) ' ');
+        field.append(type);
+        field.append((byte) ',');
+        field.append((byte) ' ');
+        field.append(city);
+        field.length= length;
+        //never end on a separator
+        if(field.bytes[length - 1] == ' ' || field.bytes[length - 1] == ','){
+            field.bytes[length - 1]= 'a';
+        }
+    }
+
+    private void phone(SeededRandom random, long index, Field field){
+        field.clear(10);
+        field.append(phonePrefix);
+        long rest= phonePermutation == null ? random.nextLong() >>> 1 : phonePermutation.apply(index);
+        for(int i=9; i>=1; i--){
+            field.bytes[i]= (byte) ('0' + rest % 10);
+            rest/= 10;
+        }
+        field.length= 10;
+    }
+
+    private static byte[][] ascii(String... values){
+        byte[][] bytes= new byte[values.length][];
+        for(int i=0; i<values.length; i++){
+            bytes[i]= values[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return bytes;
+    }
+
+    /**
+     * Reused per thread, holds the fields of the record being generated
+     */
+    private static final class Scratch {
+        final SeededRandom random= new SeededRandom(0);
+        final Field first= new Field();
+        final Field last= new Field();
+        final Field address= new Field();
+        final Field phone= new Field();
+        final Field digits= new Field();
+        int id;
+        int age;
+    }
+
+    /**
+     * Growable ASCII buffer
+     */
+    private static final class Field {
+        byte[] bytes= new byte[64];
+        int length;
+
+        /**
+         * Empty it, with room for at least {@code capacity} bytes plus the longest token that can overshoot
+         */
+        void clear(int capacity){
+            length= 0;
+            ensure(capacity + 32);
+        }
+
+        void append(byte b){
+            ensure(length + 1);
+            bytes[length++]= b;
+        }
+
+        void append(byte[] token){
+            ensure(length + token.length);
+            System.arraycopy(token, 0, bytes, length, token.length);
+            length+= token.length;
+        }
+
+        void appendNumber(int value){
+            int start= length;
+            int rest= value;
+            do {
+                append((byte) ('0' + rest % 10));
+                rest/= 10;
+            } while(rest > 0);
+            //digits were appended lowest first
+            for(int i=start, j=length - 1; i<j; i++, j--){
+                byte swap= bytes[i];
+                bytes[i]= bytes[j];
+                bytes[j]= swap;
+            }
+        }
+
+        void setNumber(int value){
+            length= 0;
+            if(value < 0){
+                append((byte) '-');
+                appendNumber(-value);
+            } else {
+                appendNumber(value);
+            }
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, length);
+        }
+
+        String string(){
+            return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        }
+
+        private void ensure(int capacity){
+            if(capacity > bytes.length){
+                bytes= Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private long seed= 42;
+        private int firstId= 1;
+        private long idSpace;
+        private boolean uniquePhones= true;
+        private FieldSize firstNameSize= FieldSize.uniform(4, 10);
+        private FieldSize lastNameSize= FieldSize.uniform(4, 12);
+        private FieldSize addressSize= FieldSize.uniform(16, 40);
+        private int minAge= 18;
+        private int maxAge= 80;
+
+        public Builder seed(long seed){
+            this.seed= seed;
+            return this;
+        }
+
+        /**
+         * Record n gets the id firstId + n (the default, from 1)
+         */
+        public Builder sequentialIds(int firstId){
+            checkFirstId(firstId);
+            this.firstId= firstId;
+            this.idSpace= 0;
+            return this;
+        }
+
+        /**
+         * Records get distinct ids of [firstId, firstId + space) in a seeded random order,
+         * at most {@code space} records can be generated
+         */
+        public Builder shuffledIds(int firstId, long space){
+            checkFirstId(firstId);
+            if(space < 1 || firstId + space - 1 > Integer.MAX_VALUE){
+                throw new IllegalArgumentException("Id space must be between 1 and " + ((long) Integer.MAX_VALUE - firstId + 1) + ": " + space);
+            }
+            this.firstId= firstId;
+            this.idSpace= space;
+            return this;
+        }
+
+        /**
+         * Distinct phone numbers for up to a billion records (the default), or random ones that may repeat
+         */
+        public Builder uniquePhones(boolean uniquePhones){
+            this.uniquePhones= uniquePhones;
+            return this;
+        }
+
+        public Builder firstNameSize(FieldSize size){
+            this.firstNameSize= size;
+            return this;
+        }
+
+        public Builder lastNameSize(FieldSize size){
+            this.lastNameSize= size;
+            return this;
+        }
+
+        public Builder addressSize(FieldSize size){
+            this.addressSize= size;
+            return this;
+        }
+
+        public Builder ages(int min, int max){
+            if(min < 0 || max < min){
+                throw new IllegalArgumentException("Invalid age range: " + min + "-" + max);
+            }
+            this.minAge= min;
+            this.maxAge= max;
+            return this;
+        }
+
+        public PersonGenerator build(){
+            return new PersonGenerator(this);
+        }
+
+        private static void checkFirstId(int firstId){
+            if(firstId < 0){
+                throw new IllegalArgumentException("First id must not be negative: " + firstId);
+            }
+        }
+    }
+}
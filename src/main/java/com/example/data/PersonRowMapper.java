@@ -0,0 +1,109 @@
+package com.example.data;
+
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns one line of a CSV (with header) or NDJSON file into a Person
+ */
+abstract class PersonRowMapper {
+
+    abstract Person map(String line);
+
+    static PersonRowMapper ndjson(){
+        return new PersonRowMapper() {
+            @Override
+            Person map(String line) {
+                try {
+                    return JsonMappers.PERSON_READER.readValue(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Invalid NDJSON row: " + line, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Columns are matched to Person by the header names, columns Person does not know end up in its additional properties
+     */
+    static PersonRowMapper csv(String header){
+        String[] columns= split(header).toArray(new String[0]);
+        return new PersonRowMapper() {
+            @Override
+            Person map(String line) {
+                List<String> values= split(line);
+                Person person= new Person();
+                for(int i=0; i<columns.length && i<values.size(); i++){
+                    set(person, columns[i].trim(), values.get(i));
+                }
+                return person;
+            }
+        };
+    }
+
+    private static void set(Person person, String column, String value){
+        boolean empty= value.isEmpty();
+        switch (column){
+            case "firstName":
+                person.setFirstName(empty ? null : value);
+                break;
+            case "lastName":
+                person.setLastName(empty ? null : value);
+                break;
+            case "age":
+                person.setAge(empty ? null : Integer.valueOf(value.trim()));
+                break;
+            case "id":
+                person.setId(empty ? null : Integer.valueOf(value.trim()));
+                break;
+            case "address":
+                person.setAddress(empty ? null : value);
+                break;
+            case "phoneNumber":
+                person.setPhoneNumber(empty ? null : value);
+                break;
+            default:
+                if(!empty){
+                    person.setAdditionalProperty(column, value);
+                }
+        }
+    }
+
+    /**
+     * RFC 4180 style split: fields may be quoted, "" inside quotes is a literal quote
+     */
+    static List<String> split(String line){
+        List<String> fields= new ArrayList<>();
+        StringBuilder field= new StringBuilder();
+        boolean quoted= false;
+        for(int i=0; i<line.length(); i++){
+            char c= line.charAt(i);
+            if(quoted){
+                if(c == '"'){
+                    if(i + 1 < line.length() && line.charAt(i + 1) == '"'){
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted= false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if(c == '"'){
+                quoted= true;
+            } else if(c == ','){
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.data;
+
+/**
+ * Small splitmix64 generator that can be reseeded in place, so per record randomness derived from
+ * (seed, index) needs no allocation. Not thread-safe, use one per thread
+ */
+public final class SeededRandom {
+
+    private static final long GOLDEN_GAMMA= 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public SeededRandom(long seed){
+        this.state= seed;
+    }
+
+    public void reseed(long seed){
+        this.state= seed;
+    }
+
+    /**
+     * Seed of record {@code index} of a sequence seeded with {@code seed}, independent of the other records
+     */
+    static long seedOf(long seed, long index){
+        return mix(seed ^ mix(index * GOLDEN_GAMMA));
+    }
+
+    static long mix(long z){
+        z= (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z= (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long nextLong(){
+        return mix(state+= GOLDEN_GAMMA);
+    }
+
+    /**
+     * Uniform in [0, bound)
+     */
+    public int nextInt(int bound){
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Uniform in [min, max], both inclusive
+     */
+    public int nextInt(int min, int max){
+        return min + (int) ((((nextLong() >>> 32) * ((long) max - min + 1))) >>> 32);
+    }
+
+    /**
+     * Uniform in [0, 1)
+     */
+    public double nextDouble(){
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Standard normal (Box-Muller), two draws per call so the sequence does not depend on earlier calls
+     */
+    public double nextGaussian(){
+        double u1= 1.0 - nextDouble();
+        double u2= nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
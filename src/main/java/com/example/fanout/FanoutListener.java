@@ -0,0 +1,145 @@
+package com.example.fanout;
+
+import com.example.utils.ConfigManager;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fan-out mode, on when fanout.targets is set: every &lt;test&gt; of the suite is copied once per {@link Target}
+ * and the copies run at once (parallel="tests"), each keeping its own parallel mode for its classes.
+ * The thread running a copy is bound to its target, so the helpers its classes build use that target's
+ * service, connection pool and metrics. At suite end the {@link FanoutReport} is printed and written to
+ * fanout.report_file; the endpoint metrics of every target are exported with a target label by
+ * {@link com.example.metrics.MetricsSuiteListener}
+ */
+public class FanoutListener implements IAlterSuiteListener, ITestListener, ISuiteListener {
+
+    public static final String TARGET_PARAMETER= "fanout.target";
+
+    private volatile FanoutReport report;
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        List<Target> targets= Target.fromConfig();
+        if(targets.get(0).isDefault()){
+            return;
+        }
+        report= new FanoutReport(targets);
+        for(XmlSuite suite : suites){
+            List<XmlTest> originals= new ArrayList<>(suite.getTests());
+            suite.getTests().clear();
+            for(XmlTest original : originals){
+                for(Target target : targets){
+                    copy(original, target);
+                }
+            }
+            suite.setParallel(XmlSuite.ParallelMode.TESTS);
+            suite.setThreadCount(Math.max(suite.getThreadCount(), suite.getTests().size()));
+            System.out.printf("Fan-out of suite %s: %d tests over %s%n", suite.getName(), suite.getTests().size(), targets);
+        }
+    }
+
+    /**
+     * Copy of the test, added to its suite, bound to the target by parameter
+     */
+    private static void copy(XmlTest original, Target target){
+        //read before the suite goes parallel="tests", which the copy would otherwise inherit
+        XmlSuite.ParallelMode parallel= original.getParallel();
+        int threadCount= original.getThreadCount();
+        XmlTest test= (XmlTest) original.clone();
+        test.setName(original.getName() + " [" + target.getName() + "]");
+        test.setParallel(parallel);
+        test.setThreadCount(threadCount);
+        test.addParameter(TARGET_PARAMETER, target.getName());
+        List<XmlClass> classes= new ArrayList<>();
+        for(XmlClass xmlClass : original.getXmlClasses()){
+            XmlClass copy= (XmlClass) xmlClass.clone();
+            copy.setXmlTest(test);
+            classes.add(copy);
+        }
+        test.setXmlClasses(classes);
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        String target= context.getCurrentXmlTest().getParameter(TARGET_PARAMETER);
+        if(target != null){
+            Target.bind(Target.named(target));
+        }
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        if(context.getCurrentXmlTest().getParameter(TARGET_PARAMETER) != null){
+            Target.bind(null);
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        record(result);
+    }
+
+    private void record(ITestResult result){
+        String target= result.getTestContext().getCurrentXmlTest().getParameter(TARGET_PARAMETER);
+        if(report != null && target != null){
+            report.recordTest(target, result.getStatus());
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if(report == null){
+            return;
+        }
+        String table= report.toString();
+        System.out.println(table);
+        Path file= Paths.get(ConfigManager.getInstance().getString("fanout.report_file", "target/metrics/fanout-report.txt"));
+        try {
+            if(file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, table.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the fan-out report to " + file, e);
+        }
+    }
+
+    /**
+     * Report of the running fan-out, null outside of one
+     */
+    public FanoutReport getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.fanout;
+
+import com.example.metrics.EndpointMetrics;
+import com.example.metrics.LatencyHistogram;
+import org.testng.ITestResult;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Test outcomes and endpoint latencies of a fan-out run side by side, one row per target for every
+ * method/endpoint/status, with each target's p95 relative to the first target that saw the route
+ */
+public class FanoutReport {
+
+    private static final int PASSED= 0;
+    private static final int FAILED= 1;
+    private static final int SKIPPED= 2;
+
+    private final List<Target> targets;
+    //passed, failed, skipped per target name
+    private final ConcurrentMap<String, LongAdder[]> outcomes= new ConcurrentHashMap<>();
+
+    public FanoutReport(List<Target> targets){
+        this.targets= List.copyOf(targets);
+    }
+
+    public List<Target> getTargets() {
+        return targets;
+    }
+
+    public void recordTest(String target, int status){
+        LongAdder[] counts= outcomes.computeIfAbsent(target, name -> new LongAdder[]{new LongAdder(), new LongAdder(), new LongAdder()});
+        switch (status){
+            case ITestResult.SUCCESS:
+                counts[PASSED].increment();
+                break;
+            case ITestResult.SKIP:
+                counts[SKIPPED].increment();
+                break;
+            default:
+                counts[FAILED].increment();
+        }
+    }
+
+    public long getPassed(String target){
+        return count(target, PASSED);
+    }
+
+    public long getFailed(String target){
+        return count(target, FAILED);
+    }
+
+    public long getSkipped(String target){
+        return count(target, SKIPPED);
+    }
+
+    private long count(String target, int outcome){
+        LongAdder[] counts= outcomes.get(target);
+        return counts == null ? 0 : counts[outcome].sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb= new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Fan-out over %d targets%n", targets.size()));
+        sb.append(String.format(Locale.ROOT, "%-14s %-40s %8s %8s %8s%n", "target", "base uri", "passed", "failed", "skipped"));
+        for(Target target : targets){
+            sb.append(String.format(Locale.ROOT, "%-14s %-40s %8d %8d %8d%n", target.getName(), target.getBaseUri(),
+                    getPassed(target.getName()), getFailed(target.getName()), getSkipped(target.getName())));
+        }
+
+        //every route any target saw, in the order of EndpointMetrics.Key
+        Map<EndpointMetrics.Key, Map<String, LatencyHistogram>> routes= new TreeMap<>();
+        for(Target target : targets){
+            target.getMetrics().snapshot().forEach((key, stats) ->
+                    routes.computeIfAbsent(key, k -> new HashMap<>()).put(target.getName(), stats.getLatency()));
+        }
+        sb.append(System.lineSeparator());
+        sb.append(String.format(Locale.ROOT, "%-7s %-20s %6s %-14s %8s %10s %10s %10s %10s%n",
+                "method", "endpoint", "status", "target", "count", "p50 ms", "p95 ms", "p99 ms", "p95 ratio"));
+        routes.forEach((key, byTarget) -> {
+            long baseline= -1;
+            for(Target target : targets){
+                LatencyHistogram h= byTarget.get(target.getName());
+                if(h == null){
+                    continue;
+                }
+                long p95= h.getValueAtPercentile(95);
+                if(baseline < 0){
+                    baseline= p95;
+                }
+                sb.append(String.format(Locale.ROOT, "%-7s %-20s %6d %-14s %8d %10.2f %10.2f %10.2f %9.2fx%n",
+                        key.getMethod(), key.getEndpoint(), key.getStatus(), target.getName(), h.getCount(),
+                        h.getValueAtPercentile(50) / 1e6, p95 / 1e6, h.getValueAtPercentile(99) / 1e6,
+                        baseline == 0 ? 1.0 : (double) p95 / baseline));
+            }
+        });
+        return sb.toString();
+    }
+}
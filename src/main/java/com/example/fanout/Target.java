@@ -0,0 +1,150 @@
+package com.example.fanout;
+
+import com.example.metrics.EndpointMetrics;
+import com.example.utils.ConfigManager;
+import com.example.utils.UrlUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One deployment of the persons service the suite runs against. Helpers built for a target get its own
+ * connection pool and record into its own {@link EndpointMetrics}, both found by target name.
+ * Without fanout.targets there is a single target, {@link #DEFAULT}, on base_url/port with the global metrics.
+ * With fanout.targets=dev,staging each name takes fanout.NAME.base_url and fanout.NAME.port (defaulting to port)
+ * and {@link FanoutListener} runs the tests against all of them at once, binding each thread to its target
+ */
+public final class Target {
+
+    public static final String DEFAULT= "default";
+
+    //inherited, so pools started by a test (scenarios, bulk calls) stay on the target of the test
+    private static final InheritableThreadLocal<Target> CURRENT= new InheritableThreadLocal<>();
+
+    private final String name;
+    private final String baseUrl;
+    private final int port;
+
+    private Target(String name, String baseUrl, int port){
+        this.name= Objects.requireNonNull(name, "name");
+        this.baseUrl= Objects.requireNonNull(baseUrl, "baseUrl of target " + name);
+        this.port= port;
+    }
+
+    public static Target of(String name, String baseUrl, int port){
+        return new Target(name, baseUrl, port);
+    }
+
+    /**
+     * The base_url/port target
+     */
+    public static Target defaultTarget(){
+        ConfigManager config= ConfigManager.getInstance();
+        return new Target(DEFAULT, config.getString("base_url"), config.getInt("port"));
+    }
+
+    /**
+     * The fanout.targets in their configured order, or the default target alone
+     */
+    public static List<Target> fromConfig(){
+        ConfigManager config= ConfigManager.getInstance();
+        List<String> names= config.getList("fanout.targets");
+        if(names.isEmpty()){
+            return Collections.singletonList(defaultTarget());
+        }
+        List<Target> targets= new ArrayList<>();
+        for(String name : names){
+            if(name.equals(DEFAULT)){
+                throw new IllegalArgumentException("fanout.targets cannot use the reserved name " + DEFAULT);
+            }
+            String baseUrl= config.getString("fanout." + name + ".base_url", null);
+            if(baseUrl == null){
+                throw new IllegalArgumentException("fanout." + name + ".base_url is missing");
+            }
+            targets.add(new Target(name, baseUrl, config.getInt("fanout." + name + ".port", config.getInt("port", -1))));
+        }
+        return targets;
+    }
+
+    /**
+     * Target of fanout.targets by name
+     */
+    public static Target named(String name){
+        for(Target target : fromConfig()){
+            if(target.name.equals(name)){
+                return target;
+            }
+        }
+        throw new IllegalArgumentException("Unknown target " + name + ", fanout.targets is " + ConfigManager.getInstance().getList("fanout.targets"));
+    }
+
+    /**
+     * The target bound to this thread, the default target when none is
+     */
+    public static Target current(){
+        Target target= CURRENT.get();
+        return target == null ? defaultTarget() : target;
+    }
+
+    /**
+     * Bind this thread, and the threads it starts from now on, to the target. null unbinds it
+     */
+    public static void bind(Target target){
+        if(target == null){
+            CURRENT.remove();
+        } else {
+            CURRENT.set(target);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getBaseUri(){
+        return UrlUtils.baseUri(baseUrl, port);
+    }
+
+    public boolean isDefault(){
+        return name.equals(DEFAULT);
+    }
+
+    /**
+     * Registry the helpers of this target record into
+     */
+    public EndpointMetrics getMetrics(){
+        return isDefault() ? EndpointMetrics.global() : EndpointMetrics.forTarget(name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o){
+            return true;
+        }
+        if(!(o instanceof Target)){
+            return false;
+        }
+        Target target= (Target) o;
+        return port == target.port && name.equals(target.name) && baseUrl.equals(target.baseUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, baseUrl, port);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + getBaseUri() + ")";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.fixture;
+
+import com.example.fanout.Target;
+import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import com.example.utils.ConfigManager;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the fixture data small across runs. Before the first suite, persons left in this JVM's id block by
+ * runs that died before their teardown are swept in one batch on every target (fixture.sweep, on by default), so they neither
+ * collide with new fixtures nor slow down every later getAllPerson. After each suite the
+ * {@link PersonFixtures#suite()} persons are deleted
+ */
+public class FixtureSuiteListener implements ISuiteListener {
+
+    private static volatile boolean swept;
+
+    @Override
+    public void onStart(ISuite suite) {
+        if(swept || !ConfigManager.getInstance().getBoolean("fixture.sweep", true)){
+            return;
+        }
+        swept= true;
+        for(Target target : Target.fromConfig()){
+            sweep(target);
+        }
+    }
+
+    private static void sweep(Target target){
+        IdAllocator ids= IdAllocator.global();
+        try {
+            PersonServiceHelper personServiceHelper= new PersonServiceHelper(target);
+            List<Integer> leftovers;
+            try (Stream<Person> persons= personServiceHelper.streamAllPerson()) {
+                leftovers= persons.map(Person::getId)
+                        .filter(id -> id != null && ids.owns(id))
+                        .collect(Collectors.toList());
+            }
+            if(leftovers.isEmpty()){
+                return;
+            }
+            long failed= personServiceHelper.deletePersons(leftovers, ConfigManager.getInstance().getInt("fixture.teardown_concurrency", 16))
+                    .stream().filter(result -> !result.isGone()).count();
+            System.out.printf("Fixture sweep of %s: %d leftover persons of ids [%d, %d) deleted, %d failed%n",
+                    target.getName(), leftovers.size() - failed, ids.getFirst(), ids.getEnd(), failed);
+        } catch (Exception | AssertionError e) {
+            //unreachable service (RestAssured rethrows the checked connect errors), the tests will report it on their own
+            System.out.println("Fixture sweep of " + target.getName() + " skipped: " + e);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        for(PersonFixtures fixtures : PersonFixtures.suitesCreated()){
+            fixtures.teardown();
+        }
+    }
+}
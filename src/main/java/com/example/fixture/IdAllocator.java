@@ -0,0 +1,78 @@
+package com.example.fixture;
+
+import com.example.utils.ConfigManager;
+import com.example.utils.ConfigSnapshot;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out person ids from a block reserved for this JVM, so parallel test classes and parallel shards never
+ * create the same person. The block is [fixture.id_start + partition * fixture.id_block, + fixture.id_block),
+ * partition is fixture.partition or shard.index. Concurrent runs against one service need distinct partitions
+ */
+public class IdAllocator {
+
+    private static volatile IdAllocator global;
+
+    private final int first;
+    private final int end;
+    private final AtomicInteger next;
+
+    public IdAllocator(int first, int size){
+        if(first < 0 || size < 1){
+            throw new IllegalArgumentException("Invalid id block: first " + first + ", size " + size);
+        }
+        this.first= first;
+        this.end= Math.addExact(first, size);
+        this.next= new AtomicInteger(first);
+    }
+
+    /**
+     * Allocator shared by every fixture of this JVM
+     */
+    public static IdAllocator global(){
+        IdAllocator allocator= global;
+        if(allocator == null){
+            synchronized (IdAllocator.class){
+                if(global == null){
+                    global= fromConfig(ConfigManager.getInstance().snapshot());
+                }
+                allocator= global;
+            }
+        }
+        return allocator;
+    }
+
+    static IdAllocator fromConfig(ConfigSnapshot config){
+        int start= config.getInt("fixture.id_start", 100000);
+        int block= config.getInt("fixture.id_block", 100000);
+        int partition= config.getInt("fixture.partition", config.getInt("shard.index", 0));
+        return new IdAllocator(Math.addExact(start, Math.multiplyExact(partition, block)), block);
+    }
+
+    public int allocate(){
+        int id= next.getAndIncrement();
+        if(id >= end || id < first){
+            throw new IllegalStateException("Fixture id block [" + first + ", " + end + ") is exhausted, raise fixture.id_block");
+        }
+        return id;
+    }
+
+    /**
+     * Whether the id belongs to this JVM's block, allocated already or not
+     */
+    public boolean owns(int id){
+        return id >= first && id < end;
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    /**
+     * Exclusive end of the block
+     */
+    public int getEnd() {
+        return end;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.fixture;
+
+import com.example.fanout.Target;
+import com.example.helpers.BulkDeleteResult;
+import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import com.example.utils.ConfigManager;
+import io.restassured.response.Response;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Persons created by tests, recorded per test and deleted together at the end of the class or suite.
+ * Ids come from the JVM's {@link IdAllocator} block, so tests can run in parallel without touching each
+ * other's data. Use one instance per class and call {@link #teardown()} from an @AfterClass(alwaysRun = true),
+ * or {@link #suite()} for persons that have to live until {@link FixtureSuiteListener} tears them down.
+ * Teardown sends the deletes as one batch with fixture.teardown_concurrency in flight
+ */
+public class PersonFixtures {
+
+    //suite fixtures by target name
+    private static final ConcurrentMap<String, PersonFixtures> SUITE= new ConcurrentHashMap<>();
+
+    private final PersonServiceHelper personServiceHelper;
+    private final IdAllocator ids;
+    private final int concurrency;
+    //created persons per test, in creation order
+    private final Map<String, Queue<Person>> createdByTest= new ConcurrentHashMap<>();
+    //ids still to delete
+    private final Set<Integer> live= ConcurrentHashMap.newKeySet();
+
+    public PersonFixtures(PersonServiceHelper personServiceHelper){
+        this(personServiceHelper, IdAllocator.global(), ConfigManager.getInstance().getInt("fixture.teardown_concurrency", 16));
+    }
+
+    public PersonFixtures(PersonServiceHelper personServiceHelper, IdAllocator ids, int concurrency){
+        if(concurrency < 1){
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.personServiceHelper= personServiceHelper;
+        this.ids= ids;
+        this.concurrency= concurrency;
+    }
+
+    /**
+     * Fixtures shared by the whole suite on the target of this thread, deleted once the suite finishes
+     */
+    public static PersonFixtures suite(){
+        Target target= Target.current();
+        return SUITE.computeIfAbsent(target.getName(), name -> new PersonFixtures(new PersonServiceHelper(target)));
+    }
+
+    /**
+     * Suite fixtures of every target that asked for them, without creating any
+     */
+    static Collection<PersonFixtures> suitesCreated(){
+        return SUITE.values();
+    }
+
+    /**
+     * A fresh id of this JVM's block
+     */
+    public int nextId(){
+        return ids.allocate();
+    }
+
+    /**
+     * Create the person, with a fresh id unless it has one, and record it for teardown
+     */
+    public Response create(Person person){
+        if(person.getId() == null){
+            person.setId(nextId());
+        }
+        //recorded first, a create that timed out may still have happened
+        track(person);
+        return personServiceHelper.createPerson(person);
+    }
+
+    /**
+     * Record a person the test created on its own, so it is deleted at teardown
+     */
+    public void track(Person person){
+        live.add(person.getId());
+        createdByTest.computeIfAbsent(currentTest(), test -> new ConcurrentLinkedQueue<>()).add(person);
+    }
+
+    /**
+     * The test deleted the person itself, teardown can skip it
+     */
+    public void deleted(int id){
+        live.remove(id);
+    }
+
+    /**
+     * Persons created by the test, as ClassName.methodName
+     */
+    public List<Person> getCreated(String test){
+        Queue<Person> created= createdByTest.get(test);
+        return created == null ? Collections.emptyList() : new ArrayList<>(created);
+    }
+
+    public int getLiveCount(){
+        return live.size();
+    }
+
+    /**
+     * Delete every recorded person still alive in one concurrent batch. A person that is already gone counts
+     * as deleted, failures are logged and left to the next run's sweep (see {@link FixtureSuiteListener})
+     * @return the deletes that failed
+     */
+    public List<BulkDeleteResult> teardown(){
+        List<Integer> pending= new ArrayList<>(live);
+        live.removeAll(pending);
+        createdByTest.clear();
+        if(pending.isEmpty()){
+            return Collections.emptyList();
+        }
+        long start= System.nanoTime();
+        List<BulkDeleteResult> failed= new ArrayList<>();
+        for(BulkDeleteResult result : personServiceHelper.deletePersons(pending, concurrency)){
+            if(!result.isGone()){
+                failed.add(result);
+            }
+        }
+        System.out.printf("Fixture teardown: %d of %d persons deleted in %.1f ms%n",
+                pending.size() - failed.size(), pending.size(), (System.nanoTime() - start) / 1e6);
+        for(BulkDeleteResult result : failed){
+            System.out.println("Fixture teardown failed: " + result);
+        }
+        return failed;
+    }
+
+    private static String currentTest(){
+        ITestResult result= Reporter.getCurrentTestResult();
+        return result == null ? "unknown" : result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+    }
+}
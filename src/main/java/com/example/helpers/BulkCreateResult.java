@@ -0,0 +1,63 @@
+package com.example.helpers;
+
+/**
+ * Outcome of one create in a bulk createPersons call
+ */
+public class BulkCreateResult {
+
+    private final long index;
+    private final Integer id;
+    private final int statusCode;
+    private final long latencyNanos;
+    private final Throwable error;
+
+    BulkCreateResult(long index, Integer id, int statusCode, long latencyNanos, Throwable error){
+        this.index= index;
+        this.id= id;
+        this.statusCode= statusCode;
+        this.latencyNanos= latencyNanos;
+        this.error= error;
+    }
+
+    /**
+     * Position of the person in the input
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Id returned by the service, or the id that was sent when the response did not carry one
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * HTTP status, 0 when no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * Transport failure, null when a response was received
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isCreated(){
+        return statusCode == 201;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkCreateResult{index=" + index + ", id=" + id + ", status=" + statusCode
+                + ", latencyMs=" + latencyNanos / 1e6 + (error == null ? "" : ", error=" + error) + "}";
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.helpers;
+
+/**
+ * Outcome of one delete in a bulk deletePersons call
+ */
+public class BulkDeleteResult {
+
+    private final long index;
+    private final int id;
+    private final int statusCode;
+    private final long latencyNanos;
+    private final Throwable error;
+
+    BulkDeleteResult(long index, int id, int statusCode, long latencyNanos, Throwable error){
+        this.index= index;
+        this.id= id;
+        this.statusCode= statusCode;
+        this.latencyNanos= latencyNanos;
+        this.error= error;
+    }
+
+    /**
+     * Position of the id in the input
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * HTTP status, 0 when no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * Transport failure, null when a response was received
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isDeleted(){
+        return statusCode == 200;
+    }
+
+    /**
+     * The person no longer exists, either deleted now or already missing (404)
+     */
+    public boolean isGone(){
+        return statusCode == 200 || statusCode == 404;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkDeleteResult{index=" + index + ", id=" + id + ", status=" + statusCode
+                + ", latencyMs=" + latencyNanos / 1e6 + (error == null ? "" : ", error=" + error) + "}";
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.helpers;
+
+import com.example.constants.Endpoints;
+import com.example.metrics.EndpointMetrics;
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+import com.example.utils.JsonPathExtractor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Sends POST CREATE_PERSON calls with a bounded number in flight over the pooled keep-alive connections
+ * of the shared JDK HttpClient. Persons are pulled from the iterator only when a slot is free, so at most
+ * {@code concurrency} of them are held at any time
+ */
+class BulkPersonCreator {
+
+    private static final Duration REQUEST_TIMEOUT= Duration.ofSeconds(30);
+    private static final JsonPathExtractor ID= JsonPathExtractor.compile("id");
+
+    private final HttpClient client;
+    private final URI createUri;
+    private final EndpointMetrics metrics;
+
+    BulkPersonCreator(String baseUri, HttpClient client, EndpointMetrics metrics){
+        this.client= client;
+        this.createUri= URI.create(baseUri + Endpoints.CREATE_PERSON);
+        this.metrics= metrics;
+    }
+
+    /**
+     * Create every person, handing each result to the consumer as soon as it is known (from the HttpClient
+     * threads, so the consumer has to be thread-safe). Failures of a request never stop the batch. Returns once every
+     * request has completed, also when the iterator throws: the exception is rethrown after the requests already
+     * sent are done, so nothing reaches the consumer afterwards
+     */
+    void createAll(Iterator<Person> persons, int concurrency, Consumer<BulkCreateResult> results) throws InterruptedException {
+        if(concurrency < 1){
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        Semaphore inFlight= new Semaphore(concurrency);
+        long index= 0;
+        try {
+            while(persons.hasNext()){
+                inFlight.acquire();
+                boolean sent= false;
+                try {
+                    send(index++, persons.next(), inFlight, results);
+                    sent= true;
+                } finally {
+                    if(!sent){
+                        inFlight.release();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            inFlight.acquireUninterruptibly(concurrency);
+            throw e;
+        }
+        //wait for the tail of the batch
+        inFlight.acquire(concurrency);
+    }
+
+    private void send(long index, Person person, Semaphore inFlight, Consumer<BulkCreateResult> results){
+        long start= System.nanoTime();
+        byte[] body;
+        try {
+            body= JsonMappers.PERSON_WRITER.writeValueAsBytes(person);
+        } catch (IOException e) {
+            complete(results, inFlight, new BulkCreateResult(index, person.getId(), 0, 0, e));
+            return;
+        }
+        HttpRequest request= HttpRequest.newBuilder(createUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    long latency= System.nanoTime() - start;
+                    int status= error == null ? response.statusCode() : 0;
+                    byte[] responseBody= error == null ? response.body() : new byte[0];
+                    metrics.record("POST", Endpoints.CREATE_PERSON, status, latency, body.length, responseBody.length);
+                    complete(results, inFlight, new BulkCreateResult(index, createdId(responseBody, person), status, latency, error));
+                });
+    }
+
+    private static void complete(Consumer<BulkCreateResult> results, Semaphore inFlight, BulkCreateResult result){
+        try {
+            results.accept(result);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private static Integer createdId(byte[] responseBody, Person person){
+        try {
+            Integer id= ID.getInt(responseBody);
+            if(id != null){
+                return id;
+            }
+        } catch (RuntimeException e) {
+            //not a JSON body, fall back to the id that was sent
+        }
+        return person.getId();
+    }
+}
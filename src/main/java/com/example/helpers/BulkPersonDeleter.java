@@ -0,0 +1,84 @@
+package com.example.helpers;
+
+import com.example.constants.Endpoints;
+import com.example.metrics.EndpointMetrics;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Sends DELETE_PERSON calls with a bounded number in flight over the pooled keep-alive connections
+ * of the shared JDK HttpClient, the teardown counterpart of {@link BulkPersonCreator}
+ */
+class BulkPersonDeleter {
+
+    private static final Duration REQUEST_TIMEOUT= Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUri;
+    private final EndpointMetrics metrics;
+
+    BulkPersonDeleter(String baseUri, HttpClient client, EndpointMetrics metrics){
+        this.client= client;
+        this.baseUri= baseUri;
+        this.metrics= metrics;
+    }
+
+    /**
+     * Delete every id, handing each result to the consumer as soon as it is known (from the HttpClient
+     * threads, so the consumer has to be thread-safe). Failures of a request never stop the batch. Returns once every
+     * request has completed, also when the iterator throws: the exception is rethrown after the requests already
+     * sent are done, so nothing reaches the consumer afterwards
+     */
+    void deleteAll(Iterator<Integer> ids, int concurrency, Consumer<BulkDeleteResult> results) throws InterruptedException {
+        if(concurrency < 1){
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        Semaphore inFlight= new Semaphore(concurrency);
+        long index= 0;
+        try {
+            while(ids.hasNext()){
+                inFlight.acquire();
+                boolean sent= false;
+                try {
+                    send(index++, ids.next(), inFlight, results);
+                    sent= true;
+                } finally {
+                    if(!sent){
+                        inFlight.release();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            inFlight.acquireUninterruptibly(concurrency);
+            throw e;
+        }
+        //wait for the tail of the batch
+        inFlight.acquire(concurrency);
+    }
+
+    private void send(long index, int id, Semaphore inFlight, Consumer<BulkDeleteResult> results){
+        long start= System.nanoTime();
+        HttpRequest request= HttpRequest.newBuilder(URI.create(baseUri + Endpoints.DELETE_PERSON.replace("{id}", String.valueOf(id))))
+                .timeout(REQUEST_TIMEOUT)
+                .DELETE()
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latency= System.nanoTime() - start;
+                    int status= error == null ? response.statusCode() : 0;
+                    metrics.record("DELETE", Endpoints.DELETE_PERSON, status, latency, 0, 0);
+                    try {
+                        results.accept(new BulkDeleteResult(index, id, status, latency, error));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+}
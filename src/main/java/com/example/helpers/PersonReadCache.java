@@ -0,0 +1,139 @@
+package com.example.helpers;
+
+import com.example.utils.ConfigManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client side cache of the deserialized Person reads of a {@link PersonServiceHelper}, keyed by endpoint and path params.
+ * Entries are revalidated on every read with If-None-Match / If-Modified-Since, so a 304 Not Modified hands back the
+ * objects already mapped instead of downloading and parsing the payload again. Bounded by entry count (least recently
+ * used first out) and by age. Writes made through the same helper invalidate the affected keys.
+ * Cached objects are shared between reads and must be treated as read only
+ */
+public class PersonReadCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits= new LongAdder();
+    private final LongAdder misses= new LongAdder();
+    //bumped by every invalidation, a read started before it must not store what it got back
+    private long generation;
+
+    public PersonReadCache(int maxEntries, Duration ttl){
+        if(maxEntries < 1){
+            throw new IllegalArgumentException("Cache needs at least one entry: " + maxEntries);
+        }
+        this.maxEntries= maxEntries;
+        this.ttlNanos= ttl.toNanos();
+        this.entries= new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PersonReadCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cache from the cache.* keys of config.properties, null unless cache.enabled is true
+     */
+    public static PersonReadCache fromConfig(){
+        ConfigManager config= ConfigManager.getInstance();
+        if(!config.getBoolean("cache.enabled", false)){
+            return null;
+        }
+        return new PersonReadCache(config.getInt("cache.max_entries", 1000), config.getDuration("cache.ttl", Duration.ofMinutes(5)));
+    }
+
+    static String key(String endpoint, Object pathParam){
+        return pathParam == null ? endpoint : endpoint + "#" + pathParam;
+    }
+
+    /**
+     * Entry to revalidate for the key, null when absent or expired
+     */
+    synchronized Entry lookup(String key){
+        Entry entry= entries.get(key);
+        if(entry != null && System.nanoTime() - entry.storedAt > ttlNanos){
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    synchronized long generation(){
+        return generation;
+    }
+
+    /**
+     * Keep a freshly read value, unless a write invalidated the cache since the read started
+     */
+    synchronized void store(String key, long readGeneration, String etag, String lastModified, Object value){
+        if(readGeneration == generation && (etag != null || lastModified != null)){
+            entries.put(key, new Entry(etag, lastModified, value, System.nanoTime()));
+        }
+    }
+
+    /**
+     * The server confirmed the entry is still current, restart its time to live
+     */
+    synchronized void revalidated(String key, Entry entry){
+        hits.increment();
+        if(entries.get(key) == entry){
+            entries.put(key, new Entry(entry.etag, entry.lastModified, entry.value, System.nanoTime()));
+        }
+    }
+
+    void missed(){
+        misses.increment();
+    }
+
+    synchronized void invalidate(String... keys){
+        generation++;
+        for(String key : keys){
+            entries.remove(key);
+        }
+    }
+
+    public synchronized void clear(){
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size(){
+        return entries.size();
+    }
+
+    /**
+     * Reads answered from the cache after a 304
+     */
+    public long getHitCount(){
+        return hits.sum();
+    }
+
+    /**
+     * Reads that downloaded and mapped the payload
+     */
+    public long getMissCount(){
+        return misses.sum();
+    }
+
+    static final class Entry {
+
+        final String etag;
+        final String lastModified;
+        final Object value;
+        final long storedAt;
+
+        private Entry(String etag, String lastModified, Object value, long storedAt){
+            this.etag= etag;
+            this.lastModified= lastModified;
+            this.value= value;
+            this.storedAt= storedAt;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.helpers;
+
+import com.example.constants.Endpoints;
+import com.example.contract.ContractResult;
+import com.example.contract.JsonContract;
+import com.example.fanout.Target;
+import com.example.metrics.EndpointMetrics;
+import com.example.model.Person;
+import com.example.transport.JdkHttpTransport;
+import com.example.utils.JsonMappers;
+import com.example.utils.UrlUtils;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non blocking counterpart of {@link PersonServiceHelper}: the same CRUD calls plus a single person GET,
+ * each returning a CompletableFuture right away. All instances of a target share the JDK HttpClient of {@link JdkHttpTransport}
+ * and with it one connection pool, so independent calls overlap and a single thread can keep hundreds of requests
+ * in flight.
+ * A response with an unexpected status or a body breaking the Person contract completes the future exceptionally
+ * with an AssertionError, the same checks PersonServiceHelper makes with TestNG asserts
+ */
+public class PersonServiceAsyncHelper {
+
+    private final String baseUri;
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final EndpointMetrics metrics;
+    //null when contract.enabled is off
+    private final JsonContract contract= JsonContract.fromConfig();
+
+    /**
+     * Helper on the target of this thread, base_url/port unless a fan-out run bound one
+     */
+    public PersonServiceAsyncHelper(){
+        this(Target.current());
+    }
+
+    public PersonServiceAsyncHelper(String baseUrl, int port){
+        this(Target.of(Target.DEFAULT, baseUrl, port));
+    }
+
+    /**
+     * Helper on the JDK client and endpoint metrics of the target
+     */
+    public PersonServiceAsyncHelper(Target target){
+        JdkHttpTransport transport= JdkHttpTransport.shared(target.getName());
+        this.baseUri= target.getBaseUri();
+        this.client= transport.client();
+        this.requestTimeout= transport.getSettings().getRequestTimeout();
+        this.metrics= target.getMetrics();
+    }
+
+    /**
+     * GET operation to get all Person
+     */
+    public CompletableFuture<List<Person>> getAllPerson(){
+        return send("GET", Endpoints.GET_ALL_PERSON, null, null, HttpStatus.SC_OK)
+                .thenApply(body -> read(JsonMappers.PERSON_LIST_READER, checkContract(body, true)));
+    }
+
+    /**
+     * GET operation to get one Person by id
+     */
+    public CompletableFuture<Person> getPerson(int id){
+        return send("GET", Endpoints.GET_SINGLE_PERSON, id, null, HttpStatus.SC_OK)
+                .thenApply(body -> read(JsonMappers.PERSON_READER, checkContract(body, false)));
+    }
+
+    /**
+     * Post call to create new resource, completes with the person as returned by the service
+     */
+    public CompletableFuture<Person> createPerson(Person person){
+        return send("POST", Endpoints.CREATE_PERSON, null, person, HttpStatus.SC_CREATED)
+                .thenApply(body -> read(JsonMappers.PERSON_READER, checkContract(body, false)));
+    }
+
+    /**
+     * Patch call to update a existing resource, completes with the person as returned by the service
+     */
+    public CompletableFuture<Person> updatePerson(int id, Person person){
+        return send("PATCH", Endpoints.UPDATE_PERSON, id, person, HttpStatus.SC_OK)
+                .thenApply(body -> read(JsonMappers.PERSON_READER, checkContract(body, false)));
+    }
+
+    /**
+     * Delete call to remove a existing resource
+     */
+    public CompletableFuture<Void> deletePerson(int id){
+        return send("DELETE", Endpoints.DELETE_PERSON, id, null, HttpStatus.SC_OK)
+                .thenApply(body -> null);
+    }
+
+    private CompletableFuture<byte[]> send(String method, String endpoint, Integer id, Person person, int expectedStatus){
+        byte[] requestBody;
+        try {
+            requestBody= person == null ? new byte[0] : JsonMappers.PERSON_WRITER.writeValueAsBytes(person);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String path= id == null ? endpoint : UrlUtils.path(endpoint, id);
+        HttpRequest request= HttpRequest.newBuilder(URI.create(baseUri + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .method(method, person == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(requestBody))
+                .build();
+        long start= System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> metrics.record(method, endpoint, error == null ? response.statusCode() : 0,
+                        System.nanoTime() - start, requestBody.length, error == null ? response.body().length : 0))
+                .thenApply(response -> {
+                    if(response.statusCode() != expectedStatus){
+                        throw new AssertionError("Response status is not " + expectedStatus + " but " + response.statusCode()
+                                + " for " + method + " " + path);
+                    }
+                    return response.body();
+                });
+    }
+
+    private byte[] checkContract(byte[] body, boolean array){
+        if(contract != null){
+            ContractResult result= array ? contract.validateArray(body) : contract.validate(body);
+            if(!result.isValid()){
+                throw new AssertionError("Person contract violated: " + result);
+            }
+        }
+        return body;
+    }
+
+    private static <T> T read(ObjectReader reader, byte[] body){
+        try {
+            return reader.readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map the response", e);
+        }
+    }
+}
@@ -1,17 +1,49 @@
 package com.example.helpers;
 
+import com.example.body.BodySpiller;
+import com.example.body.ResponseBody;
 import com.example.constants.Endpoints;
+import com.example.contract.ContractResult;
+import com.example.contract.JsonContract;
+import com.example.fanout.Target;
+import com.example.load.PersonOperation;
+import com.example.logging.LogLevel;
+import com.example.logging.RingBufferLoggingFilter;
+import com.example.metrics.EndpointMetrics;
+import com.example.metrics.MetricsFilter;
 import com.example.model.Person;
+import com.example.replay.CaptureFilter;
+import com.example.resilience.ResilientCaller;
+import com.example.transport.HttpTransport;
+import com.example.transport.JdkHttpTransport;
 import com.example.utils.ConfigManager;
+import com.example.utils.JsonMappers;
+import com.example.utils.JsonStreams;
+import com.example.utils.UrlUtils;
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.log.LogDetail;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.apache.http.HttpStatus;
 import org.testng.Assert;
 
 import java.lang.reflect.Type;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * API or Application Programming Interface is a type of software interface that connects different software with minimal coding.
@@ -37,13 +69,132 @@ public class PersonServiceHelper {
     //Rest assured about the URL, port
     //Make a GET requests on this URL and send the data back to TestGetPerson
 
-    private static final String BASE_URL= ConfigManager.getInstance().getString("base_url");
-    private static final String PORT= ConfigManager.getInstance().getString("port");
+    private static final int DEFAULT_BULK_CONCURRENCY= 16;
 
+    //Every helper owns its own target, so parallel test classes never overwrite each other's RestAssured globals
+    private final RequestSpecification requestSpec;
+    private final BulkPersonCreator bulkCreator;
+    private final BulkPersonDeleter bulkDeleter;
+    //null unless cache.enabled, see PersonReadCache
+    private final PersonReadCache readCache;
+    //null unless resilience.enabled, see ResilientCaller
+    private final ResilientCaller resilience;
+    //null when contract.enabled is off, see JsonContract
+    private final JsonContract contract;
+    //null unless spill.enabled, see BodySpiller
+    private final BodySpiller spiller;
+
+    /**
+     * Helper on the target of this thread, base_url/port unless a fan-out run bound one, see {@link Target}
+     */
     public PersonServiceHelper(){
-        RestAssured.baseURI=BASE_URL;
-        RestAssured.port= Integer.parseInt(PORT);
-        RestAssured.useRelaxedHTTPSValidation(); //when we are using localhost to run the API
+        this(Target.current());
+    }
+
+    public PersonServiceHelper(String baseUrl, int port){
+        this(baseUrl, port, PersonReadCache.fromConfig());
+    }
+
+    /**
+     * @param readCache cache for getAllPerson and getPerson, null to always download
+     */
+    public PersonServiceHelper(String baseUrl, int port, PersonReadCache readCache){
+        this(baseUrl, port, readCache, ResilientCaller.forTarget(UrlUtils.baseUri(baseUrl, port)));
+    }
+
+    /**
+     * @param readCache cache for getAllPerson and getPerson, null to always download
+     * @param resilience retries, hedging and circuit breaking of every call, null to send each request once
+     */
+    public PersonServiceHelper(String baseUrl, int port, PersonReadCache readCache, ResilientCaller resilience){
+        this(Target.of(Target.DEFAULT, baseUrl, port), readCache, resilience);
+    }
+
+    /**
+     * Helper on the connection pool and endpoint metrics of the target
+     */
+    public PersonServiceHelper(Target target){
+        this(target, PersonReadCache.fromConfig(), ResilientCaller.forTarget(target.getBaseUri()));
+    }
+
+    /**
+     * @param target service, connection pool and endpoint metrics the helper works with
+     * @param readCache cache for getAllPerson and getPerson, null to always download
+     * @param resilience retries, hedging and circuit breaking of every call, null to send each request once
+     */
+    public PersonServiceHelper(Target target, PersonReadCache readCache, ResilientCaller resilience){
+        EndpointMetrics metrics= target.getMetrics();
+        RequestSpecBuilder builder= new RequestSpecBuilder();
+        //pooled Apache client or the JDK HTTP/2 client, see http.transport in config.properties.
+        //Configured first: the Apache transport sets the whole client config, which would drop the relaxed HTTPS validation
+        HttpTransport.fromConfig(target.getName()).configure(builder);
+        builder.setBaseUri(target.getBaseUrl())
+                .setPort(target.getPort())
+                .setRelaxedHTTPSValidation() //when we are using localhost to run the API
+                .setContentType(ContentType.JSON)
+                .addFilter(new MetricsFilter(metrics)); //latency and bytes per endpoint, exported at suite end
+
+        //Printing every exchange to stdout is costly, by default they are only kept in memory and dumped when a test fails
+        LogLevel logLevel= LogLevel.fromConfig();
+        if(logLevel != LogLevel.NONE){
+            builder.addFilter(new RingBufferLoggingFilter(ringBufferSize()));
+        }
+        if(logLevel == LogLevel.ALL){
+            builder.log(LogDetail.ALL);
+        }
+        //traffic capture for ReplayEngine, see capture.enabled
+        CaptureFilter capture= CaptureFilter.fromConfig();
+        if(capture != null){
+            builder.addFilter(capture);
+        }
+        this.requestSpec= builder.build();
+        HttpClient bulkClient= JdkHttpTransport.shared(target.getName()).client();
+        this.bulkCreator= new BulkPersonCreator(target.getBaseUri(), bulkClient, metrics);
+        this.bulkDeleter= new BulkPersonDeleter(target.getBaseUri(), bulkClient, metrics);
+        this.readCache= readCache;
+        this.resilience= resilience;
+        this.contract= JsonContract.fromConfig();
+        this.spiller= BodySpiller.fromConfig();
+    }
+
+    private static int ringBufferSize(){
+        return ConfigManager.getInstance().getInt("log.ring_buffer_size", 20);
+    }
+
+    /**
+     * Fresh request for every call; the shared spec is only merged in and never mutated
+     */
+    private RequestSpecification request(){
+        return RestAssured.given().spec(requestSpec);
+    }
+
+    /**
+     * Send through the resilience layer when there is one. The supplier builds a fresh request for every attempt
+     */
+    private Response send(PersonOperation operation, Supplier<Response> request){
+        return resilience == null ? request.get() : resilience.call(operation, request);
+    }
+
+    /**
+     * Check the body against the Person contract (one person or an array of them), beyond the status code
+     */
+    private void checkContract(Response response, boolean array){
+        if(contract == null){
+            return;
+        }
+        ContractResult result= array ? contract.validateArray(response.asByteArray()) : contract.validate(response.asByteArray());
+        Assert.assertTrue(result.isValid(), "Person contract violated: " + result);
+    }
+
+    /**
+     * Check a body holding an array of persons against the Person contract, reading it in place
+     */
+    private void checkContract(ResponseBody body){
+        if(contract == null){
+            return;
+        }
+        ContractResult result= contract.validateArray(body.inputStream());
+        Assert.assertTrue(result.isValid(), "Person contract violated: " + result);
     }
 
     /**
@@ -52,65 +203,262 @@ public class PersonServiceHelper {
      */
 
     public List<Person> getAllPerson(){
-        Response response= RestAssured
-                .given().log().all()
-                .contentType(ContentType.JSON)
-                .get(Endpoints.GET_ALL_PERSON)
-                .andReturn();
-
         //To map the response in the JSon to POJO class
         Type type= new TypeReference<List<Person>>(){}.getType();
+        if(readCache != null){
+            //shared with later reads, so it must not be modified
+            return cachedGet(Endpoints.GET_ALL_PERSON, null, response -> Collections.unmodifiableList(response.as(type)));
+        }
+
+        if(spiller != null){
+            //mapped from the spilled body in place, never copied onto the heap as a whole
+            try (ResponseBody body= getAllPersonBody()) {
+                return body.read(JsonMappers.PERSON_LIST_READER);
+            }
+        }
+
+        Response response= send(PersonOperation.GET_ALL_PERSON, () -> request()
+                .get(Endpoints.GET_ALL_PERSON)
+                .andReturn());
 
         Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_OK, "Response status is not 200");
+        checkContract(response, true);
 
         List<Person> personList=response.as(type);
         return personList;
     }
 
+    /**
+     * GET operation to get the raw body of all Person, for path extraction, hashing or streaming over a large list.
+     * With spill.enabled it is read straight from the connection and kept in a temp file or direct buffer once it is
+     * larger than spill.threshold, see {@link BodySpiller}. The caller must close it
+     */
+    public ResponseBody getAllPersonBody(){
+        Response response= send(PersonOperation.GET_ALL_PERSON, () -> {
+            RequestSpecification request= request();
+            if(spiller != null){
+                request.filter(HttpTransport.STREAMED_RESPONSE);
+            }
+            return request.get(Endpoints.GET_ALL_PERSON).andReturn();
+        });
+        ResponseBody body= ResponseBody.of(response, spiller);
+        try {
+            Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_OK, "Response status is not 200");
+            checkContract(body);
+            return body;
+        } catch (AssertionError | RuntimeException e) {
+            body.close();
+            throw e;
+        }
+    }
+
+    /**
+     * GET operation to get one Person by id
+     */
+    public Person getPerson(int id){
+        if(readCache != null){
+            return cachedGet(Endpoints.GET_SINGLE_PERSON, id, response -> response.as(Person.class));
+        }
+        Response response= send(PersonOperation.GET_SINGLE_PERSON, () -> request()
+                .pathParam("id",id)
+                .get(Endpoints.GET_SINGLE_PERSON)
+                .andReturn());
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_OK, "Response status is not 200");
+        checkContract(response, false);
+        return response.as(Person.class);
+    }
+
+    /**
+     * GET operation to check whether a Person exists: true on 200, false on 404, any other status fails
+     */
+    public boolean personExists(int id){
+        Response response= send(PersonOperation.GET_SINGLE_PERSON, () -> request()
+                .pathParam("id",id)
+                .get(Endpoints.GET_SINGLE_PERSON)
+                .andReturn());
+        if(response.getStatusCode() == HttpStatus.SC_NOT_FOUND){
+            return false;
+        }
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_OK, "Response status is not 200 or 404");
+        return true;
+    }
+
+    /**
+     * Conditional GET through the read cache: a 304 returns the value mapped by an earlier read,
+     * a 200 is mapped and kept together with its validators
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cachedGet(String endpoint, Integer id, Function<Response, T> mapper){
+        String key= PersonReadCache.key(endpoint, id);
+        long generation= readCache.generation();
+        PersonReadCache.Entry cached= readCache.lookup(key);
+        Response response= send(id == null ? PersonOperation.GET_ALL_PERSON : PersonOperation.GET_SINGLE_PERSON, () -> {
+            RequestSpecification request= request();
+            if(id != null){
+                request.pathParam("id", id);
+            }
+            if(cached != null && cached.etag != null){
+                request.header("If-None-Match", cached.etag);
+            }
+            if(cached != null && cached.lastModified != null){
+                request.header("If-Modified-Since", cached.lastModified);
+            }
+            return request.get(endpoint).andReturn();
+        });
+        if(cached != null && response.getStatusCode() == HttpStatus.SC_NOT_MODIFIED){
+            readCache.revalidated(key, cached);
+            return (T) cached.value;
+        }
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_OK, "Response status is not 200");
+        checkContract(response, id == null);
+        readCache.missed();
+        T value= mapper.apply(response);
+        readCache.store(key, generation, response.getHeader("ETag"), response.getHeader("Last-Modified"), value);
+        return value;
+    }
+
+    /**
+     * Drop the cached reads a write to the person may have changed. Called once the write is answered,
+     * so a read racing with it can neither keep nor store the old version
+     */
+    private void invalidate(Integer id){
+        if(readCache != null){
+            readCache.invalidate(PersonReadCache.key(Endpoints.GET_ALL_PERSON, null), PersonReadCache.key(Endpoints.GET_SINGLE_PERSON, id));
+        }
+    }
+
+    /**
+     * GET operation to get all Person as a lazily parsed stream.
+     * The body is read from the response input stream one Person at a time instead of being
+     * materialized into a List, close the stream (try-with-resources) once done with it
+     * @return
+     */
+    public Stream<Person> streamAllPerson(){
+        Response response= request()
+                .filter(HttpTransport.STREAMED_RESPONSE)
+                .get(Endpoints.GET_ALL_PERSON)
+                .andReturn();
+
+        Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_OK, "Response status is not 200");
+
+        return JsonStreams.streamArray(response.asInputStream(), Person.class);
+    }
+
     /**
      * Post call to create new resource
      */
     public Response createPerson(Person person){
-        Response response= RestAssured
-                .given().log().all()
-                .contentType(ContentType.JSON)
-                .when()
-                .body(person)
-                .post(Endpoints.CREATE_PERSON)
-                .andReturn();
+        Response response;
+        try {
+            response= send(PersonOperation.CREATE_PERSON, () -> request()
+                    .when()
+                    .body(person)
+                    .post(Endpoints.CREATE_PERSON)
+                    .andReturn());
+        } finally {
+            invalidate(person.getId());
+        }
         Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_CREATED, "Response status is not 201");
+        checkContract(response, false);
         return response;
     }
 
+    /**
+     * Create all the persons with up to 16 requests in flight, see {@link #createPersons(Iterator, int, Consumer)}
+     * @return one result per person, in input order
+     */
+    public List<BulkCreateResult> createPersons(Collection<Person> persons){
+        return createPersons(persons, DEFAULT_BULK_CONCURRENCY);
+    }
+
+    /**
+     * Create all the persons with up to {@code concurrency} requests in flight
+     * @return one result per person, in input order
+     */
+    public List<BulkCreateResult> createPersons(Collection<Person> persons, int concurrency){
+        Queue<BulkCreateResult> results= new ConcurrentLinkedQueue<>();
+        createPersons(persons.iterator(), concurrency, results::add);
+        List<BulkCreateResult> ordered= new ArrayList<>(results);
+        ordered.sort(Comparator.comparingLong(BulkCreateResult::getIndex));
+        return ordered;
+    }
+
+    /**
+     * Bulk POST call to seed many persons. Requests are pipelined over keep-alive connections with at most
+     * {@code concurrency} in flight and persons are only pulled from the iterator when a slot frees up,
+     * so the batch never has to be in memory. Failed creates are reported, not asserted, and do not stop the batch.
+     * The consumer is called from the HTTP client threads and has to be thread-safe
+     */
+    public void createPersons(Iterator<Person> persons, int concurrency, Consumer<BulkCreateResult> results){
+        try {
+            bulkCreator.createAll(persons, concurrency, results);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while creating persons", e);
+        } finally {
+            if(readCache != null){
+                readCache.clear();
+            }
+        }
+    }
+
     /**
      * Put call to update a existing resource
      */
     public Response updatePerson(int id, Person person){
-        Response response= RestAssured
-                .given().log().all()
-                .contentType(ContentType.JSON)
-                .pathParam("id",id)
-                .when()
-                .body(person)
-                .patch(Endpoints.UPDATE_PERSON)
-                .andReturn();
+        Response response;
+        try {
+            response= send(PersonOperation.UPDATE_PERSON, () -> request()
+                    .pathParam("id",id)
+                    .when()
+                    .body(person)
+                    .patch(Endpoints.UPDATE_PERSON)
+                    .andReturn());
+        } finally {
+            invalidate(id);
+        }
         Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_OK, "Response status is not 200");
+        checkContract(response, false);
         return response;
     }
 
     /**
-     * Delete call to update a existing resource
+     * Delete call to remove a existing resource
      */
     public Response deletePerson(int id){
-        Response response= RestAssured
-                .given().log().all()
-                .contentType(ContentType.JSON)
-                .pathParam("id",id)
-                .log().all()
-                .when()
-                .patch(Endpoints.DELETE_PERSON)
-                .andReturn();
+        Response response;
+        try {
+            response= send(PersonOperation.DELETE_PERSON, () -> request()
+                    .pathParam("id",id)
+                    .when()
+                    .delete(Endpoints.DELETE_PERSON)
+                    .andReturn());
+        } finally {
+            invalidate(id);
+        }
         Assert.assertEquals(response.getStatusCode(), HttpStatus.SC_OK, "Response status is not 200");
         return response;
     }
+
+    /**
+     * Bulk DELETE call to tear down many persons with up to {@code concurrency} requests in flight.
+     * Failed deletes are reported, not asserted, and do not stop the batch
+     * @return one result per id, in input order
+     */
+    public List<BulkDeleteResult> deletePersons(Collection<Integer> ids, int concurrency){
+        Queue<BulkDeleteResult> results= new ConcurrentLinkedQueue<>();
+        try {
+            bulkDeleter.deleteAll(ids.iterator(), concurrency, results::add);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deleting persons", e);
+        } finally {
+            if(readCache != null){
+                readCache.clear();
+            }
+        }
+        List<BulkDeleteResult> ordered= new ArrayList<>(results);
+        ordered.sort(Comparator.comparingLong(BulkDeleteResult::getIndex));
+        return ordered;
+    }
 }
@@ -0,0 +1,222 @@
+package com.example.load;
+
+import com.example.contract.JsonContract;
+import com.example.data.PersonGenerator;
+import com.example.model.Person;
+import com.example.transport.RelaxedTls;
+import com.example.utils.JsonMappers;
+import com.example.utils.UrlUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model load generator for the Person endpoints.
+ * Requests are started on a fixed schedule derived from the target rate and ramp up, independent of how fast
+ * the service answers, and are sent with the asynchronous JDK HttpClient so thousands can be in flight from a
+ * single scheduling thread. Latency is measured against the scheduled start time (no coordinated omission).
+ */
+public class LoadGenerator {
+
+    private final LoadProfile profile;
+    private final HttpClient client;
+    private final String baseUri;
+    private final PersonOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger nextCreateId;
+    //deletes remove the persons created by the run, oldest first, so the id range keeps answering reads
+    private final AtomicInteger nextDeleteId;
+    private final PersonGenerator persons;
+    //null when contract.enabled is off, bodies are then discarded unread
+    private final JsonContract contract;
+    private volatile double targetRate;
+
+    public LoadGenerator(LoadProfile profile){
+        this.profile= profile;
+        this.targetRate= profile.getTargetRate();
+        this.client= RelaxedTls.fromConfig(HttpClient.newBuilder())
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(profile.getRequestTimeout())
+                .build();
+        this.baseUri= UrlUtils.baseUri(profile.getBaseUrl(), profile.getPort());
+        Map<PersonOperation, Integer> mix= profile.getMix();
+        this.operations= mix.keySet().toArray(new PersonOperation[0]);
+        this.cumulativeWeights= new int[operations.length];
+        int total= 0;
+        for(int i=0; i<operations.length; i++){
+            total+= mix.get(operations[i]);
+            cumulativeWeights[i]= total;
+        }
+        //created persons get ids above the range used by the other operations
+        this.nextCreateId= new AtomicInteger(profile.getIdRange() + 1);
+        this.nextDeleteId= new AtomicInteger(profile.getIdRange() + 1);
+        //bodies are sized by the generator.* field length settings
+        this.persons= PersonGenerator.fromConfig();
+        this.contract= JsonContract.fromConfig();
+    }
+
+    /**
+     * Change the steady state rate of a running generator, e.g. from a config reload.
+     * Applies once the ramp up is over
+     */
+    public void setTargetRate(double requestsPerSecond){
+        if(requestsPerSecond <= 0){
+            throw new IllegalArgumentException("Target rate must be positive: " + requestsPerSecond);
+        }
+        this.targetRate= requestsPerSecond;
+    }
+
+    /**
+     * Drive load for the configured duration and wait for the requests still in flight, at most the request timeout.
+     * Those still running after that are reported as unfinished, see {@link LoadReport#isComplete()}
+     */
+    public LoadReport run() throws InterruptedException {
+        LoadReport report= new LoadReport(profile.getMix().keySet());
+        Semaphore inFlight= new Semaphore(profile.getMaxInFlight());
+        long start= System.nanoTime();
+        long durationNanos= profile.getDuration().toNanos();
+
+        long rampRequests= (long) Math.ceil(profile.getTargetRate() * profile.getRampUp().toNanos() / 1e9 / 2);
+        long offset= 0;
+        for(long n=0; ; n++){
+            //after the ramp up each request is one interval of the current target rate after the previous one
+            offset= n <= rampRequests ? scheduledOffsetNanos(n) : offset + (long) (1e9 / targetRate);
+            if(offset >= durationNanos){
+                break;
+            }
+            long scheduledAt= start + offset;
+            parkUntil(scheduledAt);
+            PersonOperation operation= pickOperation();
+            if(inFlight.tryAcquire()){
+                send(operation, scheduledAt, report.stats(operation), inFlight);
+            } else {
+                report.stats(operation).recordDropped();
+            }
+        }
+
+        long drainTimeout= profile.getRequestTimeout().toNanos();
+        if(!inFlight.tryAcquire(profile.getMaxInFlight(), drainTimeout, TimeUnit.NANOSECONDS)){
+            //their callbacks may still add to the counts after the report is returned
+            report.setUnfinished(profile.getMaxInFlight() - inFlight.availablePermits());
+        }
+        report.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+
+    /**
+     * Start offset of the n-th request at the initial target rate. The rate grows linearly during the ramp up,
+     * so the number of requests sent by time t is rate*t^2/(2*rampUp) until the ramp up ends and then grows by
+     * rate per second
+     */
+    long scheduledOffsetNanos(long n){
+        double rate= profile.getTargetRate();
+        double ramp= profile.getRampUp().toNanos() / 1e9;
+        double rampRequests= rate * ramp / 2;
+        double seconds= n < rampRequests
+                ? Math.sqrt(2 * ramp * n / rate)
+                : ramp + (n - rampRequests) / rate;
+        return (long) (seconds * 1e9);
+    }
+
+    private void send(PersonOperation operation, long scheduledAt, LoadReport.OperationStats stats, Semaphore inFlight){
+        HttpRequest request;
+        try {
+            request= buildRequest(operation);
+        } catch (JsonProcessingException e) {
+            inFlight.release();
+            stats.recordError(System.nanoTime() - scheduledAt);
+            return;
+        }
+        if(contract == null || operation == PersonOperation.DELETE_PERSON){
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency= System.nanoTime() - scheduledAt;
+                        if(error == null && response.statusCode() / 100 == 2){
+                            stats.recordSuccess(latency);
+                        } else {
+                            stats.recordError(latency);
+                        }
+                        inFlight.release();
+                    });
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    //latency stops at the last body byte, the contract check runs after it
+                    long latency= System.nanoTime() - scheduledAt;
+                    try {
+                        if(error != null || response.statusCode() / 100 != 2){
+                            stats.recordError(latency);
+                        } else if(!(operation == PersonOperation.GET_ALL_PERSON ? contract.validateArray(response.body()) : contract.validate(response.body())).isValid()){
+                            stats.recordInvalid(latency);
+                        } else {
+                            stats.recordSuccess(latency);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private HttpRequest buildRequest(PersonOperation operation) throws JsonProcessingException {
+        ThreadLocalRandom random= ThreadLocalRandom.current();
+        int id;
+        if(operation == PersonOperation.CREATE_PERSON){
+            id= nextCreateId.getAndIncrement();
+        } else if(operation == PersonOperation.DELETE_PERSON){
+            //requests are built on the scheduling thread only. With no created person left it asks for the next one
+            //to be created, a 404 counted as an error, without running ahead of the creates
+            id= nextDeleteId.get();
+            if(id < nextCreateId.get()){
+                nextDeleteId.incrementAndGet();
+            }
+        } else {
+            id= 1 + random.nextInt(profile.getIdRange());
+        }
+        HttpRequest.BodyPublisher body= HttpRequest.BodyPublishers.noBody();
+        if(operation.hasBody()){
+            body= HttpRequest.BodyPublishers.ofByteArray(JsonMappers.PERSON_WRITER.writeValueAsBytes(person(id)));
+        }
+        return HttpRequest.newBuilder(URI.create(baseUri + operation.path(id)))
+                .timeout(profile.getRequestTimeout())
+                .header("Content-Type", "application/json")
+                .method(operation.getMethod(), body)
+                .build();
+    }
+
+    private PersonOperation pickOperation(){
+        int roll= ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for(int i=0; i<cumulativeWeights.length; i++){
+            if(roll < cumulativeWeights[i]){
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * The generated person of that id, the same body for the same id on every run
+     */
+    private Person person(int id){
+        Person person= persons.person(id % persons.capacity());
+        person.setId(id);
+        return person;
+    }
+
+    private static void parkUntil(long deadline){
+        long remaining;
+        while((remaining= deadline - System.nanoTime()) > 0){
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
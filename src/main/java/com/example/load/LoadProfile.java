@@ -0,0 +1,185 @@
+package com.example.load;
+
+import com.example.fanout.Target;
+import com.example.utils.ConfigManager;
+import com.example.utils.ConfigSnapshot;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable description of an open model load run: where to send requests, at which rate,
+ * for how long and in which mix of Person operations. Use {@link #builder()} to create one
+ */
+public class LoadProfile {
+
+    private final String baseUrl;
+    private final int port;
+    private final double targetRate;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final Map<PersonOperation, Integer> mix;
+    private final int maxInFlight;
+    private final int idRange;
+    private final Duration requestTimeout;
+
+    private LoadProfile(Builder builder){
+        this.baseUrl= builder.baseUrl;
+        this.port= builder.port;
+        this.targetRate= builder.targetRate;
+        this.rampUp= builder.rampUp;
+        this.duration= builder.duration;
+        this.mix= Collections.unmodifiableMap(new EnumMap<>(builder.mix));
+        this.maxInFlight= builder.maxInFlight;
+        this.idRange= builder.idRange;
+        this.requestTimeout= builder.requestTimeout;
+    }
+
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    /**
+     * Profile from the load.* keys of config.properties against the target of this thread, each of them can be
+     * overridden with a system property
+     */
+    public static LoadProfile fromConfig(){
+        ConfigSnapshot config= ConfigManager.getInstance().snapshot();
+        Target target= Target.current();
+        Builder builder= builder()
+                .target(target.getBaseUrl(), target.getPort())
+                .targetRate(config.getDouble("load.rate"))
+                .rampUp(config.getDuration("load.ramp_up", Duration.ZERO))
+                .duration(config.getDuration("load.duration"))
+                .maxInFlight(config.getInt("load.max_in_flight", 10_000))
+                .idRange(config.getInt("load.id_range", 100))
+                .requestTimeout(config.getDuration("load.request_timeout", Duration.ofSeconds(30)));
+        //load.mix=GET_ALL_PERSON:1,GET_SINGLE_PERSON:6,...
+        for(String entry : config.getList("load.mix")){
+            String[] weight= entry.split(":");
+            builder.weight(PersonOperation.valueOf(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        return builder.build();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Requests per second once the ramp up is over
+     */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    /**
+     * Total run time, ramp up included
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Relative weight of each operation
+     */
+    public Map<PersonOperation, Integer> getMix() {
+        return mix;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * GET single, update and delete calls pick an id between 1 and this value
+     */
+    public int getIdRange() {
+        return idRange;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public static class Builder {
+
+        private String baseUrl;
+        private int port= -1;
+        private double targetRate= 10;
+        private Duration rampUp= Duration.ZERO;
+        private Duration duration= Duration.ofSeconds(30);
+        private final Map<PersonOperation, Integer> mix= new EnumMap<>(PersonOperation.class);
+        private int maxInFlight= 10_000;
+        private int idRange= 100;
+        private Duration requestTimeout= Duration.ofSeconds(30);
+
+        public Builder target(String baseUrl, int port){
+            this.baseUrl= baseUrl;
+            this.port= port;
+            return this;
+        }
+
+        public Builder targetRate(double requestsPerSecond){
+            this.targetRate= requestsPerSecond;
+            return this;
+        }
+
+        public Builder rampUp(Duration rampUp){
+            this.rampUp= rampUp;
+            return this;
+        }
+
+        public Builder duration(Duration duration){
+            this.duration= duration;
+            return this;
+        }
+
+        public Builder weight(PersonOperation operation, int weight){
+            this.mix.put(operation, weight);
+            return this;
+        }
+
+        public Builder maxInFlight(int maxInFlight){
+            this.maxInFlight= maxInFlight;
+            return this;
+        }
+
+        public Builder idRange(int idRange){
+            this.idRange= idRange;
+            return this;
+        }
+
+        public Builder requestTimeout(Duration requestTimeout){
+            this.requestTimeout= requestTimeout;
+            return this;
+        }
+
+        public LoadProfile build(){
+            if(baseUrl == null){
+                throw new IllegalStateException("Load target is not set");
+            }
+            if(targetRate <= 0){
+                throw new IllegalArgumentException("Target rate must be positive: " + targetRate);
+            }
+            if(rampUp.compareTo(duration) > 0){
+                throw new IllegalArgumentException("Ramp up " + rampUp + " is longer than the duration " + duration);
+            }
+            mix.values().removeIf(weight -> weight <= 0);
+            if(mix.isEmpty()){
+                throw new IllegalStateException("Operation mix is empty");
+            }
+            return new LoadProfile(this);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.load;
+
+import com.example.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a load run: per operation latency histogram, throughput and error counts
+ */
+public class LoadReport {
+
+    private final Map<PersonOperation, OperationStats> stats= new EnumMap<>(PersonOperation.class);
+    private volatile Duration elapsed= Duration.ZERO;
+    private volatile long unfinished;
+
+    LoadReport(Iterable<PersonOperation> operations){
+        for(PersonOperation operation : operations){
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    OperationStats stats(PersonOperation operation){
+        return stats.get(operation);
+    }
+
+    void setElapsed(Duration elapsed){
+        this.elapsed= elapsed;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    void setUnfinished(long unfinished){
+        this.unfinished= unfinished;
+    }
+
+    /**
+     * Requests still in flight when the run stopped waiting for them, not counted anywhere else
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * False when requests were still in flight at the end of the run, the counts then miss them
+     */
+    public boolean isComplete(){
+        return unfinished == 0;
+    }
+
+    public Map<PersonOperation, OperationStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public long getTotalCompleted(){
+        return stats.values().stream().mapToLong(OperationStats::getCompleted).sum();
+    }
+
+    public long getTotalErrors(){
+        return stats.values().stream().mapToLong(OperationStats::getErrors).sum();
+    }
+
+    /**
+     * Completed requests per second over the whole run
+     */
+    public double getThroughput(){
+        return throughput(getTotalCompleted());
+    }
+
+    private double throughput(long count){
+        double seconds= elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : count / seconds;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb= new StringBuilder();
+        //percentiles of the successful requests, errors have their own column
+        sb.append(String.format("%-18s %9s %9s %8s %8s %8s %10s %10s %10s %10s %10s %11s%n",
+                "operation", "completed", "errors", "invalid", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "err p99 ms"));
+        stats.forEach((operation, s) -> {
+            LatencyHistogram h= s.getLatency();
+            sb.append(String.format("%-18s %9d %9d %8d %8d %8.1f %10.2f %10.2f %10.2f %10.2f %10.2f %11.2f%n",
+                    operation, s.getCompleted(), s.getErrors(), s.getInvalid(), s.getDropped(), throughput(s.getCompleted()),
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getMaxNanos()), millis(s.getErrorLatency().getValueAtPercentile(99))));
+        });
+        sb.append(String.format("total %d completed, %d errors in %.1f s (%.1f req/s)",
+                getTotalCompleted(), getTotalErrors(), elapsed.toNanos() / 1e9, getThroughput()));
+        if(!isComplete()){
+            sb.append(String.format(", incomplete: %d still in flight", unfinished));
+        }
+        return sb.toString();
+    }
+
+    private static double millis(long nanos){
+        return nanos / 1e6;
+    }
+
+    /**
+     * Counters for one operation. Latency is measured from the moment the request was scheduled,
+     * not when it was actually sent, so a stalled client does not hide queueing delay. Errors go to a histogram
+     * of their own: a fast 404 or a refused connection says nothing about how long a real answer takes
+     */
+    public static class OperationStats {
+
+        private final LatencyHistogram latency= new LatencyHistogram();
+        private final LatencyHistogram errorLatency= new LatencyHistogram();
+        private final LongAdder completed= new LongAdder();
+        private final LongAdder errors= new LongAdder();
+        private final LongAdder invalid= new LongAdder();
+        private final LongAdder dropped= new LongAdder();
+
+        void recordSuccess(long latencyNanos){
+            latency.recordValue(latencyNanos);
+            completed.increment();
+        }
+
+        void recordError(long latencyNanos){
+            errorLatency.recordValue(latencyNanos);
+            completed.increment();
+            errors.increment();
+        }
+
+        /**
+         * A 2xx response whose body broke the Person contract, counted as an error too
+         */
+        void recordInvalid(long latencyNanos){
+            recordError(latencyNanos);
+            invalid.increment();
+        }
+
+        void recordDropped(){
+            dropped.increment();
+        }
+
+        /**
+         * Latency of the successful requests
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * Latency of the errors, until the response or the failure
+         */
+        public LatencyHistogram getErrorLatency() {
+            return errorLatency;
+        }
+
+        public long getCompleted() {
+            return completed.sum();
+        }
+
+        /**
+         * Non 2xx responses, timeouts, connection failures and bodies breaking the Person contract
+         */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * Errors that were 2xx responses breaking the Person contract
+         */
+        public long getInvalid() {
+            return invalid.sum();
+        }
+
+        /**
+         * Requests that were due but not sent because the in flight limit was reached
+         */
+        public long getDropped() {
+            return dropped.sum();
+        }
+    }
+}
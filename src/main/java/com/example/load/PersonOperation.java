@@ -0,0 +1,43 @@
+package com.example.load;
+
+import com.example.constants.Endpoints;
+import com.example.utils.UrlUtils;
+
+/**
+ * The Person CRUD calls a load run can mix, each bound to its HTTP method and Endpoints template
+ */
+public enum PersonOperation {
+
+    GET_ALL_PERSON("GET", Endpoints.GET_ALL_PERSON),
+    GET_SINGLE_PERSON("GET", Endpoints.GET_SINGLE_PERSON),
+    CREATE_PERSON("POST", Endpoints.CREATE_PERSON),
+    UPDATE_PERSON("PATCH", Endpoints.UPDATE_PERSON),
+    DELETE_PERSON("DELETE", Endpoints.DELETE_PERSON);
+
+    private final String method;
+    private final String endpoint;
+
+    PersonOperation(String method, String endpoint){
+        this.method= method;
+        this.endpoint= endpoint;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public boolean hasBody(){
+        return this == CREATE_PERSON || this == UPDATE_PERSON;
+    }
+
+    /**
+     * Endpoint with the {id} path param resolved
+     */
+    public String path(int id){
+        return UrlUtils.path(endpoint, id);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.logging;
+
+import io.qameta.allure.Allure;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Print the HTTP exchanges a failed test made, and attach them to its Allure result.
+ * Runs in afterInvocation so the Allure test case is still open
+ */
+public class FailureLogListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if(method.isTestMethod()){
+            RingBufferLoggingFilter.clear();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if(!method.isTestMethod()){
+            return;
+        }
+        if(testResult.getStatus() != ITestResult.FAILURE){
+            RingBufferLoggingFilter.clear();
+            return;
+        }
+        String exchanges= RingBufferLoggingFilter.dump();
+        if(exchanges.isEmpty()){
+            return;
+        }
+        System.out.println("Last HTTP exchanges of failed test " + testResult.getName() + ":");
+        System.out.println(exchanges);
+        Allure.addAttachment("Last HTTP exchanges", "text/plain", exchanges, ".txt");
+    }
+}
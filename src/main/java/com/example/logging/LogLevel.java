@@ -0,0 +1,28 @@
+package com.example.logging;
+
+import com.example.utils.ConfigManager;
+
+import java.util.Locale;
+
+/**
+ * How much of the HTTP traffic of the helpers gets logged, set with log.level in config.properties
+ */
+public enum LogLevel {
+
+    /**
+     * Nothing is recorded or printed
+     */
+    NONE,
+    /**
+     * Exchanges are kept in a per-thread ring buffer and only printed when a test fails
+     */
+    FAILURE,
+    /**
+     * Every request is printed as it is sent, on top of the failure dump
+     */
+    ALL;
+
+    public static LogLevel fromConfig(){
+        return valueOf(ConfigManager.getInstance().getString("log.level", FAILURE.name()).trim().toUpperCase(Locale.ROOT));
+    }
+}
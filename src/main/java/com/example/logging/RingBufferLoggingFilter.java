@@ -0,0 +1,188 @@
+package com.example.logging;
+
+import com.example.transport.HttpTransport;
+import com.example.utils.JsonMappers;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Keeps the last N exchanges of the current thread in a bounded ring buffer instead of printing them.
+ * Recording keeps the status line, headers and the first {@value #MAX_BODY_BYTES} bytes of the response body, never the
+ * Response itself, so rings of threads that are never cleared do not hold on to large bodies. The formatting and
+ * pretty printing happen in {@link #dump()} which is called when a test fails
+ */
+public class RingBufferLoggingFilter implements Filter {
+
+    private static final ThreadLocal<ExchangeRing> RING= new ThreadLocal<>();
+
+    static final int MAX_BODY_BYTES= 4096;
+
+    private final int capacity;
+
+    public RingBufferLoggingFilter(int capacity){
+        if(capacity < 1){
+            throw new IllegalArgumentException("Ring buffer size must be at least 1: " + capacity);
+        }
+        this.capacity= capacity;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        long start= System.nanoTime();
+        try {
+            Response response= ctx.next(requestSpec, responseSpec);
+            ring(capacity).add(new Exchange(requestSpec, response, null, System.nanoTime() - start));
+            return response;
+        } catch (RuntimeException e) {
+            ring(capacity).add(new Exchange(requestSpec, null, e, System.nanoTime() - start));
+            throw e;
+        }
+    }
+
+    /**
+     * Pretty printed exchanges recorded on the current thread, oldest first, and empty the buffer.
+     * Returns an empty string when nothing was recorded
+     */
+    public static String dump(){
+        ExchangeRing ring= RING.get();
+        if(ring == null || ring.size == 0){
+            return "";
+        }
+        StringBuilder sb= new StringBuilder();
+        int oldest= (ring.next - ring.size + ring.exchanges.length) % ring.exchanges.length;
+        for(int i=0; i<ring.size; i++){
+            ring.exchanges[(oldest + i) % ring.exchanges.length].appendTo(sb.append("#").append(i + 1).append(' '));
+        }
+        clear();
+        return sb.toString();
+    }
+
+    /**
+     * Drop everything recorded on the current thread
+     */
+    public static void clear(){
+        RING.remove();
+    }
+
+    private static ExchangeRing ring(int capacity){
+        ExchangeRing ring= RING.get();
+        if(ring == null || ring.exchanges.length != capacity){
+            ring= new ExchangeRing(capacity);
+            RING.set(ring);
+        }
+        return ring;
+    }
+
+    private static final class ExchangeRing {
+
+        private final Exchange[] exchanges;
+        private int next;
+        private int size;
+
+        ExchangeRing(int capacity){
+            this.exchanges= new Exchange[capacity];
+        }
+
+        void add(Exchange exchange){
+            exchanges[next]= exchange;
+            next= (next + 1) % exchanges.length;
+            size= Math.min(size + 1, exchanges.length);
+        }
+    }
+
+    private static final class Exchange {
+
+        private final long timestamp= System.currentTimeMillis();
+        private final String method;
+        private final String uri;
+        private final Iterable<Header> requestHeaders;
+        private final Object requestBody;
+        private final String statusLine;
+        private final Iterable<Header> responseHeaders;
+        //first MAX_BODY_BYTES bytes of the response body, null when it was not available
+        private final byte[] bodyHead;
+        private final long bodyLength;
+        private final String bodyNote;
+        private final RuntimeException error;
+        private final long elapsedNanos;
+
+        Exchange(FilterableRequestSpecification requestSpec, Response response, RuntimeException error, long elapsedNanos){
+            this.method= requestSpec.getMethod();
+            this.uri= requestSpec.getURI();
+            this.requestHeaders= requestSpec.getHeaders();
+            this.requestBody= requestSpec.getBody();
+            this.error= error;
+            this.elapsedNanos= elapsedNanos;
+            this.statusLine= response == null ? null : response.getStatusLine();
+            this.responseHeaders= response == null ? null : response.getHeaders();
+            byte[] body= null;
+            String note= null;
+            if(response != null && requestSpec.getDefinedFilters().contains(HttpTransport.STREAMED_RESPONSE)){
+                //reading it here would take it from the caller
+                note= "<body streamed to the caller>";
+            } else if(response != null){
+                try {
+                    body= response.asByteArray();
+                } catch (Exception e) {
+                    //RestAssured rethrows the IOException of a closed stream undeclared
+                    note= "<body not available: " + e.getMessage() + ">";
+                }
+            }
+            this.bodyHead= body == null ? null : Arrays.copyOf(body, Math.min(body.length, MAX_BODY_BYTES));
+            this.bodyLength= body == null ? 0 : body.length;
+            this.bodyNote= note;
+        }
+
+        void appendTo(StringBuilder sb){
+            sb.append(new Date(timestamp)).append(' ').append(method).append(' ').append(uri)
+                    .append(String.format(" (%.1f ms)%n", elapsedNanos / 1e6));
+            for(Header header : requestHeaders){
+                sb.append("  > ").append(header.getName()).append(": ").append(header.getValue()).append('\n');
+            }
+            if(requestBody != null){
+                sb.append(indent(prettyJson(requestBody))).append('\n');
+            }
+            if(error != null){
+                sb.append("  < ").append(error).append('\n');
+            } else {
+                sb.append("  < ").append(statusLine).append('\n');
+                for(Header header : responseHeaders){
+                    sb.append("  < ").append(header.getName()).append(": ").append(header.getValue()).append('\n');
+                }
+                sb.append(indent(responseBody())).append('\n');
+            }
+            sb.append('\n');
+        }
+
+        private String responseBody(){
+            if(bodyHead == null){
+                return bodyNote;
+            }
+            if(bodyLength > bodyHead.length){
+                return new String(bodyHead, StandardCharsets.UTF_8) + "... <" + bodyLength + " bytes, truncated>";
+            }
+            return prettyJson(bodyHead);
+        }
+
+        private static String prettyJson(Object body){
+            String text= body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : String.valueOf(body);
+            try {
+                return JsonMappers.PRETTY_WRITER.writeValueAsString(JsonMappers.MAPPER.readTree(text));
+            } catch (Exception e) {
+                return text;
+            }
+        }
+
+        private static String indent(String text){
+            return "    " + text.replace("\n", "\n    ");
+        }
+    }
+}
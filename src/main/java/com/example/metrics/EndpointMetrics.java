@@ -0,0 +1,233 @@
+package com.example.metrics;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, request count and byte counters per method, endpoint template and status code.
+ * Recording is lock-free so one registry can be shared by every thread of a parallel run
+ */
+public class EndpointMetrics {
+
+    private static final EndpointMetrics GLOBAL= new EndpointMetrics();
+    //registries of the fan-out targets, by target name
+    private static final ConcurrentMap<String, EndpointMetrics> TARGETS= new ConcurrentHashMap<>();
+    private static final double[] QUANTILES= {0.5, 0.9, 0.95, 0.99, 0.999};
+
+    /**
+     * Body size passed to {@link #record} when it is not known
+     */
+    public static final long UNKNOWN_BYTES= -1;
+
+    private final ConcurrentMap<Key, Stats> stats= new ConcurrentHashMap<>();
+
+    /**
+     * Registry the helpers record into by default and which is exported at suite end
+     */
+    public static EndpointMetrics global(){
+        return GLOBAL;
+    }
+
+    /**
+     * Registry of one fan-out target, see com.example.fanout.Target
+     */
+    public static EndpointMetrics forTarget(String target){
+        return TARGETS.computeIfAbsent(target, name -> new EndpointMetrics());
+    }
+
+    /**
+     * @param requestBytes body size, or {@link #UNKNOWN_BYTES}: counted apart instead of as 0 bytes
+     * @param responseBytes body size, or {@link #UNKNOWN_BYTES}
+     */
+    public void record(String method, String endpoint, int status, long latencyNanos, long requestBytes, long responseBytes){
+        Stats s= stats.computeIfAbsent(new Key(method, endpoint, status), key -> new Stats());
+        s.latency.recordValue(latencyNanos);
+        if(requestBytes < 0){
+            s.unknownRequestBytes.increment();
+        } else {
+            s.requestBytes.add(requestBytes);
+        }
+        if(responseBytes < 0){
+            s.unknownResponseBytes.increment();
+        } else {
+            s.responseBytes.add(responseBytes);
+        }
+    }
+
+    public Map<Key, Stats> snapshot(){
+        return new TreeMap<>(stats);
+    }
+
+    public boolean isEmpty(){
+        return stats.isEmpty();
+    }
+
+    public void reset(){
+        stats.clear();
+    }
+
+    /**
+     * Prometheus text exposition format, latency as a summary in seconds
+     */
+    public String toPrometheus(){
+        return toPrometheus(Collections.singletonMap(null, this));
+    }
+
+    /**
+     * Prometheus text of several registries in one exposition, the series of each labelled with its target.
+     * A null target adds no label
+     */
+    public static String toPrometheus(Map<String, EndpointMetrics> targets){
+        StringBuilder sb= new StringBuilder();
+        sb.append("# HELP person_api_request_duration_seconds Client observed request latency\n");
+        sb.append("# TYPE person_api_request_duration_seconds summary\n");
+        targets.forEach((target, metrics) -> metrics.snapshot().forEach((key, s) -> {
+            String labels= key.labels(target);
+            for(double quantile : QUANTILES){
+                sb.append("person_api_request_duration_seconds{").append(labels)
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(s.latency.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            sb.append("person_api_request_duration_seconds_sum{").append(labels).append("} ")
+                    .append(seconds(s.latency.getTotalNanos())).append('\n');
+            sb.append("person_api_request_duration_seconds_count{").append(labels).append("} ")
+                    .append(s.latency.getCount()).append('\n');
+        }));
+        sb.append("# HELP person_api_request_bytes_total Request body bytes sent\n");
+        sb.append("# TYPE person_api_request_bytes_total counter\n");
+        targets.forEach((target, metrics) -> metrics.snapshot().forEach((key, s) -> sb.append("person_api_request_bytes_total{")
+                .append(key.labels(target)).append("} ").append(s.requestBytes.sum()).append('\n')));
+        sb.append("# HELP person_api_response_bytes_total Response body bytes received\n");
+        sb.append("# TYPE person_api_response_bytes_total counter\n");
+        targets.forEach((target, metrics) -> metrics.snapshot().forEach((key, s) -> sb.append("person_api_response_bytes_total{")
+                .append(key.labels(target)).append("} ").append(s.responseBytes.sum()).append('\n')));
+        sb.append("# HELP person_api_unsized_requests_total Requests whose request or response body size is unknown, left out of the byte counters\n");
+        sb.append("# TYPE person_api_unsized_requests_total counter\n");
+        targets.forEach((target, metrics) -> metrics.snapshot().forEach((key, s) -> {
+            sb.append("person_api_unsized_requests_total{").append(key.labels(target)).append(",body=\"request\"} ")
+                    .append(s.unknownRequestBytes.sum()).append('\n');
+            sb.append("person_api_unsized_requests_total{").append(key.labels(target)).append(",body=\"response\"} ")
+                    .append(s.unknownResponseBytes.sum()).append('\n');
+        }));
+        return sb.toString();
+    }
+
+    /**
+     * Human readable table, used for the Allure attachment
+     */
+    public String toTable(){
+        StringBuilder sb= new StringBuilder();
+        //byte counts leave out the bodies of unknown size, the unsized column counts those requests
+        sb.append(String.format(Locale.ROOT, "%-7s %-20s %6s %8s %10s %10s %10s %10s %10s %12s %12s %8s%n",
+                "method", "endpoint", "status", "count", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "req bytes", "resp bytes", "unsized"));
+        snapshot().forEach((key, s) -> {
+            LatencyHistogram h= s.latency;
+            sb.append(String.format(Locale.ROOT, "%-7s %-20s %6d %8d %10.2f %10.2f %10.2f %10.2f %10.2f %12d %12d %8d%n",
+                    key.method, key.endpoint, key.status, h.getCount(), h.getMeanNanos() / 1e6,
+                    h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(95) / 1e6, h.getValueAtPercentile(99) / 1e6,
+                    h.getMaxNanos() / 1e6, s.requestBytes.sum(), s.responseBytes.sum(),
+                    s.unknownRequestBytes.sum() + s.unknownResponseBytes.sum()));
+        });
+        return sb.toString();
+    }
+
+    private static String seconds(long nanos){
+        return String.format(Locale.ROOT, "%.6f", nanos / 1e9);
+    }
+
+    public static final class Key implements Comparable<Key> {
+
+        private final String method;
+        private final String endpoint;
+        private final int status;
+
+        Key(String method, String endpoint, int status){
+            this.method= method;
+            this.endpoint= endpoint;
+            this.status= status;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        String labels(String target){
+            return (target == null ? "" : "target=\"" + target + "\",") + "method=\"" + method + "\",endpoint=\"" + endpoint + "\",status=\"" + status + "\"";
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int c= endpoint.compareTo(other.endpoint);
+            if(c == 0){
+                c= method.compareTo(other.method);
+            }
+            return c != 0 ? c : Integer.compare(status, other.status);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o){
+                return true;
+            }
+            if(!(o instanceof Key)){
+                return false;
+            }
+            Key key= (Key) o;
+            return status == key.status && method.equals(key.method) && endpoint.equals(key.endpoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, endpoint, status);
+        }
+    }
+
+    public static final class Stats {
+
+        private final LatencyHistogram latency= new LatencyHistogram();
+        private final LongAdder requestBytes= new LongAdder();
+        private final LongAdder responseBytes= new LongAdder();
+        private final LongAdder unknownRequestBytes= new LongAdder();
+        private final LongAdder unknownResponseBytes= new LongAdder();
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.sum();
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        /**
+         * Requests whose request body size is unknown and so not in {@link #getRequestBytes()}
+         */
+        public long getUnknownRequestBytes() {
+            return unknownRequestBytes.sum();
+        }
+
+        /**
+         * Requests whose response body size is unknown and so not in {@link #getResponseBytes()}
+         */
+        public long getUnknownResponseBytes() {
+            return unknownResponseBytes.sum();
+        }
+    }
+}
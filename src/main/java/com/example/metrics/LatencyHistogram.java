@@ -0,0 +1,127 @@
+package com.example.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed memory latency histogram in the spirit of HdrHistogram.
+ * Values (nanoseconds) are stored in log-linear buckets: 64 linear sub buckets per power of two,
+ * which keeps the relative error of any reported percentile below 1.6% while the whole histogram
+ * stays at a couple of thousand counters no matter how many values are recorded.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS= 7;
+    private static final int SUB_BUCKET_COUNT= 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF= SUB_BUCKET_COUNT >> 1;
+    //2^40 ns is a bit more than 18 minutes, anything above is clamped into the last bucket
+    private static final int MAX_MAGNITUDE= 40;
+    private static final int MAX_SHIFT= MAX_MAGNITUDE - (SUB_BUCKET_BITS - 1);
+    private static final int BUCKET_COUNT= SUB_BUCKET_COUNT + MAX_SHIFT * SUB_BUCKET_HALF;
+    private static final long MAX_TRACKABLE= (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private final AtomicLongArray counts= new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount= new LongAdder();
+    private final LongAdder totalSum= new LongAdder();
+    private final LongAccumulator max= new LongAccumulator(Math::max, 0);
+
+    public void recordValue(long nanos){
+        long value= Math.min(Math.max(nanos, 0), MAX_TRACKABLE);
+        counts.incrementAndGet(indexFor(value));
+        totalCount.increment();
+        totalSum.add(value);
+        max.accumulate(value);
+    }
+
+    public void record(long duration, TimeUnit unit){
+        recordValue(unit.toNanos(duration));
+    }
+
+    public long getCount(){
+        return totalCount.sum();
+    }
+
+    public long getMaxNanos(){
+        return max.get();
+    }
+
+    public long getTotalNanos(){
+        return totalSum.sum();
+    }
+
+    public double getMeanNanos(){
+        long count= getCount();
+        return count == 0 ? 0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * Highest value (nanoseconds) that the given percentile of recorded values are less than or equal to
+     * @param percentile between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile){
+        long[] snapshot= new long[BUCKET_COUNT];
+        long count= 0;
+        for(int i=0; i<BUCKET_COUNT; i++){
+            snapshot[i]= counts.get(i);
+            count+= snapshot[i];
+        }
+        if(count == 0){
+            return 0;
+        }
+        long target= Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen= 0;
+        for(int i=0; i<BUCKET_COUNT; i++){
+            seen+= snapshot[i];
+            if(seen >= target){
+                return Math.min(highestEquivalentValue(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Add every value recorded in the other histogram to this one
+     */
+    public void add(LatencyHistogram other){
+        for(int i=0; i<BUCKET_COUNT; i++){
+            long c= other.counts.get(i);
+            if(c != 0){
+                counts.addAndGet(i, c);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalSum.add(other.totalSum.sum());
+        max.accumulate(other.max.get());
+    }
+
+    public void reset(){
+        for(int i=0; i<BUCKET_COUNT; i++){
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        max.reset();
+    }
+
+    static int indexFor(long value){
+        if(value < SUB_BUCKET_COUNT){
+            return (int) value;
+        }
+        int magnitude= 63 - Long.numberOfLeadingZeros(value);
+        int shift= magnitude - (SUB_BUCKET_BITS - 1);
+        int subBucket= (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    static long highestEquivalentValue(int index){
+        if(index < SUB_BUCKET_COUNT){
+            return index;
+        }
+        int offset= index - SUB_BUCKET_COUNT;
+        int shift= offset / SUB_BUCKET_HALF + 1;
+        long subBucket= offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
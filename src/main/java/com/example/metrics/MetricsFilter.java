@@ -0,0 +1,92 @@
+package com.example.metrics;
+
+import com.example.transport.HttpTransport;
+import com.example.warmup.Warmup;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RestAssured filter timing every request it is attached to and recording it by endpoint template
+ * (e.g. /persons/{id}, not the resolved path) and status code.
+ * Response bytes are the size of the body as read, which the transports buffer anyway. A response marked
+ * {@link HttpTransport#STREAMED_RESPONSE} is never read just to be measured: its Content-Length is used, and
+ * without one its size is recorded as unknown, as is a request body that is neither text nor bytes (a file,
+ * a stream, multipart or form parameters). {@link Warmup} traffic is not recorded
+ */
+public class MetricsFilter implements Filter {
+
+    private final EndpointMetrics metrics;
+
+    public MetricsFilter(){
+        this(EndpointMetrics.global());
+    }
+
+    public MetricsFilter(EndpointMetrics metrics){
+        this.metrics= metrics;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        if(Warmup.isRunning()){
+            return ctx.next(requestSpec, responseSpec);
+        }
+        long start= System.nanoTime();
+        Response response;
+        try {
+            response= ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            //status 0 stands for connection failures and timeouts
+            metrics.record(requestSpec.getMethod(), endpoint(requestSpec), 0, System.nanoTime() - start, requestBytes(requestSpec), 0);
+            throw e;
+        }
+        long latency= System.nanoTime() - start;
+        metrics.record(requestSpec.getMethod(), endpoint(requestSpec), response.getStatusCode(), latency,
+                requestBytes(requestSpec), responseBytes(requestSpec, response));
+        return response;
+    }
+
+    private static String endpoint(FilterableRequestSpecification requestSpec){
+        String path= requestSpec.getUserDefinedPath();
+        return path == null || path.isEmpty() ? "/" : path;
+    }
+
+    /**
+     * Size of the request body, objects are already serialized to a String by then. -1 when unknown
+     */
+    private static long requestBytes(FilterableRequestSpecification requestSpec){
+        Object body= requestSpec.getBody();
+        if(body instanceof byte[]){
+            return ((byte[]) body).length;
+        }
+        if(body instanceof String){
+            return ((String) body).getBytes(StandardCharsets.UTF_8).length;
+        }
+        if(body == null && requestSpec.getMultiPartParams().isEmpty() && requestSpec.getFormParams().isEmpty()){
+            return 0;
+        }
+        return EndpointMetrics.UNKNOWN_BYTES;
+    }
+
+    /**
+     * Size of the (decoded) response body, see the class comment. -1 when unknown
+     */
+    private static long responseBytes(FilterableRequestSpecification requestSpec, Response response){
+        if(!requestSpec.getDefinedFilters().contains(HttpTransport.STREAMED_RESPONSE)){
+            return response.asByteArray().length;
+        }
+        String contentLength= response.getHeader("Content-Length");
+        if(contentLength == null){
+            return EndpointMetrics.UNKNOWN_BYTES;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return EndpointMetrics.UNKNOWN_BYTES;
+        }
+    }
+}
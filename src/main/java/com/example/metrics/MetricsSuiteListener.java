@@ -0,0 +1,133 @@
+package com.example.metrics;
+
+import com.example.fanout.Target;
+import com.example.utils.ConfigManager;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Export the global endpoint metrics when the suite finishes: a Prometheus text file
+ * (target/metrics/endpoint-metrics.prom or -Dmetrics.prometheus_file) and an Allure attachment.
+ * With history.enabled the run is also appended to the {@link RunHistory} and, with history.gate, the suite fails when
+ * an endpoint route regresses against the previous runs, see {@link RegressionGate}.
+ * In a fan-out run every target is exported with a target label and judged against its own history
+ */
+public class MetricsSuiteListener implements ISuiteListener {
+
+    private volatile long suiteStartMillis= System.currentTimeMillis();
+
+    @Override
+    public void onStart(ISuite suite) {
+        suiteStartMillis= System.currentTimeMillis();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        //the default target records into the global registry, fan-out targets into their own. In a fan-out run
+        //the global one still gets the helpers built on an explicit base_url/port
+        List<Target> targets= new ArrayList<>(Target.fromConfig());
+        if(!targets.get(0).isDefault()){
+            targets.add(0, Target.defaultTarget());
+        }
+        Map<String, EndpointMetrics> recorded= new LinkedHashMap<>();
+        for(Target target : targets){
+            if(!target.getMetrics().isEmpty()){
+                recorded.put(target.getName(), target.getMetrics());
+            }
+        }
+        if(recorded.isEmpty()){
+            return;
+        }
+        ConfigManager config= ConfigManager.getInstance();
+        boolean labelled= recorded.size() > 1 || !recorded.containsKey(Target.DEFAULT);
+        writePrometheus(labelled ? EndpointMetrics.toPrometheus(recorded) : recorded.get(Target.DEFAULT).toPrometheus(),
+                Paths.get(config.getString("metrics.prometheus_file", "target/metrics/endpoint-metrics.prom")));
+        List<String> regressions= new ArrayList<>();
+        for(Target target : targets){
+            EndpointMetrics metrics= recorded.get(target.getName());
+            if(metrics == null){
+                continue;
+            }
+            List<String> targetRegressions= config.getBoolean("history.enabled", false) ? recordHistory(target, metrics) : Collections.emptyList();
+            attachToAllure(suite.getName() + (target.isDefault() ? "" : " [" + target.getName() + "]"), metrics, targetRegressions);
+            for(String regression : targetRegressions){
+                regressions.add(target.isDefault() ? regression : target.getName() + ": " + regression);
+            }
+        }
+        if(!regressions.isEmpty()){
+            String message= "Latency regression against the run history:" + System.lineSeparator() + String.join(System.lineSeparator(), regressions);
+            System.out.println(message);
+            if(config.getBoolean("history.gate", false)){
+                throw new IllegalStateException(message);
+            }
+        }
+    }
+
+    /**
+     * Judge this run against the previous ones on the same target, then append it.
+     * Fan-out targets are kept apart by their base_url:port
+     */
+    private List<String> recordHistory(Target target, EndpointMetrics metrics){
+        ConfigManager config= ConfigManager.getInstance();
+        RunHistory history= new RunHistory(Paths.get(config.getString("history.file", "perf-history/endpoint-history.bin")));
+        RegressionGate gate= RegressionGate.fromConfig();
+        long now= System.currentTimeMillis();
+        String name= target.isDefault()
+                ? config.getString("history.target", config.getString("base_url") + ":" + config.getString("port"))
+                : target.getBaseUrl() + ":" + target.getPort();
+        RunRecord run= RunRecord.of(metrics, name, now, now - suiteStartMillis);
+        List<String> regressions= gate.check(run, history.recent(run.getTarget(), gate.getBaselineRuns()));
+        history.append(run);
+        return regressions;
+    }
+
+    static void writePrometheus(String prometheus, Path file){
+        try {
+            if(file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, prometheus.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write metrics to " + file, e);
+        }
+    }
+
+    /**
+     * Allure only accepts attachments on a running test case, so the metrics go on a dedicated
+     * result entry for the suite
+     */
+    private static void attachToAllure(String suiteName, EndpointMetrics metrics, List<String> regressions){
+        AllureLifecycle lifecycle= Allure.getLifecycle();
+        String uuid= UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult()
+                .setUuid(uuid)
+                .setName("Endpoint metrics: " + suiteName)
+                .setFullName(MetricsSuiteListener.class.getName() + "." + suiteName)
+                .setStatus(regressions.isEmpty() ? Status.PASSED : Status.FAILED));
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("endpoint-metrics", "text/plain", ".txt", metrics.toTable().getBytes(StandardCharsets.UTF_8));
+        lifecycle.addAttachment("endpoint-metrics.prom", "text/plain", ".prom", metrics.toPrometheus().getBytes(StandardCharsets.UTF_8));
+        if(!regressions.isEmpty()){
+            lifecycle.addAttachment("latency-regressions", "text/plain", ".txt", String.join("\n", regressions).getBytes(StandardCharsets.UTF_8));
+        }
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+}
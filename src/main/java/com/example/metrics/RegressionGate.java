@@ -0,0 +1,91 @@
+package com.example.metrics;
+
+import com.example.utils.ConfigManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compares the p95 and p99 of every endpoint route of a run with a rolling baseline, the median of the
+ * same percentile over the previous runs against the same target. A route regresses when it is slower than
+ * baseline * (1 + tolerance). Routes with too few requests, or too few previous runs, are not judged
+ */
+public class RegressionGate {
+
+    private final double tolerance;
+    private final int baselineRuns;
+    private final int minRuns;
+    private final long minCount;
+
+    public RegressionGate(double tolerance, int baselineRuns, int minRuns, long minCount){
+        if(tolerance < 0){
+            throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+        }
+        this.tolerance= tolerance;
+        this.baselineRuns= baselineRuns;
+        this.minRuns= minRuns;
+        this.minCount= minCount;
+    }
+
+    /**
+     * Gate from the history.* keys of config.properties
+     */
+    public static RegressionGate fromConfig(){
+        ConfigManager config= ConfigManager.getInstance();
+        return new RegressionGate(config.getDouble("history.tolerance", 0.25), config.getInt("history.baseline_runs", 5),
+                config.getInt("history.min_runs", 3), config.getLong("history.min_count", 20));
+    }
+
+    /**
+     * Number of previous runs the baseline is taken from
+     */
+    public int getBaselineRuns() {
+        return baselineRuns;
+    }
+
+    /**
+     * @param previous earlier runs against the same target, oldest first; only the last baselineRuns are used
+     * @return one message per regressed route and percentile, empty when the run passes
+     */
+    public List<String> check(RunRecord current, List<RunRecord> previous){
+        List<RunRecord> baseline= previous.subList(Math.max(0, previous.size() - baselineRuns), previous.size());
+        List<String> regressions= new ArrayList<>();
+        for(RunRecord.EndpointSummary route : current.getEndpoints()){
+            if(route.getCount() < minCount){
+                continue;
+            }
+            check(route, baseline, "p95", RunRecord.EndpointSummary::getP95Nanos, regressions);
+            check(route, baseline, "p99", RunRecord.EndpointSummary::getP99Nanos, regressions);
+        }
+        return regressions;
+    }
+
+    private void check(RunRecord.EndpointSummary route, List<RunRecord> baseline, String percentile,
+                       ToLongFunction<RunRecord.EndpointSummary> value, List<String> regressions){
+        long[] values= baseline.stream()
+                .map(run -> run.getEndpoint(route.getMethod(), route.getEndpoint()))
+                .filter(previous -> previous != null && previous.getCount() >= minCount)
+                .mapToLong(value)
+                .toArray();
+        if(values.length < minRuns){
+            return;
+        }
+        long median= median(values);
+        long current= value.applyAsLong(route);
+        if(current > median * (1 + tolerance)){
+            regressions.add(String.format(Locale.ROOT, "%s %s %s %.2f ms against a baseline of %.2f ms (+%.0f%%, tolerance %.0f%%)",
+                    route.getMethod(), route.getEndpoint(), percentile, current / 1e6, median / 1e6,
+                    median == 0 ? 100.0 : (current - median) * 100.0 / median, tolerance * 100));
+        }
+    }
+
+    private static long median(long[] values){
+        long[] sorted= values.clone();
+        Arrays.sort(sorted);
+        int middle= sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
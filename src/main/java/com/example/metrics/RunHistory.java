@@ -0,0 +1,198 @@
+package com.example.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary file of {@link RunRecord}s, one per finished suite, kept between runs without a database.
+ * Layout: a magic number and version, then per run a length prefixed, CRC32 checked record of about
+ * a hundred bytes per endpoint. Appends take a file lock so parallel JVMs (shards) can share one file;
+ * a record cut short by a killed JVM fails its checksum, is ignored on read and overwritten by the next append
+ */
+public class RunHistory {
+
+    private static final int MAGIC= 0x50524831; //PRH1
+    private static final short VERSION= 1;
+    private static final int HEADER_BYTES= 6;
+
+    private final Path file;
+
+    public RunHistory(Path file){
+        this.file= file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void append(RunRecord run){
+        byte[] payload= encode(run);
+        CRC32 crc= new CRC32();
+        crc.update(payload);
+        ByteBuffer record= ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        try {
+            if(file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel= FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock= channel.lock();
+                try {
+                    long end;
+                    if(channel.size() < HEADER_BYTES){
+                        ByteBuffer header= ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putShort(VERSION);
+                        header.flip();
+                        channel.truncate(0);
+                        writeFully(channel, header, 0);
+                        end= HEADER_BYTES;
+                    } else {
+                        //drop a record torn by a killed JVM, runs appended after it would never be read
+                        end= scan(channel, null);
+                        channel.truncate(end);
+                    }
+                    writeFully(channel, record, end);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to run history " + file, e);
+        }
+    }
+
+    /**
+     * Every complete run in the order they were appended, empty when the file does not exist yet
+     */
+    public List<RunRecord> readAll(){
+        List<RunRecord> runs= new ArrayList<>();
+        try (FileChannel channel= FileChannel.open(file, StandardOpenOption.READ)) {
+            scan(channel, runs);
+        } catch (NoSuchFileException e) {
+            return runs;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read run history " + file, e);
+        }
+        return runs;
+    }
+
+    /**
+     * Check the records from the start of the file, adding them to runs unless it is null.
+     * Stops at the first torn record: a length running past the end of the file or a checksum mismatch
+     * @return position right after the last complete record
+     */
+    private long scan(FileChannel channel, List<RunRecord> runs) throws IOException {
+        long size= channel.size();
+        ByteBuffer header= ByteBuffer.allocate(HEADER_BYTES);
+        if(!readFully(channel, header, 0) || header.getInt(0) != MAGIC || header.getShort(4) != VERSION){
+            throw new IllegalStateException(file + " is not a run history file");
+        }
+        long position= HEADER_BYTES;
+        ByteBuffer prefix= ByteBuffer.allocate(8);
+        while(readFully(channel, prefix.clear(), position)){
+            int length= prefix.getInt(0);
+            int checksum= prefix.getInt(4);
+            if(length < 0 || length > size - position - 8){
+                break;
+            }
+            ByteBuffer payload= ByteBuffer.allocate(length);
+            if(!readFully(channel, payload, position + 8)){
+                break;
+            }
+            CRC32 crc= new CRC32();
+            crc.update(payload.array());
+            if((int) crc.getValue() != checksum){
+                break;
+            }
+            if(runs != null){
+                runs.add(decode(payload.array()));
+            }
+            position+= 8 + length;
+        }
+        return position;
+    }
+
+    /**
+     * The last {@code limit} runs against the target, oldest first
+     */
+    public List<RunRecord> recent(String target, int limit){
+        List<RunRecord> matching= new ArrayList<>();
+        for(RunRecord run : readAll()){
+            if(run.getTarget().equals(target)){
+                matching.add(run);
+            }
+        }
+        return new ArrayList<>(matching.subList(Math.max(0, matching.size() - limit), matching.size()));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()){
+            position+= channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Fill the buffer from the position, false when the file ends first
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()){
+            int read= channel.read(buffer, position);
+            if(read < 0){
+                return false;
+            }
+            position+= read;
+        }
+        return true;
+    }
+
+    private static byte[] encode(RunRecord run){
+        ByteArrayOutputStream bytes= new ByteArrayOutputStream(64 + 96 * run.getEndpoints().size());
+        try (DataOutputStream out= new DataOutputStream(bytes)) {
+            out.writeLong(run.getTimestampMillis());
+            out.writeUTF(run.getTarget());
+            out.writeLong(run.getDurationMillis());
+            out.writeInt(run.getEndpoints().size());
+            for(RunRecord.EndpointSummary e : run.getEndpoints()){
+                out.writeUTF(e.getMethod());
+                out.writeUTF(e.getEndpoint());
+                out.writeLong(e.getCount());
+                out.writeLong(e.getErrors());
+                out.writeLong(e.getP50Nanos());
+                out.writeLong(e.getP95Nanos());
+                out.writeLong(e.getP99Nanos());
+                out.writeLong(e.getMaxNanos());
+                out.writeDouble(e.getThroughput());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static RunRecord decode(byte[] payload) throws IOException {
+        DataInputStream in= new DataInputStream(new ByteArrayInputStream(payload));
+        long timestamp= in.readLong();
+        String target= in.readUTF();
+        long duration= in.readLong();
+        int count= in.readInt();
+        List<RunRecord.EndpointSummary> endpoints= new ArrayList<>(count);
+        for(int i=0; i<count; i++){
+            endpoints.add(new RunRecord.EndpointSummary(in.readUTF(), in.readUTF(), in.readLong(), in.readLong(),
+                    in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readDouble()));
+        }
+        return new RunRecord(timestamp, target, duration, endpoints);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary of one test run as kept in the {@link RunHistory}: when it ran, against which target,
+ * and latency percentiles and throughput per endpoint route
+ */
+public class RunRecord {
+
+    private final long timestampMillis;
+    private final String target;
+    private final long durationMillis;
+    private final List<EndpointSummary> endpoints;
+
+    public RunRecord(long timestampMillis, String target, long durationMillis, List<EndpointSummary> endpoints){
+        this.timestampMillis= timestampMillis;
+        this.target= target;
+        this.durationMillis= durationMillis;
+        this.endpoints= Collections.unmodifiableList(new ArrayList<>(endpoints));
+    }
+
+    /**
+     * One summary per method and endpoint template. Only 2xx/3xx responses count towards the percentiles,
+     * errors are counted apart so a burst of fast failures does not pass for a speed-up
+     */
+    public static RunRecord of(EndpointMetrics metrics, String target, long timestampMillis, long durationMillis){
+        Map<String, LatencyHistogram> latencies= new TreeMap<>();
+        Map<String, long[]> errors= new TreeMap<>();
+        metrics.snapshot().forEach((key, stats) -> {
+            String route= key.getMethod() + " " + key.getEndpoint();
+            LatencyHistogram latency= latencies.computeIfAbsent(route, r -> new LatencyHistogram());
+            long[] errorCount= errors.computeIfAbsent(route, r -> new long[1]);
+            if(key.getStatus() >= 200 && key.getStatus() < 400){
+                latency.add(stats.getLatency());
+            } else {
+                errorCount[0]+= stats.getLatency().getCount();
+            }
+        });
+        double seconds= Math.max(durationMillis, 1) / 1000.0;
+        List<EndpointSummary> endpoints= new ArrayList<>();
+        latencies.forEach((route, h) -> {
+            int space= route.indexOf(' ');
+            endpoints.add(new EndpointSummary(route.substring(0, space), route.substring(space + 1), h.getCount(), errors.get(route)[0],
+                    h.getValueAtPercentile(50), h.getValueAtPercentile(95), h.getValueAtPercentile(99), h.getMaxNanos(),
+                    h.getCount() / seconds));
+        });
+        return new RunRecord(timestampMillis, target, durationMillis, endpoints);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Base url and port the run was sent to, only runs against the same target are compared
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public List<EndpointSummary> getEndpoints() {
+        return endpoints;
+    }
+
+    public EndpointSummary getEndpoint(String method, String endpoint){
+        for(EndpointSummary summary : endpoints){
+            if(summary.getMethod().equals(method) && summary.getEndpoint().equals(endpoint)){
+                return summary;
+            }
+        }
+        return null;
+    }
+
+    public static final class EndpointSummary {
+
+        private final String method;
+        private final String endpoint;
+        private final long count;
+        private final long errors;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+        private final double throughput;
+
+        public EndpointSummary(String method, String endpoint, long count, long errors, long p50Nanos, long p95Nanos,
+                               long p99Nanos, long maxNanos, double throughput){
+            this.method= method;
+            this.endpoint= endpoint;
+            this.count= count;
+            this.errors= errors;
+            this.p50Nanos= p50Nanos;
+            this.p95Nanos= p95Nanos;
+            this.p99Nanos= p99Nanos;
+            this.maxNanos= maxNanos;
+            this.throughput= throughput;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP95Nanos() {
+            return p95Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Successful requests per second over the run
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+    }
+}
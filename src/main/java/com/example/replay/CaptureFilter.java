@@ -0,0 +1,81 @@
+package com.example.replay;
+
+import com.example.utils.JsonMappers;
+import com.example.warmup.Warmup;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RestAssured filter recording every exchange it sees into a {@link CaptureLog}, by endpoint template and
+ * path params like {@link com.example.metrics.MetricsFilter}, so the traffic can be replayed with {@link ReplayEngine}.
+ * Only the request body is kept, the response body is never read. {@link Warmup} traffic is not captured
+ */
+public class CaptureFilter implements Filter {
+
+    private final CaptureLog log;
+
+    public CaptureFilter(CaptureLog log){
+        this.log= log;
+    }
+
+    /**
+     * Filter on the capture.file log, null unless capture.enabled
+     */
+    public static CaptureFilter fromConfig(){
+        CaptureLog log= CaptureLog.fromConfig();
+        return log == null ? null : new CaptureFilter(log);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        if(Warmup.isRunning()){
+            return ctx.next(requestSpec, responseSpec);
+        }
+        long start= System.nanoTime();
+        Response response;
+        try {
+            response= ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            //status 0 stands for connection failures and timeouts
+            record(requestSpec, start, 0);
+            throw e;
+        }
+        record(requestSpec, start, response.getStatusCode());
+        return response;
+    }
+
+    private void record(FilterableRequestSpecification requestSpec, long start, int status){
+        long end= System.nanoTime();
+        String path= requestSpec.getUserDefinedPath();
+        Map<String, String> pathParams= new LinkedHashMap<>();
+        requestSpec.getNamedPathParams().forEach((name, value) -> pathParams.put(name, String.valueOf(value)));
+        log.append(new CapturedExchange((start - log.getStartNanos()) / 1000, (end - start) / 1000, status,
+                requestSpec.getMethod(), path == null || path.isEmpty() ? "/" : path, pathParams,
+                requestSpec.getContentType(), body(requestSpec.getBody())));
+    }
+
+    private static byte[] body(Object body){
+        if(body == null){
+            return new byte[0];
+        }
+        if(body instanceof byte[]){
+            return (byte[]) body;
+        }
+        if(body instanceof String){
+            return ((String) body).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return JsonMappers.MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to capture the request body", e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.replay;
+
+import com.example.utils.ConfigManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only binary log of {@link CapturedExchange}s, read back by {@link CaptureLogReader}.
+ * Layout: a magic number, version and the capture start (epoch ms), then one varint length prefixed entry per
+ * exchange in completion order. Numbers are varints and the method, endpoint template, path param names and
+ * content type are written once and then referenced by index, so a body-less exchange takes about a dozen bytes.
+ * Every entry is written with a single channel write, nothing is lost when the JVM stops without closing the log;
+ * a torn last entry is ignored on read
+ */
+public class CaptureLog implements Closeable {
+
+    static final int MAGIC= 0x50434C31; //PCL1
+    static final short VERSION= 1;
+    static final int HEADER_BYTES= 14;
+
+    private static CaptureLog configured;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long startNanos;
+    //strings already written, by index
+    private final Map<String, Integer> dictionary= new HashMap<>();
+    private ByteBuffer entry= ByteBuffer.allocate(4096);
+    private ByteBuffer payload= ByteBuffer.allocate(4096);
+
+    private CaptureLog(Path file) throws IOException {
+        this.file= file;
+        if(file.getParent() != null){
+            Files.createDirectories(file.getParent());
+        }
+        this.channel= FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.startNanos= System.nanoTime();
+        ByteBuffer header= ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putShort(VERSION).putLong(System.currentTimeMillis());
+        header.flip();
+        writeFully(header);
+    }
+
+    /**
+     * Start a new capture in the file, replacing what it held
+     */
+    public static CaptureLog create(Path file){
+        try {
+            return new CaptureLog(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create capture log " + file, e);
+        }
+    }
+
+    /**
+     * The log at capture.file every helper of this JVM records into, null unless capture.enabled.
+     * Parallel JVMs (shards) each need their own capture.file
+     */
+    public static synchronized CaptureLog fromConfig(){
+        ConfigManager config= ConfigManager.getInstance();
+        if(!config.getBoolean("capture.enabled", false)){
+            return null;
+        }
+        if(configured == null){
+            configured= create(Paths.get(config.getString("capture.file", "perf-history/capture.bin")));
+        }
+        return configured;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * System.nanoTime() of the capture start, what the start of an exchange is measured against
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public synchronized void append(CapturedExchange exchange){
+        payload.clear();
+        putVarLong(Math.max(exchange.getStartMicros(), 0));
+        putVarLong(Math.max(exchange.getLatencyMicros(), 0));
+        putVarLong(exchange.getStatus());
+        putReference(exchange.getMethod());
+        putReference(exchange.getEndpoint());
+        putVarLong(exchange.getPathParams().size());
+        for(Map.Entry<String, String> param : exchange.getPathParams().entrySet()){
+            putReference(param.getKey());
+            putBytes(param.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        putReference(exchange.getContentType());
+        putBytes(exchange.getBody());
+        payload.flip();
+
+        entry= ensure(entry, payload.remaining() + 5);
+        entry.clear();
+        putVarLong(entry, payload.remaining());
+        entry.put(payload).flip();
+        try {
+            writeFully(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to capture log " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Index + 1 of a string written before, or 0 followed by the string, which takes the next index
+     */
+    private void putReference(String value){
+        Integer index= dictionary.get(value);
+        if(index != null){
+            putVarLong(index + 1);
+            return;
+        }
+        dictionary.put(value, dictionary.size());
+        putVarLong(0);
+        putBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void putBytes(byte[] bytes){
+        putVarLong(bytes.length);
+        payload= ensure(payload, payload.position() + bytes.length);
+        payload.put(bytes);
+    }
+
+    private void putVarLong(long value){
+        payload= ensure(payload, payload.position() + 10);
+        putVarLong(payload, value);
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value){
+        long rest= value;
+        while((rest & ~0x7FL) != 0){
+            buffer.put((byte) ((rest & 0x7F) | 0x80));
+            rest>>>= 7;
+        }
+        buffer.put((byte) rest);
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int capacity){
+        if(capacity <= buffer.capacity()){
+            return buffer;
+        }
+        ByteBuffer larger= ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory-mapped view of a {@link CaptureLog}. Opening it makes one pass over the entries to learn where each
+ * one starts, the strings they reference and their start times; exchanges are only decoded when asked for,
+ * in the order they were started. The mapping is read with absolute gets, so several threads can read at once.
+ * Logs are limited to 2 GB (one mapping) and to 2^26 entries
+ */
+public class CaptureLogReader {
+
+    //entry index in the low bits of the sort key, start time above it
+    private static final int INDEX_BITS= 26;
+
+    private final Path file;
+    private final MappedByteBuffer map;
+    private final long captureEpochMillis;
+    private final List<String> dictionary= new ArrayList<>();
+    //entry payload positions, by start time
+    private final int[] positions;
+    private final long[] starts;
+    private final int peakConcurrency;
+    private final long durationMicros;
+
+    private CaptureLogReader(Path file) throws IOException {
+        this.file= file;
+        try (FileChannel channel= FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new IllegalStateException(file + " is larger than 2 GB, split the capture");
+            }
+            //the mapping stays valid once the channel is closed
+            this.map= channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if(map.limit() < CaptureLog.HEADER_BYTES || map.getInt(0) != CaptureLog.MAGIC || map.getShort(4) != CaptureLog.VERSION){
+            throw new IllegalStateException(file + " is not a capture log");
+        }
+        this.captureEpochMillis= map.getLong(6);
+
+        List<long[]> entries= new ArrayList<>();
+        int position= CaptureLog.HEADER_BYTES;
+        long[] cursor= new long[1];
+        while(position < map.limit()){
+            cursor[0]= position;
+            long length= varLong(cursor);
+            if(length < 0 || cursor[0] + length > map.limit()){
+                //torn last entry
+                break;
+            }
+            int payload= (int) cursor[0];
+            long[] entry= scan(payload);
+            entries.add(new long[]{payload, entry[0], entry[1]});
+            position= (int) (payload + length);
+        }
+        if(entries.size() >= 1 << INDEX_BITS){
+            throw new IllegalStateException(file + " has more than " + (1 << INDEX_BITS) + " entries, split the capture");
+        }
+
+        long[] keys= new long[entries.size()];
+        long[] ends= new long[entries.size()];
+        long lastEnd= 0;
+        for(int i=0; i<keys.length; i++){
+            long start= entries.get(i)[1];
+            if(start >= 1L << (63 - INDEX_BITS)){
+                throw new IllegalStateException(file + " spans too long a time to replay");
+            }
+            keys[i]= (start << INDEX_BITS) | i;
+            ends[i]= start + entries.get(i)[2];
+            lastEnd= Math.max(lastEnd, ends[i]);
+        }
+        Arrays.sort(keys);
+        this.positions= new int[keys.length];
+        this.starts= new long[keys.length];
+        for(int i=0; i<keys.length; i++){
+            long[] entry= entries.get((int) (keys[i] & ((1L << INDEX_BITS) - 1)));
+            positions[i]= (int) entry[0];
+            starts[i]= entry[1];
+        }
+        this.peakConcurrency= peakConcurrency(starts, ends);
+        this.durationMicros= starts.length == 0 ? 0 : lastEnd - starts[0];
+    }
+
+    public static CaptureLogReader open(Path file){
+        try {
+            return new CaptureLogReader(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read capture log " + file, e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getCaptureEpochMillis() {
+        return captureEpochMillis;
+    }
+
+    public int size(){
+        return positions.length;
+    }
+
+    /**
+     * Start of the exchange {@code index} in start order, without decoding it
+     */
+    public long getStartMicros(int index){
+        return starts[index];
+    }
+
+    /**
+     * From the first start to the last end
+     */
+    public long getDurationMicros(){
+        return durationMicros;
+    }
+
+    /**
+     * Most exchanges that were in flight at the same time during the capture
+     */
+    public int getPeakConcurrency() {
+        return peakConcurrency;
+    }
+
+    /**
+     * Exchange {@code index}, 0 is the first one started
+     */
+    public CapturedExchange get(int index){
+        long[] cursor= {positions[index]};
+        long start= varLong(cursor);
+        long latency= varLong(cursor);
+        int status= (int) varLong(cursor);
+        String method= reference(cursor);
+        String endpoint= reference(cursor);
+        int paramCount= (int) varLong(cursor);
+        Map<String, String> params= new LinkedHashMap<>();
+        for(int i=0; i<paramCount; i++){
+            String name= reference(cursor);
+            params.put(name, new String(bytes(cursor), StandardCharsets.UTF_8));
+        }
+        String contentType= reference(cursor);
+        return new CapturedExchange(start, latency, status, method, endpoint, params, contentType, bytes(cursor));
+    }
+
+    /**
+     * Start and latency of the entry at the payload position, registering the strings it defines
+     */
+    private long[] scan(int payload){
+        long[] cursor= {payload};
+        long start= varLong(cursor);
+        long latency= varLong(cursor);
+        varLong(cursor); //status
+        define(cursor); //method
+        define(cursor); //endpoint
+        long paramCount= varLong(cursor);
+        for(long i=0; i<paramCount; i++){
+            define(cursor);
+            skipBytes(cursor);
+        }
+        define(cursor); //content type
+        return new long[]{start, latency};
+    }
+
+    private void define(long[] cursor){
+        if(varLong(cursor) == 0){
+            dictionary.add(new String(bytes(cursor), StandardCharsets.UTF_8));
+        }
+    }
+
+    private String reference(long[] cursor){
+        long reference= varLong(cursor);
+        if(reference == 0){
+            //defined here, and registered under the next index when the log was opened
+            return new String(bytes(cursor), StandardCharsets.UTF_8);
+        }
+        return dictionary.get((int) reference - 1);
+    }
+
+    private byte[] bytes(long[] cursor){
+        int length= (int) varLong(cursor);
+        byte[] bytes= new byte[length];
+        ByteBuffer view= map.duplicate();
+        view.position((int) cursor[0]);
+        view.get(bytes);
+        cursor[0]+= length;
+        return bytes;
+    }
+
+    private void skipBytes(long[] cursor){
+        long length= varLong(cursor);
+        cursor[0]+= length;
+    }
+
+    /**
+     * Varint at cursor[0], advancing it. -1 when the varint runs past the end of the file
+     */
+    private long varLong(long[] cursor){
+        long value= 0;
+        int shift= 0;
+        int position= (int) cursor[0];
+        while(position < map.limit() && shift < 64){
+            byte b= map.get(position++);
+            value|= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0){
+                cursor[0]= position;
+                return value;
+            }
+            shift+= 7;
+        }
+        cursor[0]= position;
+        return -1;
+    }
+
+    private static int peakConcurrency(long[] sortedStarts, long[] ends){
+        long[] sortedEnds= ends.clone();
+        Arrays.sort(sortedEnds);
+        int inFlight= 0;
+        int peak= 0;
+        int e= 0;
+        for(long start : sortedStarts){
+            while(e < sortedEnds.length && sortedEnds[e] <= start){
+                e++;
+                inFlight--;
+            }
+            inFlight++;
+            peak= Math.max(peak, inFlight);
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.replay;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One request/response exchange of a capture log: what was sent (method, Endpoints template with its path
+ * params, content type and body), what came back (status) and when (start since the capture began, latency)
+ */
+public class CapturedExchange {
+
+    private final long startMicros;
+    private final long latencyMicros;
+    private final int status;
+    private final String method;
+    private final String endpoint;
+    private final Map<String, String> pathParams;
+    private final String contentType;
+    private final byte[] body;
+
+    public CapturedExchange(long startMicros, long latencyMicros, int status, String method, String endpoint,
+                            Map<String, String> pathParams, String contentType, byte[] body){
+        this.startMicros= startMicros;
+        this.latencyMicros= latencyMicros;
+        this.status= status;
+        this.method= method;
+        this.endpoint= endpoint;
+        this.pathParams= Collections.unmodifiableMap(new LinkedHashMap<>(pathParams));
+        this.contentType= contentType == null ? "" : contentType;
+        this.body= body == null ? new byte[0] : body;
+    }
+
+    /**
+     * Start of the request, in microseconds since the capture began
+     */
+    public long getStartMicros() {
+        return startMicros;
+    }
+
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    /**
+     * HTTP status, 0 when no response was received
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Endpoints template, e.g. /persons/{id}
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Map<String, String> getPathParams() {
+        return pathParams;
+    }
+
+    /**
+     * Request content type, empty when none was sent
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Request body, empty when none was sent. Not copied, do not modify
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * The template with its path params filled in
+     */
+    public String getPath(){
+        String path= endpoint;
+        for(Map.Entry<String, String> param : pathParams.entrySet()){
+            path= path.replace("{" + param.getKey() + "}", param.getValue());
+        }
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "CapturedExchange{" + method + " " + getPath() + " -> " + status + " at " + startMicros + "us in " + latencyMicros + "us}";
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.replay;
+
+import com.example.fanout.Target;
+import com.example.transport.RelaxedTls;
+import com.example.utils.ConfigManager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-issues the exchanges of a capture log against a target with the asynchronous JDK HttpClient.
+ * At a finite speed every request starts at its recorded offset divided by the speed, so the original
+ * inter-arrival gaps, and with them the original concurrency, are kept (1x) or compressed (Nx). At max speed
+ * requests are sent back to back with as many in flight as the capture's peak concurrency.
+ * Replayed latency is compared per endpoint with the recorded one in a {@link ReplayReport}
+ */
+public class ReplayEngine {
+
+    public static final double MAX_SPEED= Double.POSITIVE_INFINITY;
+
+    private final String baseUri;
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final int maxInFlight;
+
+    /**
+     * @param maxInFlight cap of requests in flight at a finite speed, a request waits for a slot (and its wait counts as latency)
+     */
+    public ReplayEngine(String baseUri, Duration requestTimeout, int maxInFlight){
+        if(maxInFlight < 1){
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.baseUri= baseUri;
+        this.requestTimeout= requestTimeout;
+        this.maxInFlight= maxInFlight;
+        this.client= RelaxedTls.fromConfig(HttpClient.newBuilder())
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    /**
+     * Engine against the target of this thread with the replay.request_timeout and replay.max_in_flight settings
+     */
+    public static ReplayEngine fromConfig(){
+        ConfigManager config= ConfigManager.getInstance();
+        return new ReplayEngine(Target.current().getBaseUri(),
+                config.getDuration("replay.request_timeout", Duration.ofSeconds(30)),
+                config.getInt("replay.max_in_flight", 10000));
+    }
+
+    /**
+     * "1x", "10x", "0.5x" or "max"
+     */
+    public static double parseSpeed(String speed){
+        String value= speed.trim().toLowerCase(Locale.ROOT);
+        if(value.equals("max")){
+            return MAX_SPEED;
+        }
+        double parsed= Double.parseDouble(value.endsWith("x") ? value.substring(0, value.length() - 1) : value);
+        if(!(parsed > 0)){
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Replay every exchange of the log and wait for the last response
+     */
+    public ReplayReport replay(CaptureLogReader log, double speed) throws InterruptedException {
+        if(!(speed > 0)){
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        boolean paced= !Double.isInfinite(speed);
+        int permits= paced ? maxInFlight : Math.max(1, log.getPeakConcurrency());
+        Semaphore inFlight= new Semaphore(permits);
+        ReplayReport report= new ReplayReport(speed);
+        long start= System.nanoTime();
+        long firstMicros= log.size() == 0 ? 0 : log.getStartMicros(0);
+        for(int i=0; i<log.size(); i++){
+            long scheduledAt= start;
+            if(paced){
+                scheduledAt= start + (long) ((log.getStartMicros(i) - firstMicros) * 1000 / speed);
+                parkUntil(scheduledAt);
+            }
+            inFlight.acquire();
+            if(!paced){
+                //back to back, latency is from the moment a slot was free
+                scheduledAt= System.nanoTime();
+            }
+            send(log.get(i), scheduledAt, inFlight, report);
+        }
+        inFlight.acquire(permits);
+        report.setElapsed(Duration.ofNanos(System.nanoTime() - start), Duration.ofNanos(log.getDurationMicros() * 1000));
+        return report;
+    }
+
+    private void send(CapturedExchange exchange, long scheduledAt, Semaphore inFlight, ReplayReport report){
+        HttpRequest.BodyPublisher body= exchange.getBody().length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(exchange.getBody());
+        HttpRequest.Builder request= HttpRequest.newBuilder(URI.create(baseUri + exchange.getPath()))
+                .timeout(requestTimeout)
+                .method(exchange.getMethod(), body);
+        if(!exchange.getContentType().isEmpty()){
+            request.header("Content-Type", exchange.getContentType());
+        }
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    try {
+                        report.record(exchange, error == null ? response.statusCode() : 0, System.nanoTime() - scheduledAt);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private static void parkUntil(long deadline){
+        long remaining;
+        while((remaining= deadline - System.nanoTime()) > 0){
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
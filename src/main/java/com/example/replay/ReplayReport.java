@@ -0,0 +1,153 @@
+package com.example.replay;
+
+import com.example.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a replay: per endpoint the recorded and the replayed latency side by side,
+ * and how many replayed responses came back with another status than recorded
+ */
+public class ReplayReport {
+
+    private final double speed;
+    private final Map<String, EndpointStats> stats= new ConcurrentSkipListMap<>();
+    private volatile Duration elapsed= Duration.ZERO;
+    private volatile Duration recorded= Duration.ZERO;
+
+    ReplayReport(double speed){
+        this.speed= speed;
+    }
+
+    void record(CapturedExchange exchange, int status, long latencyNanos){
+        EndpointStats s= stats.computeIfAbsent(exchange.getMethod() + " " + exchange.getEndpoint(), key -> new EndpointStats());
+        s.recorded.recordValue(exchange.getLatencyMicros() * 1000);
+        s.replayed.recordValue(latencyNanos);
+        s.count.increment();
+        if(status == 0){
+            s.errors.increment();
+        }
+        if(status != exchange.getStatus()){
+            s.statusMismatches.increment();
+            s.mismatchedStatuses.computeIfAbsent(exchange.getStatus() + "->" + status, key -> new LongAdder()).increment();
+        }
+    }
+
+    void setElapsed(Duration elapsed, Duration recorded){
+        this.elapsed= elapsed;
+        this.recorded= recorded;
+    }
+
+    /**
+     * Replay speed relative to the capture, infinite for as fast as possible
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * How long the captured traffic took
+     */
+    public Duration getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Stats per "METHOD template"
+     */
+    public Map<String, EndpointStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public long getTotalReplayed(){
+        return stats.values().stream().mapToLong(EndpointStats::getCount).sum();
+    }
+
+    public long getTotalStatusMismatches(){
+        return stats.values().stream().mapToLong(EndpointStats::getStatusMismatches).sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb= new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-22s %7s %9s %7s %10s %10s %8s %10s %10s %8s%n",
+                "endpoint", "count", "mismatch", "errors", "rec p50", "rep p50", "diff", "rec p99", "rep p99", "diff"));
+        stats.forEach((endpoint, s) -> sb.append(String.format(Locale.ROOT, "%-22s %7d %9d %7d %10.2f %10.2f %+7.0f%% %10.2f %10.2f %+7.0f%%%n",
+                endpoint, s.getCount(), s.getStatusMismatches(), s.getErrors(),
+                millis(s.recorded.getValueAtPercentile(50)), millis(s.replayed.getValueAtPercentile(50)), s.getDifference(50) * 100,
+                millis(s.recorded.getValueAtPercentile(99)), millis(s.replayed.getValueAtPercentile(99)), s.getDifference(99) * 100)));
+        sb.append(String.format(Locale.ROOT, "replayed %d exchanges at %s in %.1f s, recorded in %.1f s, %d status mismatches (latency in ms)",
+                getTotalReplayed(), Double.isInfinite(speed) ? "max speed" : speed + "x", elapsed.toNanos() / 1e9,
+                recorded.toNanos() / 1e9, getTotalStatusMismatches()));
+        return sb.toString();
+    }
+
+    private static double millis(long nanos){
+        return nanos / 1e6;
+    }
+
+    /**
+     * Recorded and replayed latency of one endpoint. Replayed latency is measured from the moment the
+     * request was scheduled, so a client that falls behind the recorded pace shows up as latency
+     */
+    public static class EndpointStats {
+
+        private final LatencyHistogram recorded= new LatencyHistogram();
+        private final LatencyHistogram replayed= new LatencyHistogram();
+        private final LongAdder count= new LongAdder();
+        private final LongAdder errors= new LongAdder();
+        private final LongAdder statusMismatches= new LongAdder();
+        private final Map<String, LongAdder> mismatchedStatuses= new ConcurrentHashMap<>();
+
+        public LatencyHistogram getRecorded() {
+            return recorded;
+        }
+
+        public LatencyHistogram getReplayed() {
+            return replayed;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Replayed requests without a response
+         */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getStatusMismatches() {
+            return statusMismatches.sum();
+        }
+
+        /**
+         * Count per "recorded->replayed" status pair that differed
+         */
+        public Map<String, Long> getMismatchedStatuses(){
+            Map<String, Long> counts= new ConcurrentSkipListMap<>();
+            mismatchedStatuses.forEach((pair, adder) -> counts.put(pair, adder.sum()));
+            return counts;
+        }
+
+        /**
+         * Relative change of the replayed percentile over the recorded one, 0.25 is 25% slower
+         */
+        public double getDifference(double percentile){
+            long before= recorded.getValueAtPercentile(percentile);
+            long after= replayed.getValueAtPercentile(percentile);
+            return before == 0 ? 0 : (double) (after - before) / before;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.resilience;
+
+/**
+ * Consecutive failure breaker of one endpoint. Closed it lets every call through; after {@code failureThreshold}
+ * failures in a row it opens and rejects calls for {@code openNanos}; then a single probe call is let through
+ * (half open) whose outcome closes or reopens it
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state= State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int failureThreshold, long openNanos){
+        this.failureThreshold= failureThreshold;
+        this.openNanos= openNanos;
+    }
+
+    synchronized boolean tryAcquire(){
+        if(failureThreshold <= 0 || state == State.CLOSED){
+            return true;
+        }
+        if(state == State.OPEN && System.nanoTime() - openedAt >= openNanos){
+            state= State.HALF_OPEN;
+        }
+        if(state == State.HALF_OPEN && !probeInFlight){
+            probeInFlight= true;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void onSuccess(){
+        consecutiveFailures= 0;
+        probeInFlight= false;
+        state= State.CLOSED;
+    }
+
+    synchronized void onFailure(){
+        probeInFlight= false;
+        consecutiveFailures++;
+        if(failureThreshold > 0 && (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold)){
+            state= State.OPEN;
+            openedAt= System.nanoTime();
+        }
+    }
+
+    synchronized State getState(){
+        return state;
+    }
+
+    /**
+     * Time left before the next probe is let through
+     */
+    synchronized long remainingOpenNanos(){
+        return state == State.OPEN ? Math.max(0, openNanos - (System.nanoTime() - openedAt)) : 0;
+    }
+}
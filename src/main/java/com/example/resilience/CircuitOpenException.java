@@ -0,0 +1,16 @@
+package com.example.resilience;
+
+import com.example.load.PersonOperation;
+
+/**
+ * Thrown instead of sending a request while the circuit of its endpoint is open
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID= 1L;
+
+    public CircuitOpenException(PersonOperation operation, long retryInMillis){
+        super("Circuit open for " + operation.getMethod() + " " + operation.getEndpoint()
+                + " after repeated failures, next probe in " + retryInMillis + " ms");
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.resilience;
+
+import com.example.load.PersonOperation;
+import com.example.utils.ConfigManager;
+import com.example.utils.ConfigSnapshot;
+
+import java.time.Duration;
+
+/**
+ * Retry, hedging and circuit breaking settings of one Person operation. Use {@link #builder()} or
+ * {@link #fromConfig(PersonOperation)}, where resilience.OPERATION.key overrides resilience.key
+ */
+public class ResiliencePolicy {
+
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration retryAfterMax;
+    private final double hedgePercentile;
+    private final Duration hedgeMinDelay;
+    private final int hedgeMinSamples;
+    private final int breakerFailures;
+    private final Duration breakerOpen;
+
+    private ResiliencePolicy(Builder builder){
+        this.maxAttempts= builder.maxAttempts;
+        this.backoffBase= builder.backoffBase;
+        this.backoffMax= builder.backoffMax;
+        this.retryAfterMax= builder.retryAfterMax;
+        this.hedgePercentile= builder.hedgePercentile;
+        this.hedgeMinDelay= builder.hedgeMinDelay;
+        this.hedgeMinSamples= builder.hedgeMinSamples;
+        this.breakerFailures= builder.breakerFailures;
+        this.breakerOpen= builder.breakerOpen;
+    }
+
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    /**
+     * Reads are retried and hedged by default, writes are neither: a retried POST may create twice.
+     * resilience.max_attempts only changes the reads, a write needs e.g. resilience.CREATE_PERSON.max_attempts
+     */
+    public static ResiliencePolicy fromConfig(PersonOperation operation){
+        ConfigSnapshot config= ConfigManager.getInstance().snapshot();
+        boolean read= operation.getMethod().equals("GET");
+        String prefix= "resilience." + operation.name() + ".";
+        Builder builder= builder()
+                //the global key only applies to reads, a write retries only when its own key asks for it
+                .maxAttempts(config.getInt(prefix + "max_attempts", read ? config.getInt("resilience.max_attempts", 3) : 1))
+                .backoff(config.getDuration(prefix + "backoff_base", config.getDuration("resilience.backoff_base", Duration.ofMillis(100))),
+                        config.getDuration(prefix + "backoff_max", config.getDuration("resilience.backoff_max", Duration.ofSeconds(5))))
+                .retryAfterMax(config.getDuration(prefix + "retry_after_max", config.getDuration("resilience.retry_after_max", Duration.ofSeconds(30))))
+                .breaker(config.getInt(prefix + "breaker_failures", config.getInt("resilience.breaker_failures", 5)),
+                        config.getDuration(prefix + "breaker_open", config.getDuration("resilience.breaker_open", Duration.ofSeconds(10))));
+        if(read){
+            builder.hedge(config.getDouble(prefix + "hedge_percentile", config.getDouble("resilience.hedge_percentile", 95)),
+                    config.getDuration(prefix + "hedge_min_delay", config.getDuration("resilience.hedge_min_delay", Duration.ofMillis(10))),
+                    config.getInt(prefix + "hedge_min_samples", config.getInt("resilience.hedge_min_samples", 20)));
+        }
+        return builder.build();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration getBackoffBase() {
+        return backoffBase;
+    }
+
+    public Duration getBackoffMax() {
+        return backoffMax;
+    }
+
+    /**
+     * Longest Retry-After wait honored, a longer one ends the retries
+     */
+    public Duration getRetryAfterMax() {
+        return retryAfterMax;
+    }
+
+    /**
+     * Latency percentile of the earlier successful calls after which a second request is sent, 0 when not hedged
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public Duration getHedgeMinDelay() {
+        return hedgeMinDelay;
+    }
+
+    public int getHedgeMinSamples() {
+        return hedgeMinSamples;
+    }
+
+    public boolean isHedged(){
+        return hedgePercentile > 0;
+    }
+
+    /**
+     * Consecutive failures that open the circuit, 0 disables the breaker
+     */
+    public int getBreakerFailures() {
+        return breakerFailures;
+    }
+
+    public Duration getBreakerOpen() {
+        return breakerOpen;
+    }
+
+    public static class Builder {
+
+        private int maxAttempts= 1;
+        private Duration backoffBase= Duration.ofMillis(100);
+        private Duration backoffMax= Duration.ofSeconds(5);
+        private Duration retryAfterMax= Duration.ofSeconds(30);
+        private double hedgePercentile;
+        private Duration hedgeMinDelay= Duration.ofMillis(10);
+        private int hedgeMinSamples= 20;
+        private int breakerFailures;
+        private Duration breakerOpen= Duration.ofSeconds(10);
+
+        /**
+         * Attempts in total, 1 for no retry
+         */
+        public Builder maxAttempts(int maxAttempts){
+            if(maxAttempts < 1){
+                throw new IllegalArgumentException("At least one attempt is needed: " + maxAttempts);
+            }
+            this.maxAttempts= maxAttempts;
+            return this;
+        }
+
+        /**
+         * Exponential backoff with full jitter: before retry n wait a random time up to min(max, base * 2^(n-1))
+         */
+        public Builder backoff(Duration base, Duration max){
+            this.backoffBase= base;
+            this.backoffMax= max;
+            return this;
+        }
+
+        public Builder retryAfterMax(Duration retryAfterMax){
+            this.retryAfterMax= retryAfterMax;
+            return this;
+        }
+
+        /**
+         * Hedge once {@code minSamples} successful calls are known, after their {@code percentile} latency
+         * but never sooner than {@code minDelay}
+         */
+        public Builder hedge(double percentile, Duration minDelay, int minSamples){
+            if(percentile < 0 || percentile >= 100){
+                throw new IllegalArgumentException("Hedge percentile must be between 0 and 100: " + percentile);
+            }
+            this.hedgePercentile= percentile;
+            this.hedgeMinDelay= minDelay;
+            this.hedgeMinSamples= minSamples;
+            return this;
+        }
+
+        public Builder breaker(int failures, Duration open){
+            this.breakerFailures= failures;
+            this.breakerOpen= open;
+            return this;
+        }
+
+        public ResiliencePolicy build(){
+            return new ResiliencePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.resilience;
+
+import com.example.load.PersonOperation;
+import com.example.metrics.LatencyHistogram;
+import com.example.utils.ConfigManager;
+import io.restassured.response.Response;
+import org.apache.http.NoHttpResponseException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the requests of a helper under the {@link ResiliencePolicy} of their operation:
+ * <ul>
+ *     <li>circuit breaking per endpoint, failing fast with {@link CircuitOpenException} while the target is down</li>
+ *     <li>retries of transient failures (connection errors and timeouts, 429, 502, 503, 504) with jittered exponential backoff,
+ *     waiting at least the Retry-After of a 429 or 503</li>
+ *     <li>hedging of reads: when an attempt is slower than the configured percentile of the earlier ones a second
+ *     identical request is sent and the first response wins</li>
+ * </ul>
+ * The response finally returned is handed back as is, the helper assertions still judge it.
+ * Hedged attempts run on a pool of their own, so their exchanges land in that pool's failure log buffers
+ */
+public class ResilientCaller {
+
+    private static final Map<String, ResilientCaller> BY_TARGET= new ConcurrentHashMap<>();
+    private static final ExecutorService HEDGE_POOL= Executors.newCachedThreadPool(runnable -> {
+        Thread thread= new Thread(runnable, "resilience-hedge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<PersonOperation, ResiliencePolicy> policies= new EnumMap<>(PersonOperation.class);
+    private final Map<PersonOperation, CircuitBreaker> breakers= new EnumMap<>(PersonOperation.class);
+    private final Map<PersonOperation, LatencyHistogram> latencies= new EnumMap<>(PersonOperation.class);
+    private final LongAdder retries= new LongAdder();
+    private final LongAdder hedges= new LongAdder();
+    private final LongAdder rejected= new LongAdder();
+
+    public ResilientCaller(Function<PersonOperation, ResiliencePolicy> policies){
+        for(PersonOperation operation : PersonOperation.values()){
+            ResiliencePolicy policy= policies.apply(operation);
+            this.policies.put(operation, policy);
+            this.breakers.put(operation, new CircuitBreaker(policy.getBreakerFailures(), policy.getBreakerOpen().toNanos()));
+            this.latencies.put(operation, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Caller of the target from the resilience.* keys of config.properties, shared by every helper of that target
+     * so they see the same circuits. Null unless resilience.enabled is true
+     */
+    public static ResilientCaller forTarget(String baseUri){
+        if(!ConfigManager.getInstance().getBoolean("resilience.enabled", false)){
+            return null;
+        }
+        return BY_TARGET.computeIfAbsent(baseUri, target -> new ResilientCaller(ResiliencePolicy::fromConfig));
+    }
+
+    public Response call(PersonOperation operation, Supplier<Response> request){
+        ResiliencePolicy policy= policies.get(operation);
+        CircuitBreaker breaker= breakers.get(operation);
+        for(int attempt=1; ; attempt++){
+            if(!breaker.tryAcquire()){
+                rejected.increment();
+                throw new CircuitOpenException(operation, TimeUnit.NANOSECONDS.toMillis(breaker.remainingOpenNanos()));
+            }
+            Response response;
+            try {
+                response= policy.isHedged() ? hedged(operation, policy, request) : timed(operation, request);
+            } catch (Exception e) {
+                //RestAssured throws the IOExceptions of the Apache client undeclared, hence Exception
+                breaker.onFailure();
+                if(attempt >= policy.getMaxAttempts() || !isConnectionFailure(e)){
+                    throw e;
+                }
+                backoff(policy, attempt, null);
+                continue;
+            }
+            if(!isTransient(response.getStatusCode())){
+                breaker.onSuccess();
+                return response;
+            }
+            breaker.onFailure();
+            if(attempt >= policy.getMaxAttempts() || !backoff(policy, attempt, response)){
+                return response;
+            }
+            discard(response);
+        }
+    }
+
+    /**
+     * Retries sent after a transient failure
+     */
+    public long getRetryCount(){
+        return retries.sum();
+    }
+
+    /**
+     * Second requests sent because the first one was slow
+     */
+    public long getHedgeCount(){
+        return hedges.sum();
+    }
+
+    /**
+     * Calls refused by an open circuit
+     */
+    public long getRejectedCount(){
+        return rejected.sum();
+    }
+
+    private Response timed(PersonOperation operation, Supplier<Response> request){
+        long start= System.nanoTime();
+        Response response= request.get();
+        if(!isTransient(response.getStatusCode())){
+            latencies.get(operation).recordValue(System.nanoTime() - start);
+        }
+        return response;
+    }
+
+    private Response hedged(PersonOperation operation, ResiliencePolicy policy, Supplier<Response> request){
+        LatencyHistogram latency= latencies.get(operation);
+        if(latency.getCount() < policy.getHedgeMinSamples()){
+            return timed(operation, request);
+        }
+        long delay= Math.max(policy.getHedgeMinDelay().toNanos(), latency.getValueAtPercentile(policy.getHedgePercentile()));
+        CompletableFuture<Response> first= CompletableFuture.supplyAsync(() -> timed(operation, request), HEDGE_POOL);
+        try {
+            return first.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            hedges.increment();
+            CompletableFuture<Response> second= CompletableFuture.supplyAsync(() -> timed(operation, request), HEDGE_POOL);
+            return await(firstSuccessful(first, second));
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + operation, e);
+        }
+    }
+
+    /**
+     * The first response of the two, a failed attempt only counts once the other one failed too
+     */
+    private static CompletableFuture<Response> firstSuccessful(CompletableFuture<Response> first, CompletableFuture<Response> second){
+        CompletableFuture<Response> winner= new CompletableFuture<>();
+        AtomicInteger failed= new AtomicInteger();
+        for(CompletableFuture<Response> attempt : List.of(first, second)){
+            attempt.whenComplete((response, error) -> {
+                if(error == null){
+                    if(!winner.complete(response)){
+                        discard(response);
+                    }
+                } else if(failed.incrementAndGet() == 2){
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    /**
+     * Close the body of a response that is not returned, which hands the connection of a streamed one back
+     */
+    private static void discard(Response response){
+        try {
+            response.asInputStream().close();
+        } catch (IOException | RuntimeException e) {
+            //the connection is dropped instead
+        }
+    }
+
+    private static Response await(CompletableFuture<Response> future){
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Whether the call failed to reach the service or to get its answer in time, anywhere in the cause chain:
+     * connect errors and resets, Apache and JDK client timeouts, a connection closed without a response.
+     * Anything else, such as a mapping error, is not worth another attempt
+     */
+    static boolean isConnectionFailure(Throwable error){
+        for(Throwable cause= error; cause != null; cause= cause.getCause() == cause ? null : cause.getCause()){
+            if(cause instanceof SocketException || cause instanceof InterruptedIOException
+                    || cause instanceof HttpTimeoutException || cause instanceof NoHttpResponseException){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static RuntimeException unwrap(Throwable cause){
+        if(cause instanceof CompletionException && cause.getCause() != null){
+            cause= cause.getCause();
+        }
+        if(cause instanceof RuntimeException){
+            return (RuntimeException) cause;
+        }
+        if(cause instanceof Error){
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * Sleep before the next attempt, false when the server asks for a longer wait than allowed
+     */
+    private boolean backoff(ResiliencePolicy policy, int attempt, Response response){
+        long ceiling= Math.min(policy.getBackoffMax().toNanos(), policy.getBackoffBase().toNanos() << Math.min(attempt - 1, 30));
+        long wait= ThreadLocalRandom.current().nextLong(Math.max(ceiling, 0) + 1);
+        if(response != null && (response.getStatusCode() == 429 || response.getStatusCode() == 503)){
+            Duration retryAfter= retryAfter(response.getHeader("Retry-After"));
+            if(retryAfter != null){
+                if(retryAfter.compareTo(policy.getRetryAfterMax()) > 0){
+                    return false;
+                }
+                wait= Math.max(wait, retryAfter.toNanos());
+            }
+        }
+        retries.increment();
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during retry backoff", e);
+        }
+        return true;
+    }
+
+    /**
+     * Retry-After as delay seconds or as an HTTP date
+     */
+    static Duration retryAfter(String header){
+        if(header == null || header.isBlank()){
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(header.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration wait= Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return wait.isNegative() ? Duration.ZERO : wait;
+            } catch (DateTimeParseException invalid) {
+                return null;
+            }
+        }
+    }
+
+    static boolean isTransient(int status){
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.scenario;
+
+import com.example.utils.JsonPathExtractor;
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable, ordered list of named steps making up a workflow, e.g. create, verify, update, delete.
+ * Instances of it are run, alone or by the hundreds, with {@link ScenarioRunner}
+ */
+public class Scenario {
+
+    private final String name;
+    private final List<Step> steps;
+
+    private Scenario(Builder builder){
+        this.name= builder.name;
+        this.steps= Collections.unmodifiableList(new ArrayList<>(builder.steps));
+    }
+
+    public static Builder builder(String name){
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public static final class Step {
+
+        private final String name;
+        private final ScenarioAction action;
+
+        private Step(String name, ScenarioAction action){
+            this.name= name;
+            this.action= action;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ScenarioAction getAction() {
+            return action;
+        }
+    }
+
+    public static class Builder {
+
+        private final String name;
+        private final List<Step> steps= new ArrayList<>();
+        private final Set<String> stepNames= new LinkedHashSet<>();
+
+        private Builder(String name){
+            this.name= name;
+        }
+
+        public Builder step(String name, ScenarioAction action){
+            if(!stepNames.add(name)){
+                throw new IllegalArgumentException("Duplicate step name: " + name);
+            }
+            steps.add(new Step(name, action));
+            return this;
+        }
+
+        /**
+         * Step sending a request and storing one field of the response body under {@code variable},
+         * for the following steps to read from the context
+         */
+        public Builder step(String name, Function<ScenarioContext, Response> request, String variable, JsonPathExtractor extract){
+            return step(name, context -> context.put(variable, extract.getString(request.apply(context))));
+        }
+
+        public Scenario build(){
+            if(steps.isEmpty()){
+                throw new IllegalStateException("Scenario " + name + " has no steps");
+            }
+            return new Scenario(this);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.scenario;
+
+/**
+ * What a step does: send its request through a helper, assert on the outcome and store in the context
+ * whatever the following steps need. Throwing, assertion errors included, fails the step
+ */
+@FunctionalInterface
+public interface ScenarioAction {
+
+    void run(ScenarioContext context) throws Exception;
+}
@@ -0,0 +1,52 @@
+package com.example.scenario;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Values passed from step to step within one scenario instance, such as the id returned by a create.
+ * Each instance owns its context and runs its steps on a single thread, so it is not synchronized
+ */
+public class ScenarioContext {
+
+    private final int instance;
+    private final Map<String, Object> values= new HashMap<>();
+
+    ScenarioContext(int instance){
+        this.instance= instance;
+    }
+
+    /**
+     * 0 based number of this instance within the run, handy to derive unique test data
+     */
+    public int getInstance() {
+        return instance;
+    }
+
+    public ScenarioContext put(String name, Object value){
+        values.put(name, value);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name){
+        if(!values.containsKey(name)){
+            throw new IllegalStateException("No value '" + name + "' in the scenario context, set by an earlier step?");
+        }
+        return (T) values.get(name);
+    }
+
+    public String getString(String name){
+        Object value= get(name);
+        return value == null ? null : value.toString();
+    }
+
+    public int getInt(String name){
+        Object value= get(name);
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(String.valueOf(value));
+    }
+
+    public boolean has(String name){
+        return values.containsKey(name);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.scenario;
+
+import com.example.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a scenario run: per step latency histogram with success, failure and skip counts,
+ * end to end latency of the instances and the first failures with their cause
+ */
+public class ScenarioReport {
+
+    private static final int MAX_FAILURES_KEPT= 20;
+
+    private final String scenario;
+    private final Map<String, StepStats> steps= new LinkedHashMap<>();
+    private final StepStats instances= new StepStats();
+    private final List<String> failures= Collections.synchronizedList(new ArrayList<>());
+    private volatile long elapsedNanos;
+
+    ScenarioReport(Scenario scenario){
+        this.scenario= scenario.getName();
+        for(Scenario.Step step : scenario.getSteps()){
+            steps.put(step.getName(), new StepStats());
+        }
+    }
+
+    void recordSuccess(Scenario.Step step, long latencyNanos){
+        steps.get(step.getName()).recordSuccess(latencyNanos);
+    }
+
+    void recordFailure(Scenario.Step step, long latencyNanos, int instance, Throwable cause){
+        steps.get(step.getName()).recordFailure(latencyNanos);
+        if(failures.size() < MAX_FAILURES_KEPT){
+            failures.add("instance " + instance + ", step " + step.getName() + ": " + cause);
+        }
+    }
+
+    void recordSkipped(Scenario.Step step){
+        steps.get(step.getName()).skipped.increment();
+    }
+
+    void recordInstance(boolean passed, long latencyNanos){
+        if(passed){
+            instances.recordSuccess(latencyNanos);
+        } else {
+            instances.recordFailure(latencyNanos);
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos){
+        this.elapsedNanos= elapsedNanos;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public Map<String, StepStats> getSteps() {
+        return Collections.unmodifiableMap(steps);
+    }
+
+    /**
+     * End to end figures of the instances, a failed instance counts as one failure
+     */
+    public StepStats getInstances() {
+        return instances;
+    }
+
+    /**
+     * First failures of the run, at most 20
+     */
+    public List<String> getFailures() {
+        synchronized (failures){
+            return new ArrayList<>(failures);
+        }
+    }
+
+    public boolean isPassed(){
+        return instances.getFailed() == 0;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb= new StringBuilder();
+        sb.append(String.format("scenario %s%n", scenario));
+        sb.append(String.format("%-20s %8s %8s %8s %10s %10s %10s %10s %10s%n",
+                "step", "passed", "failed", "skipped", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        steps.forEach((name, s) -> row(sb, name, s));
+        row(sb, "(instance)", instances);
+        double seconds= elapsedNanos / 1e9;
+        long completed= instances.getPassed() + instances.getFailed();
+        sb.append(String.format("%d instances, %d failed in %.1f s (%.1f instances/s)",
+                completed, instances.getFailed(), seconds, seconds == 0 ? 0 : completed / seconds));
+        for(String failure : getFailures()){
+            sb.append(System.lineSeparator()).append("  ").append(failure);
+        }
+        return sb.toString();
+    }
+
+    private static void row(StringBuilder sb, String name, StepStats s){
+        LatencyHistogram h= s.getLatency();
+        sb.append(String.format("%-20s %8d %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                name, s.getPassed(), s.getFailed(), s.getSkipped(), h.getMeanNanos() / 1e6,
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                millis(h.getValueAtPercentile(99)), millis(h.getMaxNanos())));
+    }
+
+    private static double millis(long nanos){
+        return nanos / 1e6;
+    }
+
+    /**
+     * Counters for one step, failed steps are timed as well
+     */
+    public static class StepStats {
+
+        private final LatencyHistogram latency= new LatencyHistogram();
+        private final LongAdder passed= new LongAdder();
+        private final LongAdder failed= new LongAdder();
+        private final LongAdder skipped= new LongAdder();
+
+        void recordSuccess(long latencyNanos){
+            latency.recordValue(latencyNanos);
+            passed.increment();
+        }
+
+        void recordFailure(long latencyNanos){
+            latency.recordValue(latencyNanos);
+            failed.increment();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getPassed() {
+            return passed.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        /**
+         * Not run because an earlier step of the instance failed
+         */
+        public long getSkipped() {
+            return skipped.sum();
+        }
+    }
+}
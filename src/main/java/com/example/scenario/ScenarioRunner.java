@@ -0,0 +1,89 @@
+package com.example.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent instances of a scenario, each one step after the other on its own context, with up to
+ * {@code concurrency} instances in progress at any time. Every step is timed into a per step histogram;
+ * a failing step ends its instance and the remaining steps of that instance are counted as skipped
+ */
+public class ScenarioRunner {
+
+    private final int concurrency;
+
+    public ScenarioRunner(int concurrency){
+        if(concurrency < 1){
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.concurrency= concurrency;
+    }
+
+    /**
+     * Run a single instance, the functional check of a scenario
+     */
+    public ScenarioReport runOnce(Scenario scenario){
+        return run(scenario, 1);
+    }
+
+    public ScenarioReport run(Scenario scenario, int instances){
+        ScenarioReport report= new ScenarioReport(scenario);
+        ExecutorService executor= Executors.newFixedThreadPool(Math.min(concurrency, Math.max(1, instances)), daemon(scenario.getName()));
+        long start= System.nanoTime();
+        try {
+            List<Future<?>> futures= new ArrayList<>(instances);
+            for(int instance=0; instance<instances; instance++){
+                int index= instance;
+                futures.add(executor.submit(() -> runInstance(scenario, new ScenarioContext(index), report)));
+            }
+            for(Future<?> future : futures){
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running scenario " + scenario.getName(), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scenario runner failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    private static void runInstance(Scenario scenario, ScenarioContext context, ScenarioReport report){
+        long instanceStart= System.nanoTime();
+        List<Scenario.Step> steps= scenario.getSteps();
+        for(int i=0; i<steps.size(); i++){
+            Scenario.Step step= steps.get(i);
+            long start= System.nanoTime();
+            try {
+                step.getAction().run(context);
+                report.recordSuccess(step, System.nanoTime() - start);
+            } catch (Exception | AssertionError e) {
+                report.recordFailure(step, System.nanoTime() - start, context.getInstance(), e);
+                for(int skipped=i+1; skipped<steps.size(); skipped++){
+                    report.recordSkipped(steps.get(skipped));
+                }
+                report.recordInstance(false, System.nanoTime() - instanceStart);
+                return;
+            }
+        }
+        report.recordInstance(true, System.nanoTime() - instanceStart);
+    }
+
+    private static ThreadFactory daemon(String name){
+        AtomicInteger count= new AtomicInteger();
+        return runnable -> {
+            Thread thread= new Thread(runnable, "scenario-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
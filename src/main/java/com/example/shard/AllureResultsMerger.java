@@ -0,0 +1,64 @@
+package com.example.shard;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Combines the Allure results directories of the shards into one, for a single report of the whole run.
+ * Result, container and attachment files are named by UUID and never clash; for the shared files such as
+ * environment.properties or executor.json the first shard's copy is kept.
+ * Usage: java -cp ... com.example.shard.AllureResultsMerger allure-results shard-0/allure-results shard-1/allure-results ...
+ */
+public final class AllureResultsMerger {
+
+    private AllureResultsMerger(){
+    }
+
+    public static void main(String[] args){
+        if(args.length < 2){
+            System.err.println("Usage: AllureResultsMerger <target directory> <shard results directory>...");
+            System.exit(2);
+        }
+        List<Path> sources= new ArrayList<>();
+        for(int i=1; i<args.length; i++){
+            sources.add(Paths.get(args[i]));
+        }
+        int copied= merge(Paths.get(args[0]), sources);
+        System.out.println("Merged " + copied + " files from " + sources.size() + " shards into " + args[0]);
+    }
+
+    /**
+     * @return number of files copied into the target
+     */
+    public static int merge(Path target, List<Path> sources){
+        int copied= 0;
+        try {
+            Files.createDirectories(target);
+            for(Path source : sources){
+                if(!Files.isDirectory(source) || Files.isSameFile(source, target)){
+                    continue;
+                }
+                try (DirectoryStream<Path> files= Files.newDirectoryStream(source, Files::isRegularFile)) {
+                    for(Path file : files){
+                        try {
+                            Files.copy(file, target.resolve(file.getFileName().toString()));
+                            copied++;
+                        } catch (FileAlreadyExistsException e) {
+                            //shared file already taken from an earlier shard
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to merge Allure results into " + target, e);
+        }
+        return copied;
+    }
+}
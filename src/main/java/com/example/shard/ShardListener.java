@@ -0,0 +1,92 @@
+package com.example.shard;
+
+import com.example.utils.ConfigManager;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Runs only this JVM's share of the test classes when shard.count is above 1. Every shard plans the split on
+ * its own from the same class list and the durations measured by earlier runs ({@link TestDurations}), with
+ * {@link ShardPlanner}, and keeps the classes planned for shard.index (0 based). Classes are never split,
+ * so their @BeforeClass state stays in one JVM. Each run records how long its classes took for the next plan.
+ * Give each shard its own -Dallure.results.directory and combine them with {@link AllureResultsMerger}
+ */
+public class ShardListener implements IMethodInterceptor, IInvokedMethodListener, ISuiteListener {
+
+    //first start and last end in ms of the methods run per class
+    private final ConcurrentMap<String, long[]> spans= new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ConfigManager config= ConfigManager.getInstance();
+        int count= config.getInt("shard.count", 1);
+        if(count <= 1){
+            return methods;
+        }
+        int index= config.getInt("shard.index", 0);
+        if(index < 0 || index >= count){
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (count - 1) + ": " + index);
+        }
+        Set<String> classes= new LinkedHashSet<>();
+        for(IMethodInstance method : methods){
+            classes.add(method.getMethod().getRealClass().getName());
+        }
+        Map<String, Long> durations= durations().read();
+        long defaultMillis= config.getDuration("shard.default_duration", Duration.ofSeconds(5)).toMillis();
+        Map<String, Integer> plan= new ShardPlanner(count).plan(classes, durations, defaultMillis);
+
+        List<IMethodInstance> kept= new ArrayList<>();
+        for(IMethodInstance method : methods){
+            if(plan.get(method.getMethod().getRealClass().getName()) == index){
+                kept.add(method);
+            }
+        }
+        long expected= plan.entrySet().stream().filter(e -> e.getValue() == index)
+                .mapToLong(e -> durations.getOrDefault(e.getKey(), defaultMillis)).sum();
+        System.out.printf("Shard %d/%d of %s: %d of %d methods, about %.1f s expected%n",
+                index + 1, count, context.getName(), kept.size(), methods.size(), expected / 1000.0);
+        return kept;
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        long start= testResult.getStartMillis();
+        long end= testResult.getEndMillis();
+        spans.merge(testResult.getTestClass().getName(), new long[]{start, end},
+                (span, next) -> new long[]{Math.min(span[0], next[0]), Math.max(span[1], next[1])});
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if(spans.isEmpty() || !ConfigManager.getInstance().getBoolean("shard.record", true)){
+            return;
+        }
+        Map<String, Long> measured= new TreeMap<>();
+        spans.forEach((name, span) -> measured.put(name, Math.max(1, span[1] - span[0])));
+        durations().update(measured);
+        spans.clear();
+    }
+
+    private static TestDurations durations(){
+        Path file= Paths.get(ConfigManager.getInstance().getString("shard.durations_file", "perf-history/test-durations.properties"));
+        return new TestDurations(file);
+    }
+}
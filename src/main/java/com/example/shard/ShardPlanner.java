@@ -0,0 +1,50 @@
+package com.example.shard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Splits test classes into shards of about the same expected duration with greedy bin-packing: the longest
+ * class first, each one onto the shard with the least work so far (ties to the lowest shard, then by name).
+ * The plan only depends on the class names and the durations, so every shard computes the same one on its own
+ */
+public class ShardPlanner {
+
+    private final int shardCount;
+
+    public ShardPlanner(int shardCount){
+        if(shardCount < 1){
+            throw new IllegalArgumentException("Shard count must be at least 1: " + shardCount);
+        }
+        this.shardCount= shardCount;
+    }
+
+    /**
+     * @param classes test class names
+     * @param durations known duration in ms per class name, missing classes are expected to take {@code defaultMillis}
+     * @return the shard index of every class
+     */
+    public Map<String, Integer> plan(Collection<String> classes, Map<String, Long> durations, long defaultMillis){
+        List<String> ordered= new ArrayList<>(new TreeSet<>(classes));
+        ordered.sort(Comparator.comparingLong((String name) -> durations.getOrDefault(name, defaultMillis)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        long[] load= new long[shardCount];
+        Map<String, Integer> plan= new HashMap<>();
+        for(String name : ordered){
+            int lightest= 0;
+            for(int shard=1; shard<shardCount; shard++){
+                if(load[shard] < load[lightest]){
+                    lightest= shard;
+                }
+            }
+            load[lightest]+= durations.getOrDefault(name, defaultMillis);
+            plan.put(name, lightest);
+        }
+        return plan;
+    }
+}
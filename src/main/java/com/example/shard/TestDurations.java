@@ -0,0 +1,92 @@
+package com.example.shard;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Last measured duration in ms of every test class, kept as a properties file next to the run history so
+ * CI can cache it and hand the same copy to every shard. Updates take a file lock, shards on one machine
+ * can share the file
+ */
+public class TestDurations {
+
+    private final Path file;
+
+    public TestDurations(Path file){
+        this.file= file;
+    }
+
+    public Map<String, Long> read(){
+        try {
+            return parse(Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            return new TreeMap<>();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read test durations from " + file, e);
+        }
+    }
+
+    /**
+     * Merge freshly measured durations into the file, classes not measured this time keep their old value
+     */
+    public void update(Map<String, Long> measured){
+        try {
+            if(file.getParent() != null){
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel= FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock= channel.lock();
+                try {
+                    ByteBuffer existing= ByteBuffer.allocate((int) channel.size());
+                    while(existing.hasRemaining() && channel.read(existing) >= 0){
+                        //read until the buffer is full
+                    }
+                    Map<String, Long> durations= parse(existing.array());
+                    durations.putAll(measured);
+                    ByteBuffer content= ByteBuffer.wrap(format(durations));
+                    channel.truncate(0);
+                    channel.position(0);
+                    while(content.hasRemaining()){
+                        channel.write(content);
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write test durations to " + file, e);
+        }
+    }
+
+    private static Map<String, Long> parse(byte[] content) throws IOException {
+        Properties properties= new Properties();
+        properties.load(new ByteArrayInputStream(content));
+        Map<String, Long> durations= new TreeMap<>();
+        for(String name : properties.stringPropertyNames()){
+            try {
+                durations.put(name, Long.parseLong(properties.getProperty(name).trim()));
+            } catch (NumberFormatException e) {
+                //hand edited entry, ignore it
+            }
+        }
+        return durations;
+    }
+
+    private static byte[] format(Map<String, Long> durations){
+        StringBuilder sb= new StringBuilder("# Duration in ms of each test class, used to balance shards\n");
+        durations.forEach((name, millis) -> sb.append(name).append('=').append(millis).append('\n'));
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
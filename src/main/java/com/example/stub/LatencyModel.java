@@ -0,0 +1,48 @@
+package com.example.stub;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution the stub draws its artificial server time from
+ */
+@FunctionalInterface
+public interface LatencyModel {
+
+    /**
+     * 2.326 is the z-score of the 99th percentile of a standard normal distribution
+     */
+    double Z_99= 2.326;
+
+    long sampleNanos(ThreadLocalRandom random);
+
+    static LatencyModel none(){
+        return random -> 0;
+    }
+
+    static LatencyModel fixed(Duration latency){
+        long nanos= latency.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyModel uniform(Duration min, Duration max){
+        long low= min.toNanos();
+        long high= max.toNanos();
+        if(high < low){
+            throw new IllegalArgumentException("max " + max + " is below min " + min);
+        }
+        return random -> low == high ? low : random.nextLong(low, high + 1);
+    }
+
+    /**
+     * Long tailed distribution, the usual shape of real service latency, given by its median and 99th percentile
+     */
+    static LatencyModel logNormal(Duration median, Duration p99){
+        if(p99.compareTo(median) < 0){
+            throw new IllegalArgumentException("p99 " + p99 + " is below the median " + median);
+        }
+        double mu= Math.log(median.toNanos());
+        double sigma= Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+}
@@ -0,0 +1,408 @@
+package com.example.stub;
+
+import com.example.constants.Endpoints;
+import com.example.load.PersonOperation;
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory stand-in for the persons service serving every route of {@link Endpoints} from inside the test JVM.
+ * Persons live in a concurrent sorted map. Artificial latency is applied by delaying the response on a scheduler,
+ * so no thread sleeps and thousands of slow requests can be pending at once. Every response carries a
+ * Server-Timing header with the injected delay plus handling time, so client side overhead can be told apart
+ * from server time. GET responses carry a strong ETag and answer 304 Not Modified to a matching If-None-Match.
+ * Optionally it serves HTTPS and gzips bodies for clients that accept it, like the real service behind a proxy.
+ * Use {@link #builder()} to create one and {@link #close()} to stop it
+ */
+public class PersonServiceStub implements AutoCloseable {
+
+    static {
+        //the JDK server writes headers and body separately, with Nagle on every response then waits ~40 ms for a delayed ACK
+        if(System.getProperty("sun.net.httpserver.nodelay") == null){
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ConcurrentNavigableMap<Integer, Person> persons= new ConcurrentSkipListMap<>();
+    private final AtomicInteger lastId= new AtomicInteger();
+    private final LatencyModel defaultLatency;
+    private final Map<PersonOperation, LatencyModel> latencies;
+    private final double errorRate;
+    private final int errorStatus;
+    private final boolean gzip;
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService responder;
+
+    private PersonServiceStub(Builder builder) throws IOException {
+        this.defaultLatency= builder.defaultLatency;
+        this.latencies= new EnumMap<>(builder.latencies);
+        this.errorRate= builder.errorRate;
+        this.errorStatus= builder.errorStatus;
+        this.gzip= builder.gzip;
+        for(int id=1; id<=builder.seedCount; id++){
+            persons.put(id, seedPerson(id));
+        }
+        lastId.set(builder.seedCount);
+
+        InetSocketAddress address= new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port);
+        if(builder.sslContext == null){
+            this.server= HttpServer.create(address, builder.backlog);
+        } else {
+            HttpsServer https= HttpsServer.create(address, builder.backlog);
+            https.setHttpsConfigurator(new HttpsConfigurator(builder.sslContext));
+            this.server= https;
+        }
+        this.handlers= Executors.newFixedThreadPool(builder.threads, daemon("person-stub-handler"));
+        this.responder= Executors.newScheduledThreadPool(1, daemon("person-stub-responder"));
+        server.setExecutor(handlers);
+        server.createContext(Endpoints.GET_ALL_PERSON, this::handle);
+        server.start();
+    }
+
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    public static PersonServiceStub start() throws IOException {
+        return builder().build();
+    }
+
+    public String getBaseUrl(){
+        return (server instanceof HttpsServer ? "https://" : "http://") + server.getAddress().getHostString();
+    }
+
+    public int getPort(){
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Live view of the stored persons, keyed by id
+     */
+    public Map<Integer, Person> getPersons(){
+        return persons;
+    }
+
+    @Override
+    public void close(){
+        server.stop(0);
+        responder.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start= System.nanoTime();
+        Reply reply;
+        PersonOperation operation= null;
+        try {
+            Integer id= idOf(exchange.getRequestURI().getPath());
+            operation= operationOf(exchange.getRequestMethod(), id);
+            if(operation == null){
+                reply= id != null && id < 0 ? Reply.error(404, "Not found") : Reply.error(405, "Method not allowed");
+            } else if(errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate){
+                reply= Reply.error(errorStatus, "Injected failure");
+            } else {
+                reply= dispatch(operation, id, exchange.getRequestBody());
+                if(reply.status == 200 && exchange.getRequestMethod().equals("GET")){
+                    reply= conditional(reply, exchange.getRequestHeaders().getFirst("If-None-Match"));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            reply= Reply.error(400, String.valueOf(e.getMessage()));
+        }
+        long delay= latencyFor(operation).sampleNanos(ThreadLocalRandom.current());
+        Reply response= reply;
+        if(delay <= 0){
+            send(exchange, response, start);
+        } else {
+            responder.schedule(() -> send(exchange, response, start), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Reply dispatch(PersonOperation operation, Integer id, InputStream body) throws IOException {
+        switch (operation){
+            case GET_ALL_PERSON:
+                return Reply.json(200, JsonMappers.PERSON_LIST_WRITER.writeValueAsBytes(new ArrayList<>(persons.values())));
+            case GET_SINGLE_PERSON: {
+                Person person= persons.get(id);
+                return person == null ? Reply.error(404, "Person " + id + " not found") : Reply.json(200, JsonMappers.PERSON_WRITER.writeValueAsBytes(person));
+            }
+            case CREATE_PERSON: {
+                Person person= JsonMappers.PERSON_READER.readValue(body);
+                if(person.getId() == null){
+                    person.setId(lastId.incrementAndGet());
+                } else {
+                    lastId.accumulateAndGet(person.getId(), Math::max);
+                }
+                if(persons.putIfAbsent(person.getId(), person) != null){
+                    return Reply.error(409, "Person " + person.getId() + " already exists");
+                }
+                return Reply.json(201, JsonMappers.PERSON_WRITER.writeValueAsBytes(person));
+            }
+            case UPDATE_PERSON: {
+                byte[] patch= body.readAllBytes();
+                Person updated= persons.computeIfPresent(id, (key, existing) -> merge(existing, patch));
+                return updated == null ? Reply.error(404, "Person " + id + " not found") : Reply.json(200, JsonMappers.PERSON_WRITER.writeValueAsBytes(updated));
+            }
+            case DELETE_PERSON: {
+                Person removed= persons.remove(id);
+                return removed == null ? Reply.error(404, "Person " + id + " not found") : Reply.json(200, "{}".getBytes(StandardCharsets.UTF_8));
+            }
+            default:
+                return Reply.error(405, "Method not allowed");
+        }
+    }
+
+    /**
+     * Tag the reply with a hash of its body, or swap it for an empty 304 when the client already holds that version
+     */
+    private static Reply conditional(Reply reply, String ifNoneMatch){
+        CRC32 crc= new CRC32();
+        crc.update(reply.body);
+        String etag= "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(reply.body.length) + "\"";
+        return etag.equals(ifNoneMatch) ? new Reply(304, new byte[0], etag) : new Reply(reply.status, reply.body, etag);
+    }
+
+    /**
+     * PATCH semantics: fields present in the body replace the stored ones, the id never changes
+     */
+    private static Person merge(Person existing, byte[] patch){
+        try {
+            Person copy= JsonMappers.PERSON_READER.readValue(JsonMappers.PERSON_WRITER.writeValueAsBytes(existing));
+            Person merged= patch.length == 0 ? copy : JsonMappers.PERSON_READER.withValueToUpdate(copy).readValue(patch);
+            merged.setId(existing.getId());
+            return merged;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid person patch", e);
+        }
+    }
+
+    private LatencyModel latencyFor(PersonOperation operation){
+        return operation == null ? defaultLatency : latencies.getOrDefault(operation, defaultLatency);
+    }
+
+    private void send(HttpExchange exchange, Reply reply, long start){
+        try {
+            long serverMillis= TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.getResponseHeaders().add("Server-Timing", "app;dur=" + serverMillis);
+            if(reply.etag != null){
+                exchange.getResponseHeaders().add("ETag", reply.etag);
+            }
+            byte[] body= reply.body;
+            if(gzip && body.length > 0 && acceptsGzip(exchange)){
+                body= gzip(body);
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(reply.status, body.length == 0 ? -1 : body.length);
+            try (OutputStream out= exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            //client went away, nothing left to answer
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange){
+        String accepted= exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accepted != null && accepted.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed= new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out= new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * null for the collection, the id for /persons/{id}, -1 for anything else under /persons
+     */
+    private static Integer idOf(String path){
+        String collection= Endpoints.GET_ALL_PERSON;
+        if(path.equals(collection) || path.equals(collection + "/")){
+            return null;
+        }
+        String rest= path.substring(collection.length() + 1);
+        try {
+            int id= Integer.parseInt(rest.endsWith("/") ? rest.substring(0, rest.length() - 1) : rest);
+            return id < 0 ? -1 : id;
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    private static PersonOperation operationOf(String method, Integer id){
+        if(id != null && id < 0){
+            return null;
+        }
+        switch (method){
+            case "GET":
+                return id == null ? PersonOperation.GET_ALL_PERSON : PersonOperation.GET_SINGLE_PERSON;
+            case "POST":
+                return id == null ? PersonOperation.CREATE_PERSON : null;
+            case "PATCH":
+            case "PUT":
+                return id == null ? null : PersonOperation.UPDATE_PERSON;
+            case "DELETE":
+                return id == null ? null : PersonOperation.DELETE_PERSON;
+            default:
+                return null;
+        }
+    }
+
+    private static Person seedPerson(int id){
+        Person person= new Person();
+        person.setId(id);
+        person.setFirstName("Seed" + id);
+        person.setLastName("Person");
+        person.setAge(20 + id);
+        person.setAddress("New york");
+        person.setPhoneNumber(String.valueOf(4_765_770_000L + id));
+        return person;
+    }
+
+    private static ThreadFactory daemon(String name){
+        AtomicInteger count= new AtomicInteger();
+        return runnable -> {
+            Thread thread= new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Reply {
+
+        private final int status;
+        private final byte[] body;
+        private final String etag;
+
+        private Reply(int status, byte[] body, String etag){
+            this.status= status;
+            this.body= body;
+            this.etag= etag;
+        }
+
+        static Reply json(int status, byte[] body){
+            return new Reply(status, body, null);
+        }
+
+        static Reply error(int status, String message){
+            String escaped= message.replace("\\", "\\\\").replace("\"", "\\\"");
+            return new Reply(status, ("{\"error\":\"" + escaped + "\"}").getBytes(StandardCharsets.UTF_8), null);
+        }
+    }
+
+    public static class Builder {
+
+        private int port;
+        private int backlog= 1024;
+        private int threads= Math.max(4, Runtime.getRuntime().availableProcessors());
+        private int seedCount= 3;
+        private LatencyModel defaultLatency= LatencyModel.none();
+        private final Map<PersonOperation, LatencyModel> latencies= new EnumMap<>(PersonOperation.class);
+        private double errorRate;
+        private int errorStatus= 503;
+        private boolean gzip;
+        private SSLContext sslContext;
+
+        /**
+         * 0 (the default) picks a free port
+         */
+        public Builder port(int port){
+            this.port= port;
+            return this;
+        }
+
+        public Builder backlog(int backlog){
+            this.backlog= backlog;
+            return this;
+        }
+
+        public Builder threads(int threads){
+            this.threads= threads;
+            return this;
+        }
+
+        /**
+         * Number of persons (ids 1..n) present at start
+         */
+        public Builder seed(int count){
+            this.seedCount= count;
+            return this;
+        }
+
+        public Builder latency(LatencyModel latency){
+            this.defaultLatency= latency;
+            return this;
+        }
+
+        public Builder latency(PersonOperation operation, LatencyModel latency){
+            this.latencies.put(operation, latency);
+            return this;
+        }
+
+        /**
+         * Fraction (0..1) of requests answered with the error status instead of being served
+         */
+        public Builder errorRate(double errorRate, int errorStatus){
+            if(errorRate < 0 || errorRate > 1){
+                throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errorRate);
+            }
+            this.errorRate= errorRate;
+            this.errorStatus= errorStatus;
+            return this;
+        }
+
+        /**
+         * Gzip response bodies of requests sending Accept-Encoding: gzip
+         */
+        public Builder gzip(boolean gzip){
+            this.gzip= gzip;
+            return this;
+        }
+
+        /**
+         * Serve HTTPS with the key of the context, e.g. a self-signed one, instead of plain HTTP
+         */
+        public Builder https(SSLContext sslContext){
+            this.sslContext= sslContext;
+            return this;
+        }
+
+        public PersonServiceStub build() throws IOException {
+            return new PersonServiceStub(this);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.stub;
+
+import com.example.utils.ConfigManager;
+import com.example.utils.ConfigSnapshot;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * With -Dstub.enabled=true the suite runs against an embedded {@link PersonServiceStub} instead of the
+ * service at base_url/port. The stub is started before any helper is created and base_url/port are pointed
+ * at it through system properties, which ConfigManager gives precedence over config.properties.
+ * stub.latency_median, stub.latency_p99 and stub.error_rate shape its behaviour. It starts with stub.seed persons,
+ * by default 3, or load.id_range with load.enabled so that the reads of a load run find the ids they ask for
+ */
+public class StubSuiteListener implements ISuiteListener {
+
+    private PersonServiceStub stub;
+
+    @Override
+    public void onStart(ISuite suite) {
+        ConfigSnapshot config= ConfigManager.getInstance().snapshot();
+        if(!config.getBoolean("stub.enabled", false) || stub != null){
+            return;
+        }
+        int seed= config.getBoolean("load.enabled", false) ? config.getInt("load.id_range", 100) : 3;
+        PersonServiceStub.Builder builder= PersonServiceStub.builder().seed(config.getInt("stub.seed", seed));
+        if(config.contains("stub.latency_median") && config.contains("stub.latency_p99")){
+            builder.latency(LatencyModel.logNormal(config.getDuration("stub.latency_median"), config.getDuration("stub.latency_p99")));
+        }
+        if(config.contains("stub.error_rate")){
+            builder.errorRate(config.getDouble("stub.error_rate"), 503);
+        }
+        try {
+            stub= builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start the persons service stub", e);
+        }
+        System.setProperty("base_url", stub.getBaseUrl());
+        System.setProperty("port", String.valueOf(stub.getPort()));
+        //the port changes on every run, stub runs with the same behaviour share one latency history instead
+        if(!config.contains("history.target")){
+            System.setProperty("history.target", "stub" + (config.contains("stub.latency_median") ? " " + config.getString("stub.latency_median")
+                    + "/" + config.getString("stub.latency_p99", "") : "") + (config.contains("stub.error_rate") ? " errors " + config.getString("stub.error_rate") : ""));
+        }
+        ConfigManager.getInstance().reload();
+        System.out.println("Persons service stub listening on " + stub.getBaseUrl() + ":" + stub.getPort());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if(stub != null){
+            stub.close();
+            stub= null;
+        }
+    }
+}
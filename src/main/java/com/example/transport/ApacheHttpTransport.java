@@ -0,0 +1,95 @@
+package com.example.transport;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RestAssured's own Apache HttpClient 4, but with one client reused across requests on top of a bounded
+ * pooling connection manager. Out of the box RestAssured creates a client, and so a new connection, per request.
+ * A pooled connection only goes back to the pool once its response body is consumed, so bodies are read
+ * into memory as soon as they arrive, unless the request carries {@link HttpTransport#STREAMED_RESPONSE}
+ */
+public class ApacheHttpTransport implements HttpTransport {
+
+    //by pool name, one per fan-out target
+    private static final Map<String, ApacheHttpTransport> SHARED= new HashMap<>();
+
+    private final TransportSettings settings;
+    private final RestAssuredConfig config;
+    private final ReleaseConnectionFilter releaseConnection= new ReleaseConnectionFilter();
+
+    ApacheHttpTransport(TransportSettings settings){
+        this.settings= settings;
+        HttpClientConfig httpClientConfig= HttpClientConfig.httpClientConfig()
+                .httpClientFactory(this::createHttpClient)
+                .reuseHttpClientInstance();
+        DecoderConfig decoderConfig= settings.isCompression() ? DecoderConfig.decoderConfig() : DecoderConfig.decoderConfig().noContentDecoders();
+        this.config= RestAssured.config().httpClient(httpClientConfig).decoderConfig(decoderConfig);
+    }
+
+    /**
+     * One transport, and with it one pool, per pool name and distinct settings
+     */
+    static synchronized ApacheHttpTransport shared(String pool, TransportSettings settings){
+        ApacheHttpTransport transport= SHARED.get(pool);
+        if(transport == null || !transport.settings.equals(settings)){
+            transport= new ApacheHttpTransport(settings);
+            SHARED.put(pool, transport);
+        }
+        return transport;
+    }
+
+    @Override
+    public RequestSpecBuilder configure(RequestSpecBuilder builder) {
+        return builder.setConfig(config).addFilter(releaseConnection);
+    }
+
+    //RestAssured 5 still drives the 4.x AbstractHttpClient API
+    @SuppressWarnings("deprecation")
+    private DefaultHttpClient createHttpClient(){
+        PoolingClientConnectionManager connectionManager= new PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(settings.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.getMaxConnectionsPerRoute());
+        DefaultHttpClient client= new DefaultHttpClient(connectionManager);
+        client.getParams().setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, (int) settings.getConnectTimeout().toMillis());
+        client.getParams().setIntParameter(CoreConnectionPNames.SO_TIMEOUT, (int) settings.getRequestTimeout().toMillis());
+        long keepAliveMillis= settings.getKeepAlive().toMillis();
+        client.setKeepAliveStrategy((response, context) -> keepAliveMillis);
+        return client;
+    }
+
+    /**
+     * Outermost filter, runs once every other filter is done with the response
+     */
+    private static class ReleaseConnectionFilter implements OrderedFilter {
+
+        @Override
+        public int getOrder() {
+            return HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            Response response= ctx.next(requestSpec, responseSpec);
+            if(!requestSpec.getDefinedFilters().contains(STREAMED_RESPONSE)){
+                //a body nobody asked for, such as the one of a 404 or a DELETE, would otherwise keep its connection leased
+                response.asByteArray();
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.transport;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.Filter;
+
+/**
+ * How the request specs of the helpers reach the network. The helpers build their specs as usual
+ * and let the configured transport decide which client and connection pool actually send them
+ */
+public interface HttpTransport {
+
+    /**
+     * Marker filter for a request whose response body is read as a stream and closed by the caller.
+     * Transports that otherwise buffer every body, to hand the pooled connection back, leave that one open
+     */
+    Filter STREAMED_RESPONSE= (requestSpec, responseSpec, ctx) -> ctx.next(requestSpec, responseSpec);
+
+    /**
+     * Pool of the helpers that do not name one
+     */
+    String DEFAULT_POOL= "default";
+
+    /**
+     * Add the client configuration or filter of this transport to a spec that is being built.
+     * Call it first: a transport may set the whole RestAssured config, replacing e.g. relaxedHTTPSValidation()
+     */
+    RequestSpecBuilder configure(RequestSpecBuilder builder);
+
+    /**
+     * The transport selected with http.transport in config.properties, on the default pool
+     */
+    static HttpTransport fromConfig(){
+        return fromConfig(DEFAULT_POOL);
+    }
+
+    /**
+     * The transport selected with http.transport in config.properties, on its own connection pool per pool name
+     */
+    static HttpTransport fromConfig(String pool){
+        TransportSettings settings= TransportSettings.fromConfig();
+        return settings.getType() == TransportSettings.Type.JDK ? JdkHttpTransport.shared(pool, settings) : ApacheHttpTransport.shared(pool, settings);
+    }
+}
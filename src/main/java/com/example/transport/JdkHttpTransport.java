@@ -0,0 +1,302 @@
+package com.example.transport;
+
+import com.example.utils.JsonMappers;
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.ExplicitNoAuthScheme;
+import io.restassured.authentication.NoAuthScheme;
+import io.restassured.authentication.PreemptiveBasicAuthScheme;
+import io.restassured.authentication.PreemptiveOAuth2HeaderScheme;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.config.SSLConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sends the helper specs over the JDK java.net.http client: HTTP/2 when the server negotiates it, so concurrent
+ * requests multiplex over a single connection, gzip negotiation and a keep-alive pool sized from config.
+ * It plugs in as the last filter of the spec and answers the request itself, so every other filter
+ * (metrics, logging) and the response assertions of RestAssured run unchanged. The body of a request marked
+ * {@link HttpTransport#STREAMED_RESPONSE} is read from the connection by the caller instead of being buffered.
+ * Of the spec's connection settings it honours relaxedHTTPSValidation(), cookies and preemptive basic or OAuth2 auth,
+ * and refuses the others rather than silently sending the request without them
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    //Headers the JDK client sets itself and refuses to take from the caller
+    private static final Set<String> RESTRICTED_HEADERS= Set.of("connection", "content-length", "expect", "host", "upgrade");
+    //Headers describing the compressed body, wrong once it is decoded
+    private static final Set<String> ENCODING_HEADERS= Set.of("content-encoding", "content-length");
+
+    //by pool name, one per fan-out target
+    private static final Map<String, JdkHttpTransport> SHARED= new HashMap<>();
+
+    private final TransportSettings settings;
+    private final HttpClient client;
+    //for specs with relaxedHTTPSValidation() when http.relaxed_https is off, built on first use
+    private HttpClient relaxedClient;
+    private final TransportFilter filter= new TransportFilter();
+
+    JdkHttpTransport(TransportSettings settings){
+        this.settings= settings;
+        this.client= newClient(settings.isRelaxedHttps());
+    }
+
+    private HttpClient newClient(boolean relaxed){
+        HttpClient.Builder builder= HttpClient.newBuilder()
+                .version(settings.getVersion())
+                .connectTimeout(settings.getConnectTimeout());
+        return (relaxed ? RelaxedTls.relax(builder) : builder).build();
+    }
+
+    /**
+     * The client for a spec: one trusting any certificate when the spec asks for relaxed HTTPS validation.
+     * Other SSL settings of the spec (trust and key stores) are not supported
+     */
+    private synchronized HttpClient client(SSLConfig sslConfig){
+        if(!RelaxedTls.isRequested(sslConfig)){
+            if(sslConfig.isUserConfigured()){
+                throw new UnsupportedOperationException("The JDK transport only supports relaxedHTTPSValidation() of the SSL config, use http.transport=APACHE");
+            }
+            return client;
+        }
+        if(settings.isRelaxedHttps()){
+            return client;
+        }
+        if(relaxedClient == null){
+            relaxedClient= newClient(true);
+        }
+        return relaxedClient;
+    }
+
+    /**
+     * One client, and with it one connection pool, per pool name and distinct settings
+     */
+    static synchronized JdkHttpTransport shared(String pool, TransportSettings settings){
+        JdkHttpTransport transport= SHARED.get(pool);
+        if(transport == null || !transport.settings.equals(settings)){
+            applyPoolProperties(settings);
+            transport= new JdkHttpTransport(settings);
+            SHARED.put(pool, transport);
+        }
+        return transport;
+    }
+
+    /**
+     * Shared transport of the default pool built from the http.* keys of config.properties
+     */
+    public static JdkHttpTransport shared(){
+        return shared(DEFAULT_POOL);
+    }
+
+    /**
+     * Shared transport of the named pool built from the http.* keys of config.properties
+     */
+    public static JdkHttpTransport shared(String pool){
+        return shared(pool, TransportSettings.fromConfig());
+    }
+
+    /**
+     * The JDK client reads its pool size and idle timeout from system properties, once per JVM,
+     * when the first client is used. Values set on the command line win over config.properties
+     */
+    private static void applyPoolProperties(TransportSettings settings){
+        if(System.getProperty("jdk.httpclient.connectionPoolSize") == null){
+            System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(settings.getMaxConnections()));
+        }
+        if(System.getProperty("jdk.httpclient.keepalive.timeout") == null){
+            System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(settings.getKeepAlive().toSeconds()));
+        }
+    }
+
+    /**
+     * The client of the pool, relaxed HTTPS validation follows http.relaxed_https
+     */
+    public HttpClient client() {
+        return client;
+    }
+
+    public TransportSettings getSettings() {
+        return settings;
+    }
+
+    @Override
+    public RequestSpecBuilder configure(RequestSpecBuilder builder) {
+        return builder.addFilter(filter);
+    }
+
+    private class TransportFilter implements OrderedFilter {
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            //Multipart and form bodies are left to RestAssured's own client
+            if(!requestSpec.getMultiPartParams().isEmpty() || !requestSpec.getFormParams().isEmpty()){
+                return ctx.next(requestSpec, responseSpec);
+            }
+            //a streamed body is handed over as the connection delivers it, the caller reads and closes it
+            if(requestSpec.getDefinedFilters().contains(STREAMED_RESPONSE)){
+                HttpResponse<InputStream> response= send(requestSpec, HttpResponse.BodyHandlers.ofInputStream());
+                return toResponse(response).setBody(decodeStream(response)).build();
+            }
+            HttpResponse<byte[]> response= send(requestSpec, HttpResponse.BodyHandlers.ofByteArray());
+            byte[] body= decode(response);
+            ResponseBuilder builder= toResponse(response);
+            if(isGzip(response)){
+                builder.setHeader("Content-Length", String.valueOf(body.length));
+            }
+            return builder.setBody(body).build();
+        }
+
+        private <T> HttpResponse<T> send(FilterableRequestSpecification requestSpec, HttpResponse.BodyHandler<T> handler){
+            HttpClient client= client(requestSpec.getConfig().getSSLConfig());
+            try {
+                return client.send(toHttpRequest(requestSpec), handler);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to send " + requestSpec.getMethod() + " " + requestSpec.getURI(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending " + requestSpec.getMethod() + " " + requestSpec.getURI(), e);
+            }
+        }
+
+        private HttpRequest toHttpRequest(FilterableRequestSpecification requestSpec){
+            HttpRequest.Builder builder= HttpRequest.newBuilder(URI.create(requestSpec.getURI()))
+                    .timeout(settings.getRequestTimeout());
+            for(Header header : requestSpec.getHeaders()){
+                if(!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))){
+                    builder.header(header.getName(), header.getValue());
+                }
+            }
+            if(requestSpec.getHeaders().getValue("Content-Type") == null && requestSpec.getContentType() != null){
+                builder.header("Content-Type", requestSpec.getContentType());
+            }
+            if(settings.isCompression() && !requestSpec.getHeaders().hasHeaderWithName("Accept-Encoding")){
+                builder.header("Accept-Encoding", "gzip");
+            }
+            authorize(requestSpec, builder);
+            if(requestSpec.getCookies().exist() && !requestSpec.getHeaders().hasHeaderWithName("Cookie")){
+                StringJoiner cookies= new StringJoiner("; ");
+                requestSpec.getCookies().forEach(cookie -> cookies.add(cookie.getName() + "=" + cookie.getValue()));
+                builder.header("Cookie", cookies.toString());
+            }
+            byte[] body= bodyBytes(requestSpec.getBody());
+            return builder.method(requestSpec.getMethod(),
+                    body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body)).build();
+        }
+
+        /**
+         * Preemptive basic and OAuth2 bearer auth become an Authorization header, the challenge based schemes
+         * of RestAssured's own client are not supported
+         */
+        private void authorize(FilterableRequestSpecification requestSpec, HttpRequest.Builder builder){
+            AuthenticationScheme auth= requestSpec.getAuthenticationScheme();
+            if(auth == null || auth instanceof NoAuthScheme || auth instanceof ExplicitNoAuthScheme){
+                return;
+            }
+            if(auth instanceof PreemptiveBasicAuthScheme){
+                PreemptiveBasicAuthScheme basic= (PreemptiveBasicAuthScheme) auth;
+                String credentials= basic.getUserName() + ":" + basic.getPassword();
+                builder.header("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+            } else if(auth instanceof PreemptiveOAuth2HeaderScheme){
+                builder.header("Authorization", "Bearer " + ((PreemptiveOAuth2HeaderScheme) auth).getAccessToken());
+            } else {
+                throw new UnsupportedOperationException("The JDK transport does not support " + auth.getClass().getSimpleName()
+                        + ", use preemptive basic or OAuth2 auth or http.transport=APACHE");
+            }
+        }
+
+        private byte[] bodyBytes(Object body){
+            if(body == null){
+                return null;
+            }
+            if(body instanceof byte[]){
+                return (byte[]) body;
+            }
+            if(body instanceof String){
+                return ((String) body).getBytes(StandardCharsets.UTF_8);
+            }
+            try {
+                return JsonMappers.MAPPER.writeValueAsBytes(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to serialize the request body", e);
+            }
+        }
+
+        /**
+         * Status, headers and content type of the response, the body is set by the caller.
+         * A gzipped body is handed over decoded, so its Content-Encoding and Content-Length are left out
+         */
+        private ResponseBuilder toResponse(HttpResponse<?> response){
+            boolean decoded= isGzip(response);
+            List<Header> headers= new ArrayList<>();
+            response.headers().map().forEach((name, values) -> {
+                //HTTP/2 pseudo headers such as :status are not real headers
+                if(!name.startsWith(":") && !(decoded && ENCODING_HEADERS.contains(name.toLowerCase(Locale.ROOT)))){
+                    values.forEach(value -> headers.add(new Header(name, value)));
+                }
+            });
+            String protocol= response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+            ResponseBuilder builder= new ResponseBuilder()
+                    .setStatusCode(response.statusCode())
+                    .setStatusLine(protocol + " " + response.statusCode())
+                    .setHeaders(new Headers(headers));
+            response.headers().firstValue("Content-Type").ifPresent(builder::setContentType);
+            return builder;
+        }
+
+        private boolean isGzip(HttpResponse<?> response){
+            return "gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(""));
+        }
+
+        private byte[] decode(HttpResponse<byte[]> response){
+            if(!isGzip(response)){
+                return response.body();
+            }
+            try (GZIPInputStream in= new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to decompress the response body", e);
+            }
+        }
+
+        private InputStream decodeStream(HttpResponse<InputStream> response){
+            if(!isGzip(response)){
+                return response.body();
+            }
+            try {
+                return new GZIPInputStream(response.body());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to decompress the response body", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.transport;
+
+import io.restassured.config.SSLConfig;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.net.Socket;
+import java.net.http.HttpClient;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+
+/**
+ * TLS that trusts any certificate and host name, what RestAssured's relaxedHTTPSValidation() does for its own client,
+ * for the JDK clients of the helpers, the load generator and the replay engine. Meant for a service on localhost
+ * with a self-signed certificate, see http.relaxed_https in config.properties
+ */
+public final class RelaxedTls {
+
+    private static final SSLContext CONTEXT= trustAll();
+
+    private RelaxedTls() {
+    }
+
+    /**
+     * Trust every certificate and skip the host name check on the client being built
+     */
+    public static HttpClient.Builder relax(HttpClient.Builder builder){
+        SSLParameters parameters= CONTEXT.getDefaultSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm(null);
+        return builder.sslContext(CONTEXT).sslParameters(parameters);
+    }
+
+    /**
+     * Relax the client being built when http.relaxed_https is on
+     */
+    public static HttpClient.Builder fromConfig(HttpClient.Builder builder){
+        return TransportSettings.fromConfig().isRelaxedHttps() ? relax(builder) : builder;
+    }
+
+    /**
+     * Whether the SSL config of a spec comes from relaxedHTTPSValidation(): RestAssured then sets a socket factory
+     * that trusts everything and accepts any host name
+     */
+    //RestAssured 5 still configures TLS through the 4.x SSLSocketFactory
+    @SuppressWarnings("deprecation")
+    static boolean isRequested(SSLConfig config){
+        SSLSocketFactory factory= config.getSSLSocketFactory();
+        return factory != null && factory.getHostnameVerifier() == SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER;
+    }
+
+    private static SSLContext trustAll(){
+        try {
+            SSLContext context= SSLContext.getInstance("TLS");
+            context.init(null, new TrustManager[]{new TrustAllManager()}, new SecureRandom());
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to create a trust-all SSLContext", e);
+        }
+    }
+
+    /**
+     * An extended trust manager, so the JDK does not wrap it with its own host name check
+     */
+    private static class TrustAllManager extends X509ExtendedTrustManager {
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) {
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.transport;
+
+import com.example.utils.ConfigManager;
+import com.example.utils.ConfigSnapshot;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable connection settings of the helper layer, read from the http.* keys of config.properties
+ */
+public class TransportSettings {
+
+    /**
+     * Which client sends the requests built by the helpers
+     */
+    public enum Type {
+        /**
+         * The Apache HttpClient 4 RestAssured ships with, reused with a bounded connection pool
+         */
+        APACHE,
+        /**
+         * The JDK java.net.http client, with HTTP/2 multiplexing when the server offers it
+         */
+        JDK
+    }
+
+    private final Type type;
+    private final HttpClient.Version version;
+    private final boolean compression;
+    private final boolean relaxedHttps;
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final Duration keepAlive;
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+
+    private TransportSettings(ConfigSnapshot config){
+        this.type= Type.valueOf(config.getString("http.transport", Type.APACHE.name()).trim().toUpperCase(Locale.ROOT));
+        this.version= HttpClient.Version.valueOf(config.getString("http.version", HttpClient.Version.HTTP_2.name()).trim().toUpperCase(Locale.ROOT));
+        this.compression= config.getBoolean("http.compression", true);
+        this.relaxedHttps= config.getBoolean("http.relaxed_https", true);
+        this.maxConnections= config.getInt("http.pool.max_connections", 64);
+        this.maxConnectionsPerRoute= config.getInt("http.pool.max_per_route", 32);
+        this.keepAlive= config.getDuration("http.keep_alive", Duration.ofSeconds(60));
+        this.connectTimeout= config.getDuration("http.connect_timeout", Duration.ofSeconds(10));
+        this.requestTimeout= config.getDuration("http.request_timeout", Duration.ofSeconds(30));
+    }
+
+    public static TransportSettings fromConfig(){
+        return new TransportSettings(ConfigManager.getInstance().snapshot());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public HttpClient.Version getVersion() {
+        return version;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * Whether the JDK clients trust any certificate and host name, see {@link RelaxedTls}
+     */
+    public boolean isRelaxedHttps() {
+        return relaxedHttps;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransportSettings that = (TransportSettings) o;
+        return compression == that.compression && relaxedHttps == that.relaxedHttps && maxConnections == that.maxConnections
+                && maxConnectionsPerRoute == that.maxConnectionsPerRoute && type == that.type && version == that.version
+                && keepAlive.equals(that.keepAlive) && connectTimeout.equals(that.connectTimeout)
+                && requestTimeout.equals(that.requestTimeout);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, version, compression, relaxedHttps, maxConnections, maxConnectionsPerRoute, keepAlive, connectTimeout, requestTimeout);
+    }
+}
@@ -2,36 +2,226 @@ package com.example.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 
 /**
- * Read the config from the properties file
+ * Read the config from the properties file.
+ * The values live in an immutable {@link ConfigSnapshot} behind a volatile reference: reads never lock,
+ * and {@link #reload()} (or the optional file watch) swaps in a new snapshot atomically.
+ * System properties take precedence over config.properties; -Dconfig.file points at another file
+ * and -Dconfig.watch=true reloads it whenever it changes on disk
  */
 public class ConfigManager {
 
-    private static ConfigManager manager;
-    private static final Properties prop= new Properties();
+    private static final String CONFIG_RESOURCE= "/config.properties";
 
-    private ConfigManager() throws IOException {
-        InputStream inputStream= ConfigManager.class.getResourceAsStream("/config.properties");
-        prop.load(inputStream);
+    private static final ConfigManager manager= new ConfigManager();
+
+    private final Path configFile;
+    private final List<Consumer<ConfigSnapshot>> listeners= new CopyOnWriteArrayList<>();
+    private volatile ConfigSnapshot snapshot;
+    private Thread watcher;
+
+    private ConfigManager() {
+        this.configFile= locateConfigFile();
+        this.snapshot= load();
+        if(snapshot.getBoolean("config.watch", false)){
+            watch();
+        }
     }
 
     public static ConfigManager getInstance() {
-        if(manager == null){
-            synchronized (ConfigManager.class){
-                try {
-                    manager=new ConfigManager();
-                } catch (IOException e) {
-                    e.printStackTrace();
+        return manager;
+    }
+
+    /**
+     * Current snapshot, take it once when several values have to be consistent with each other
+     */
+    public ConfigSnapshot snapshot(){
+        return snapshot;
+    }
+
+    public String getString(String key){
+        return snapshot.getString(key);
+    }
+
+    public String getString(String key, String defaultValue){
+        return snapshot.getString(key, defaultValue);
+    }
+
+    public int getInt(String key){
+        return snapshot.getInt(key);
+    }
+
+    public int getInt(String key, int defaultValue){
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue){
+        return snapshot.getLong(key, defaultValue);
+    }
+
+    public double getDouble(String key, double defaultValue){
+        return snapshot.getDouble(key, defaultValue);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue){
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    public Duration getDuration(String key, Duration defaultValue){
+        return snapshot.getDuration(key, defaultValue);
+    }
+
+    public List<String> getList(String key){
+        return snapshot.getList(key);
+    }
+
+    /**
+     * Called with the new snapshot after every reload
+     */
+    public void addListener(Consumer<ConfigSnapshot> listener){
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<ConfigSnapshot> listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     * Re-read config.properties and the system properties and publish them as a new snapshot.
+     * Serialized, so that concurrent reloads (the file watcher, a listener setting system properties) publish and
+     * notify in the order they read, and the last snapshot published is the newest one
+     */
+    public synchronized ConfigSnapshot reload(){
+        ConfigSnapshot reloaded= load();
+        snapshot= reloaded;
+        for(Consumer<ConfigSnapshot> listener : listeners){
+            listener.accept(reloaded);
+        }
+        return reloaded;
+    }
+
+    /**
+     * Reload whenever the config file changes on disk. Only possible when the config comes from a file,
+     * not from inside a jar
+     */
+    public synchronized void watch(){
+        if(watcher != null){
+            return;
+        }
+        if(configFile == null || configFile.getParent() == null){
+            System.out.println("Config is not read from a file, watching for changes is not possible");
+            return;
+        }
+        WatchService watchService;
+        try {
+            watchService= FileSystems.getDefault().newWatchService();
+            configFile.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to watch " + configFile, e);
+        }
+        watcher= new Thread(() -> watchLoop(watchService), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watchLoop(WatchService watchService){
+        Path fileName= configFile.getFileName();
+        try {
+            while(!Thread.currentThread().isInterrupted()){
+                WatchKey key= watchService.take();
+                boolean changed= false;
+                for(WatchEvent<?> event : key.pollEvents()){
+                    changed|= fileName.equals(event.context());
+                }
+                key.reset();
+                if(changed){
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        //keep the previous snapshot when the file is half written or invalid
+                        System.out.println("Config reload failed, keeping the previous values: " + e);
+                    }
                 }
             }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
         }
-        return manager;
     }
 
-    public String getString(String key){
-        return System.getProperty(key,prop.getProperty(key));
+    private ConfigSnapshot load(){
+        Properties prop= new Properties();
+        try (InputStream inputStream= open()) {
+            if(inputStream == null){
+                System.out.println("No config.properties found, only system properties are used");
+            } else {
+                prop.load(inputStream);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the config", e);
+        }
+        Map<String, String> values= new HashMap<>();
+        for(String key : prop.stringPropertyNames()){
+            values.put(key, unquote(prop.getProperty(key)));
+        }
+        Properties system= System.getProperties();
+        for(String key : system.stringPropertyNames()){
+            values.put(key, system.getProperty(key));
+        }
+        return new ConfigSnapshot(values);
+    }
+
+    private InputStream open() throws IOException {
+        if(configFile != null){
+            return Files.newInputStream(configFile);
+        }
+        return ConfigManager.class.getResourceAsStream(CONFIG_RESOURCE);
+    }
+
+    private static Path locateConfigFile(){
+        String file= System.getProperty("config.file");
+        if(file != null){
+            return Paths.get(file);
+        }
+        URL resource= ConfigManager.class.getResource(CONFIG_RESOURCE);
+        if(resource != null && "file".equals(resource.getProtocol())){
+            try {
+                return Paths.get(resource.toURI());
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * base_url="http://localhost:3000" style values: the quotes are not part of the value
+     */
+    private static String unquote(String value){
+        String trimmed= value.trim();
+        if(trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")){
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
     }
 }
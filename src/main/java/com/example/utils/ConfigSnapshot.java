@@ -0,0 +1,138 @@
+package com.example.utils;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of the configuration at one point in time: config.properties overridden by system properties.
+ * Typed values are parsed on first access and cached, so repeated reads cost a map lookup
+ */
+public final class ConfigSnapshot {
+
+    private final Map<String, String> values;
+    private final Map<String, Object> parsed= new ConcurrentHashMap<>();
+
+    ConfigSnapshot(Map<String, String> values){
+        this.values= Collections.unmodifiableMap(values);
+    }
+
+    public Map<String, String> asMap(){
+        return values;
+    }
+
+    public boolean contains(String key){
+        return values.containsKey(key);
+    }
+
+    /**
+     * Raw value, null when the key is not set
+     */
+    public String getString(String key){
+        return values.get(key);
+    }
+
+    public String getString(String key, String defaultValue){
+        String value= values.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    public int getInt(String key){
+        return parse(key, "int", Integer::valueOf);
+    }
+
+    public int getInt(String key, int defaultValue){
+        return contains(key) ? getInt(key) : defaultValue;
+    }
+
+    public long getLong(String key){
+        return parse(key, "long", Long::valueOf);
+    }
+
+    public long getLong(String key, long defaultValue){
+        return contains(key) ? getLong(key) : defaultValue;
+    }
+
+    public double getDouble(String key){
+        return parse(key, "double", Double::valueOf);
+    }
+
+    public double getDouble(String key, double defaultValue){
+        return contains(key) ? getDouble(key) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue){
+        return contains(key) ? parse(key, "boolean", Boolean::valueOf) : defaultValue;
+    }
+
+    /**
+     * Durations like 250ms, 10s, 5m, 1h or ISO-8601 (PT10S), a bare number is taken as milliseconds
+     */
+    public Duration getDuration(String key){
+        return parse(key, "duration", ConfigSnapshot::parseDuration);
+    }
+
+    public Duration getDuration(String key, Duration defaultValue){
+        return contains(key) ? getDuration(key) : defaultValue;
+    }
+
+    /**
+     * Comma separated values, trimmed, empty entries dropped
+     */
+    public List<String> getList(String key){
+        if(!contains(key)){
+            return Collections.emptyList();
+        }
+        return parse(key, "list", value -> Collections.unmodifiableList(Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .collect(Collectors.toList())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T parse(String key, String type, Function<String, T> parser){
+        String value= values.get(key);
+        if(value == null){
+            throw new IllegalArgumentException("Missing config value for " + key);
+        }
+        return (T) parsed.computeIfAbsent(type + ':' + key, cacheKey -> {
+            try {
+                return Objects.requireNonNull(parser.apply(value.trim()));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Config value of " + key + " is not a valid " + type + ": " + value, e);
+            }
+        });
+    }
+
+    static Duration parseDuration(String value){
+        String text= value.trim().toLowerCase(Locale.ROOT);
+        try {
+            if(text.startsWith("p")){
+                return Duration.parse(value.trim());
+            }
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(value, e);
+        }
+        if(text.endsWith("ms")){
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2).trim()));
+        }
+        if(text.endsWith("s")){
+            return Duration.ofMillis((long) (Double.parseDouble(text.substring(0, text.length() - 1).trim()) * 1000));
+        }
+        if(text.endsWith("m")){
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1).trim()) * 60);
+        }
+        if(text.endsWith("h")){
+            return Duration.ofHours(Long.parseLong(text.substring(0, text.length() - 1).trim()));
+        }
+        return Duration.ofMillis(Long.parseLong(text));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.utils;
+
+import com.example.model.EmployeeDetails;
+import com.example.model.Person;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.List;
+
+/**
+ * Shared, pre-configured Jackson readers and writers for the model classes.
+ * ObjectReader/ObjectWriter are immutable and thread-safe, and creating them once means the
+ * introspection of Person and EmployeeDetails is paid for a single time instead of on every call
+ */
+public final class JsonMappers {
+
+    public static final ObjectMapper MAPPER= new ObjectMapper();
+
+    public static final ObjectReader PERSON_READER= MAPPER.readerFor(Person.class);
+    public static final ObjectReader PERSON_LIST_READER= MAPPER.readerFor(new TypeReference<List<Person>>(){});
+    public static final ObjectWriter PERSON_WRITER= MAPPER.writerFor(Person.class);
+    public static final ObjectWriter PERSON_LIST_WRITER= MAPPER.writerFor(new TypeReference<List<Person>>(){});
+
+    public static final ObjectReader EMPLOYEE_READER= MAPPER.readerFor(EmployeeDetails.class);
+    public static final ObjectWriter EMPLOYEE_WRITER= MAPPER.writerFor(EmployeeDetails.class);
+
+    public static final ObjectWriter PRETTY_WRITER= MAPPER.writerWithDefaultPrettyPrinter();
+
+    private JsonMappers(){
+    }
+}
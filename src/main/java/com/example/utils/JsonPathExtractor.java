@@ -0,0 +1,235 @@
+package com.example.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A JSON path compiled once and evaluated with a single pass of Jackson's streaming parser over the body bytes.
+ * Subtrees that are not on the path are skipped without being mapped and, unless the path holds a [*] wildcard,
+ * parsing stops at the first match, so reading the id of a created Person costs a few tokens instead of a
+ * Groovy object tree and a dynamic GPath evaluation.
+ * Supported expressions: field names separated by dots, array indexes and [*], e.g. id, address.city,
+ * [0].firstName or [*].id. A leading $ is ignored. Unlike GPath, lists are never spread implicitly.
+ * Instances are immutable and thread-safe, keep them in constants
+ */
+public final class JsonPathExtractor {
+
+    private static final int WILDCARD= -1;
+
+    private final String expression;
+    private final Segment[] segments;
+    private final boolean multiValued;
+
+    private JsonPathExtractor(String expression, Segment[] segments){
+        this.expression= expression;
+        this.segments= segments;
+        boolean wildcard= false;
+        for(Segment segment : segments){
+            wildcard|= segment.field == null && segment.index == WILDCARD;
+        }
+        this.multiValued= wildcard;
+    }
+
+    public static JsonPathExtractor compile(String expression){
+        List<Segment> segments= new ArrayList<>();
+        String path= expression.trim();
+        if(path.startsWith("$")){
+            path= path.substring(1);
+        }
+        int i= 0;
+        while(i < path.length()){
+            char c= path.charAt(i);
+            if(c == '.'){
+                i++;
+            } else if(c == '['){
+                int end= path.indexOf(']', i);
+                if(end < 0){
+                    throw new IllegalArgumentException("Unclosed [ in JSON path: " + expression);
+                }
+                String index= path.substring(i + 1, end).trim();
+                try {
+                    segments.add(new Segment(null, "*".equals(index) ? WILDCARD : Integer.parseUnsignedInt(index)));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid array index '" + index + "' in JSON path: " + expression);
+                }
+                i= end + 1;
+            } else {
+                int end= i;
+                while(end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '['){
+                    end++;
+                }
+                segments.add(new Segment(path.substring(i, end), 0));
+                i= end;
+            }
+        }
+        return new JsonPathExtractor(expression, segments.toArray(new Segment[0]));
+    }
+
+    /**
+     * First value on the path as text, numbers and booleans included, objects and arrays as JSON.
+     * Null when the path does not exist or holds a JSON null
+     */
+    public String getString(byte[] body){
+        List<String> values= extract(body, false);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public String getString(InputStream body){
+        List<String> values= extract(body, false);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public String getString(Response response){
+        return getString(response.asByteArray());
+    }
+
+    public Integer getInt(byte[] body){
+        String value= getString(body);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    public Integer getInt(InputStream body){
+        String value= getString(body);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    public Integer getInt(Response response){
+        return getInt(response.asByteArray());
+    }
+
+    /**
+     * Every value on the path in document order, the JSON nulls included
+     */
+    public List<String> getStrings(byte[] body){
+        return extract(body, true);
+    }
+
+    public List<String> getStrings(InputStream body){
+        return extract(body, true);
+    }
+
+    public List<String> getStrings(Response response){
+        return getStrings(response.asByteArray());
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private List<String> extract(byte[] body, boolean all){
+        try (JsonParser parser= JsonMappers.MAPPER.getFactory().createParser(body)) {
+            return extract(parser, all);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read '" + expression + "' from the JSON body", e);
+        }
+    }
+
+    private List<String> extract(InputStream body, boolean all){
+        try (JsonParser parser= JsonMappers.MAPPER.getFactory().createParser(body)) {
+            return extract(parser, all);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read '" + expression + "' from the JSON body", e);
+        }
+    }
+
+    private List<String> extract(JsonParser parser, boolean all) throws IOException {
+        if(parser.nextToken() == null){
+            return Collections.emptyList();
+        }
+        List<String> values= new ArrayList<>(multiValued ? 8 : 1);
+        match(parser, 0, values, all && multiValued);
+        return values;
+    }
+
+    /**
+     * Match the value the parser is positioned on against the segments from the given one.
+     * Leaves the parser on the last token of that value and returns true once the search can stop
+     */
+    private boolean match(JsonParser parser, int segmentIndex, List<String> values, boolean all) throws IOException {
+        if(segmentIndex == segments.length){
+            values.add(valueText(parser));
+            return !all;
+        }
+        Segment segment= segments[segmentIndex];
+        JsonToken token= parser.currentToken();
+        if(segment.field != null){
+            if(token != JsonToken.START_OBJECT){
+                parser.skipChildren();
+                return false;
+            }
+            while(parser.nextToken() == JsonToken.FIELD_NAME){
+                boolean onPath= segment.field.equals(parser.getCurrentName());
+                parser.nextToken();
+                if(!onPath){
+                    parser.skipChildren();
+                } else if(match(parser, segmentIndex + 1, values, all) || !multiValued){
+                    //without a wildcard there is a single place the value can be, found or not the search is over
+                    return true;
+                }
+            }
+            return false;
+        }
+        if(token != JsonToken.START_ARRAY){
+            parser.skipChildren();
+            return false;
+        }
+        int index= 0;
+        while(parser.nextToken() != JsonToken.END_ARRAY){
+            if(segment.index == WILDCARD){
+                if(match(parser, segmentIndex + 1, values, all)){
+                    return true;
+                }
+            } else if(segment.index == index){
+                if(match(parser, segmentIndex + 1, values, all) || !multiValued){
+                    return true;
+                }
+                //no other element of this array can match, skip the rest of it
+                while(parser.nextToken() != JsonToken.END_ARRAY){
+                    parser.skipChildren();
+                }
+                return false;
+            } else {
+                parser.skipChildren();
+            }
+            index++;
+        }
+        return false;
+    }
+
+    private static String valueText(JsonParser parser) throws IOException {
+        switch (parser.currentToken()){
+            case VALUE_NULL:
+                return null;
+            case START_OBJECT:
+            case START_ARRAY:
+                return parser.readValueAsTree().toString();
+            default:
+                return parser.getText();
+        }
+    }
+
+    private static final class Segment {
+
+        //null for an array index
+        private final String field;
+        private final int index;
+
+        private Segment(String field, int index){
+            this.field= field;
+            this.index= index;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.utils;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read a top level JSON array one element at a time with Jackson's streaming parser,
+ * so only the element currently being mapped is held in memory
+ */
+public final class JsonStreams {
+
+    private JsonStreams(){
+    }
+
+    /**
+     * Lazily map every element of the JSON array in the input stream to the given type.
+     * The returned stream must be closed (try-with-resources) to release the underlying input stream
+     */
+    public static <T> Stream<T> streamArray(InputStream inputStream, Class<T> type){
+        ObjectReader reader= JsonMappers.MAPPER.readerFor(type);
+        MappingIterator<T> iterator;
+        try {
+            //readValues unwraps the root level array and binds each element on demand
+            iterator= reader.readValues(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open JSON array stream", e);
+        }
+        Spliterator<T> spliterator= Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> {
+                    try {
+                        iterator.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+}
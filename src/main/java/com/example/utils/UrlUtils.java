@@ -0,0 +1,31 @@
+package com.example.utils;
+
+import java.net.URI;
+
+/**
+ * Helpers for turning the base_url/port config pair into request URLs
+ */
+public final class UrlUtils {
+
+    private UrlUtils(){
+    }
+
+    /**
+     * Base URL with the configured port applied when the URL itself does not carry one, without trailing slash
+     */
+    public static String baseUri(String baseUrl, int port){
+        URI uri= URI.create(baseUrl);
+        String base= baseUrl;
+        if(uri.getPort() == -1 && port > 0){
+            base= uri.getScheme() + "://" + uri.getHost() + ":" + port + (uri.getPath() == null ? "" : uri.getPath());
+        }
+        return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    /**
+     * Endpoint template with the {id} path param resolved
+     */
+    public static String path(String endpoint, int id){
+        return endpoint.replace("{id}", String.valueOf(id));
+    }
+}
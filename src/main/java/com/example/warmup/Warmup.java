@@ -0,0 +1,159 @@
+package com.example.warmup;
+
+import com.example.contract.JsonContract;
+import com.example.data.PersonGenerator;
+import com.example.fanout.Target;
+import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import com.example.utils.ConfigManager;
+import com.example.utils.JsonMappers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Pays the one-off costs of the first requests before any test is timed: Jackson's introspection of the model,
+ * the Person contract, RestAssured's Groovy runtime, the relaxed TLS setup and the connections of the helpers'
+ * pool, of which up to {@code connections} are left open by sending the requests from that many threads at once.
+ * Exchanges sent while {@link #isRunning()} are left out of the endpoint metrics and the traffic capture
+ */
+public class Warmup {
+
+    private static final ThreadLocal<Boolean> RUNNING= ThreadLocal.withInitial(() -> false);
+
+    private final PersonServiceHelper helper;
+    private final int requests;
+    private final int connections;
+    private final int personId;
+
+    /**
+     * @param helper helper whose transport is warmed, without read cache or resilience so neither learns from warm-up
+     * @param requests GETs of {@code personId} to send in total
+     * @param connections threads sending them, and so the most connections opened
+     */
+    public Warmup(PersonServiceHelper helper, int requests, int connections, int personId){
+        if(requests < 1 || connections < 1){
+            throw new IllegalArgumentException("Warm-up needs at least one request and one connection: " + requests + ", " + connections);
+        }
+        this.helper= helper;
+        this.requests= requests;
+        this.connections= Math.min(connections, requests);
+        this.personId= personId;
+    }
+
+    /**
+     * Warm-up of the target's pool as set by warmup.*, null unless warmup.enabled
+     */
+    public static Warmup fromConfig(Target target){
+        ConfigManager config= ConfigManager.getInstance();
+        if(!config.getBoolean("warmup.enabled", true)){
+            return null;
+        }
+        int connections= Math.min(config.getInt("warmup.connections", 4), config.getInt("http.pool.max_per_route", 32));
+        return new Warmup(new PersonServiceHelper(target, null, null),
+                config.getInt("warmup.requests", 20), connections, config.getInt("warmup.person_id", 1));
+    }
+
+    /**
+     * True on a thread sending warm-up traffic
+     */
+    public static boolean isRunning(){
+        return RUNNING.get();
+    }
+
+    /**
+     * Prime the client side paths and send the warm-up requests
+     * @return latency of every warm-up request in nanoseconds, in the order they completed
+     */
+    public long[] run(){
+        primeMapping();
+        JsonContract.fromConfig();
+
+        AtomicInteger remaining= new AtomicInteger(requests);
+        long[] latencies= new long[requests];
+        AtomicInteger completed= new AtomicInteger();
+        ExecutorService threads= Executors.newFixedThreadPool(connections, runnable -> {
+            Thread thread= new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Boolean>> futures= new ArrayList<>();
+            for(int i=0; i<connections; i++){
+                futures.add(threads.submit(() -> {
+                    RUNNING.set(true);
+                    try {
+                        boolean exists= false;
+                        while(remaining.getAndDecrement() > 0){
+                            long start= System.nanoTime();
+                            exists= helper.personExists(personId);
+                            latencies[completed.getAndIncrement()]= System.nanoTime() - start;
+                        }
+                        return exists;
+                    } finally {
+                        RUNNING.set(false);
+                    }
+                }));
+            }
+            boolean exists= false;
+            for(Future<Boolean> future : futures){
+                exists|= future.get();
+            }
+            if(exists){
+                //RestAssured maps bodies with its own ObjectMapper, prime that one and the contract check too
+                RUNNING.set(true);
+                try {
+                    helper.getPerson(personId);
+                } finally {
+                    RUNNING.set(false);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Warm-up interrupted", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof AssertionError){
+                throw (AssertionError) e.getCause();
+            }
+            throw new IllegalStateException("Warm-up request failed: " + e.getCause(), e.getCause());
+        } finally {
+            threads.shutdownNow();
+        }
+        return latencies;
+    }
+
+    /**
+     * One line summary of the latencies returned by {@link #run()}
+     */
+    public String summary(long[] latencies){
+        long[] sorted= latencies.clone();
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "Warm-up: %d requests over %d connections, first %.2f ms, median %.2f ms",
+                latencies.length, connections, latencies[0] / 1e6, sorted[sorted.length / 2] / 1e6);
+    }
+
+    /**
+     * Serializer and deserializer construction of the model types, on generated data
+     */
+    private static void primeMapping(){
+        try {
+            PersonGenerator generator= PersonGenerator.builder().seed(1).build();
+            List<Person> persons= generator.stream(16).collect(Collectors.toList());
+            JsonMappers.PERSON_LIST_READER.readValue(JsonMappers.PERSON_LIST_WRITER.writeValueAsBytes(persons));
+            JsonMappers.PERSON_READER.readValue(JsonMappers.PERSON_WRITER.writeValueAsBytes(persons.get(0)));
+            JsonMappers.EMPLOYEE_READER.readValue(JsonMappers.EMPLOYEE_WRITER.writeValueAsBytes(generator.employee(0)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to prime the JSON mapping", e);
+        }
+    }
+}
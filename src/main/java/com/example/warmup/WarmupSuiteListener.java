@@ -0,0 +1,33 @@
+package com.example.warmup;
+
+import com.example.fanout.Target;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Runs the {@link Warmup} of every target once per JVM, before the first suite and after the stub (if any) is up,
+ * so the first test of every class is timed like the rest. Disabled with warmup.enabled=false
+ */
+public class WarmupSuiteListener implements ISuiteListener {
+
+    private static volatile boolean warmed;
+
+    @Override
+    public void onStart(ISuite suite) {
+        if(warmed){
+            return;
+        }
+        warmed= true;
+        for(Target target : Target.fromConfig()){
+            try {
+                Warmup warmup= Warmup.fromConfig(target);
+                if(warmup != null){
+                    System.out.println(warmup.summary(warmup.run()) + (target.isDefault() ? "" : " on " + target.getName()));
+                }
+            } catch (Exception | AssertionError e) {
+                //unreachable service or unknown person id, the tests will report it on their own
+                System.out.println("Warm-up of " + target.getName() + " skipped: " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.test;
+
+import com.example.helpers.PersonServiceAsyncHelper;
+import com.example.model.Person;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+public class TestAsyncPerson {
+
+    private PersonServiceAsyncHelper personServiceAsyncHelper;
+
+    @BeforeClass
+    public void init(){
+        personServiceAsyncHelper=new PersonServiceAsyncHelper();
+    }
+
+    @Test
+    public void testGetEveryPersonConcurrently(){
+        List<Person> personList=personServiceAsyncHelper.getAllPerson().join();
+        Assert.assertFalse(personList.isEmpty(),"Person list is empty");
+
+        //one lookup per person, all of them in flight at the same time
+        List<CompletableFuture<Person>> lookups=personList.stream()
+                .map(person -> personServiceAsyncHelper.getPerson(person.getId()))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0])).join();
+
+        for(int i=0;i<personList.size();i++){
+            Assert.assertEquals(lookups.get(i).join().getId(),personList.get(i).getId(),"Person lookup returned another id");
+        }
+    }
+}
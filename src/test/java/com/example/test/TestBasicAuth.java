@@ -21,8 +21,7 @@ public class TestBasicAuth {
 
     @Test
     public void testingUnauthorizedAccess() {
-        RestAssured.useRelaxedHTTPSValidation();
-        RequestSpecification httpRequest = RestAssured.given();
+        RequestSpecification httpRequest = RestAssured.given().relaxedHTTPSValidation();
         Response res = httpRequest.get("https://postman-echo.com/basic-auth");
         ResponseBody body = res.body();
         //Converting the response body to string
@@ -35,8 +34,7 @@ public class TestBasicAuth {
      */
     @Test
     public void testingAuthorizedAccessUsingBasicAUTH() {
-        RestAssured.useRelaxedHTTPSValidation();
-        RequestSpecification httpRequest = RestAssured.given().auth().basic("postman", "password");
+        RequestSpecification httpRequest = RestAssured.given().relaxedHTTPSValidation().auth().basic("postman", "password");
         Response res = httpRequest.get("https://postman-echo.com/basic-auth");
         ResponseBody body = res.body();
         //Converting the response body to string
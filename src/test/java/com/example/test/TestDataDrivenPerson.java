@@ -0,0 +1,39 @@
+package com.example.test;
+
+import com.example.data.PersonDataProvider;
+import com.example.fixture.PersonFixtures;
+import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import com.example.utils.JsonPathExtractor;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Create one person per row of data.file, rows are streamed from the file and run in parallel
+ */
+public class TestDataDrivenPerson {
+
+    private static final JsonPathExtractor ID= JsonPathExtractor.compile("id");
+    private PersonServiceHelper personServiceHelper;
+    private PersonFixtures fixtures;
+
+    @BeforeClass
+    public void init(){
+        personServiceHelper=new PersonServiceHelper();
+        fixtures=new PersonFixtures(personServiceHelper);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown(){
+        //the rows carry their own ids, they are deleted so the next run can create them again
+        fixtures.teardown();
+    }
+
+    @Test(dataProvider = "persons", dataProviderClass = PersonDataProvider.class)
+    public void testCreatePersonFromData(Person person){
+        String id= ID.getString(fixtures.create(person));
+        Assert.assertEquals(id, String.valueOf(person.getId()), "Created id does not match the data row");
+    }
+}
@@ -1,20 +1,42 @@
 package com.example.test;
 
+import com.example.fixture.PersonFixtures;
 import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 public class TestDeletePerson {
 
     private PersonServiceHelper personServiceHelper;
+    private PersonFixtures fixtures;
 
     @BeforeClass
     public void init(){
         personServiceHelper=new PersonServiceHelper();
+        fixtures=new PersonFixtures(personServiceHelper);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown(){
+        fixtures.teardown();
     }
 
     @Test
     public void testDeletePerson(){
-       personServiceHelper.deletePerson(3);
+       //a person of our own, so parallel tests never lose theirs
+       Person person=new Person();
+       person.setAddress("New york");
+       person.setAge(23);
+       person.setFirstName("ZOLO");
+       person.setLastName("Muffin");
+       person.setPhoneNumber("4765772273");
+       fixtures.create(person);
+
+       personServiceHelper.deletePerson(person.getId());
+       fixtures.deleted(person.getId());
+       Assert.assertFalse(personServiceHelper.personExists(person.getId()),"Person is not deleted");
     }
 }
@@ -0,0 +1,142 @@
+package com.example.test;
+
+import com.example.constants.Endpoints;
+import com.example.fanout.FanoutListener;
+import com.example.fanout.FanoutReport;
+import com.example.fanout.Target;
+import com.example.metrics.EndpointMetrics;
+import com.example.metrics.LatencyHistogram;
+import com.example.stub.LatencyModel;
+import com.example.stub.PersonServiceStub;
+import com.example.utils.ConfigManager;
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fan-out of the suite over two embedded stubs, one of them slower: tests copied per target, helpers bound
+ * to their target and metrics kept apart
+ */
+public class TestFanout {
+
+    @Test
+    public void testTestsAreCopiedPerTarget(){
+        Map<String, String> saved=setTargets("http://a.example.com", 1001, "http://b.example.com", 1002);
+        try {
+            XmlSuite suite=new XmlSuite();
+            suite.setName("fanout");
+            suite.setParallel(XmlSuite.ParallelMode.CLASSES);
+            suite.setThreadCount(3);
+            XmlTest test=new XmlTest(suite);
+            test.setName("persons");
+            test.setXmlClasses(List.of(new XmlClass(TestGetAllPerson.class), new XmlClass(TestIntegration.class)));
+
+            new FanoutListener().alter(List.of(suite));
+            Assert.assertEquals(suite.getTests().size(),2,"Copies of the test");
+            Assert.assertEquals(suite.getParallel(),XmlSuite.ParallelMode.TESTS,"Suite parallel mode");
+            XmlTest b=suite.getTests().get(1);
+            Assert.assertEquals(b.getName(),"persons [b]","Copy name");
+            Assert.assertEquals(b.getParameter(FanoutListener.TARGET_PARAMETER),"b","Copy target");
+            Assert.assertEquals(b.getParallel(),XmlSuite.ParallelMode.CLASSES,"Copy keeps the parallel mode of its classes");
+            Assert.assertEquals(b.getThreadCount(),3,"Copy thread count");
+            Assert.assertEquals(b.getXmlClasses().size(),2,"Copied classes");
+            Assert.assertEquals(b.getXmlClasses().get(0).getAllParameters().get(FanoutListener.TARGET_PARAMETER),"b","Class parameters of the copy");
+
+            Target.bind(Target.named("b"));
+            try {
+                Assert.assertEquals(Target.current().getBaseUri(),"http://b.example.com:1002","Bound target");
+                Assert.assertSame(Target.current().getMetrics(),EndpointMetrics.forTarget("b"),"Metrics of the bound target");
+            } finally {
+                Target.bind(null);
+            }
+            Assert.assertTrue(Target.current().isDefault(),"Unbound thread is on the default target");
+        } finally {
+            restore(saved);
+        }
+    }
+
+    @Test
+    public void testFanoutRun() throws IOException {
+        try (PersonServiceStub fast=PersonServiceStub.builder().seed(3).build();
+             PersonServiceStub slow=PersonServiceStub.builder().seed(3).latency(LatencyModel.uniform(Duration.ofMillis(20), Duration.ofMillis(30))).build()) {
+            Map<String, String> saved=setTargets(fast.getBaseUrl(), fast.getPort(), slow.getBaseUrl(), slow.getPort());
+            try {
+                EndpointMetrics.forTarget("a").reset();
+                EndpointMetrics.forTarget("b").reset();
+                FanoutListener fanout=new FanoutListener();
+                TestNG testng=new TestNG();
+                Class<?>[] classes=new Class<?>[]{TestGetAllPerson.class, TestIntegration.class};
+                testng.setTestClasses(classes);
+                testng.setOutputDirectory(System.getProperty("java.io.tmpdir") + "/fanout-testng");
+                testng.setUseDefaultListeners(false);
+                //the outer run's listeners already did their part
+                testng.setListenersToSkipFromBeingWiredInViaServiceLoaders(FanoutListener.class.getName(),
+                        "com.example.metrics.MetricsSuiteListener", "com.example.stub.StubSuiteListener",
+                        "com.example.fixture.FixtureSuiteListener", "com.example.shard.ShardListener", "com.example.warmup.WarmupSuiteListener");
+                testng.addListener(fanout);
+                testng.run();
+
+                FanoutReport report=fanout.getReport();
+                Assert.assertNotNull(report,"Fan-out did not start");
+                //every test method of the classes runs once per target
+                long tests=Arrays.stream(classes).flatMap(type -> Arrays.stream(type.getMethods()))
+                        .filter(method -> method.isAnnotationPresent(Test.class)).count();
+                for(String target : List.of("a", "b")){
+                    Assert.assertEquals(report.getPassed(target),tests,"Tests passed on "+target);
+                    Assert.assertEquals(report.getFailed(target),0L,"Tests failed on "+target);
+                }
+                Assert.assertEquals(testng.getStatus(),0,"Fan-out run status");
+
+                LatencyHistogram fastGets=getAll(EndpointMetrics.forTarget("a"));
+                LatencyHistogram slowGets=getAll(EndpointMetrics.forTarget("b"));
+                Assert.assertEquals(fastGets.getCount(),slowGets.getCount(),"Same traffic on both targets");
+                Assert.assertTrue(slowGets.getValueAtPercentile(50) >= Duration.ofMillis(20).toNanos(),"Slow target latency");
+                Assert.assertEquals(fast.getPersons().size(),3,"Lifecycle persons left on the fast target");
+                Assert.assertEquals(slow.getPersons().size(),3,"Lifecycle persons left on the slow target");
+            } finally {
+                restore(saved);
+            }
+        }
+    }
+
+    private static LatencyHistogram getAll(EndpointMetrics metrics){
+        return metrics.snapshot().entrySet().stream()
+                .filter(e -> e.getKey().getMethod().equals("GET") && e.getKey().getEndpoint().equals(Endpoints.GET_ALL_PERSON) && e.getKey().getStatus() == 200)
+                .map(e -> e.getValue().getLatency())
+                .findFirst().orElseThrow(() -> new AssertionError("No GET /persons recorded"));
+    }
+
+    private static Map<String, String> setTargets(String aUrl, int aPort, String bUrl, int bPort){
+        Map<String, String> values=Map.of("fanout.targets", "a,b",
+                "fanout.a.base_url", aUrl, "fanout.a.port", String.valueOf(aPort),
+                "fanout.b.base_url", bUrl, "fanout.b.port", String.valueOf(bPort));
+        Map<String, String> saved=new HashMap<>();
+        values.forEach((key, value) -> {
+            saved.put(key, System.getProperty(key));
+            System.setProperty(key, value);
+        });
+        ConfigManager.getInstance().reload();
+        return saved;
+    }
+
+    private static void restore(Map<String, String> saved){
+        saved.forEach((key, value) -> {
+            if(value == null){
+                System.clearProperty(key);
+            } else {
+                System.setProperty(key, value);
+            }
+        });
+        ConfigManager.getInstance().reload();
+    }
+}
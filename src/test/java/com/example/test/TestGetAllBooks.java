@@ -1,43 +1,58 @@
 package com.example.test;
 
+import com.example.body.BodySpiller;
+import com.example.body.ResponseBody;
+import com.example.utils.JsonPathExtractor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.http.ContentType;
 import io.restassured.http.Method;
-import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import org.testng.Assert;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 public class TestGetAllBooks {
 
-    @BeforeTest
+    private static final JsonPathExtractor CITY = JsonPathExtractor.compile("City");
+
+    private RequestSpecification bookStoreSpec;
+
+    @BeforeClass
     public void setup(){
-        // Specify the base URL to the RESTful web service
-        RestAssured.baseURI="https://demoqa.com/BookStore/v1/Books";
-        //You may for example run into a SSLPeerUnverifiedException
-        // if the server is using an invalid certificate. The easiest way to workaround this is to use "relaxed HTTPs validation".
-        RestAssured.useRelaxedHTTPSValidation();
+        // Specify the base URL to the RESTful web service. Kept on a spec owned by this class instead of
+        // RestAssured.baseURI so it cannot leak into other classes running in parallel
+        bookStoreSpec = new RequestSpecBuilder()
+                .setBaseUri("https://demoqa.com/BookStore/v1/Books")
+                //You may for example run into a SSLPeerUnverifiedException
+                // if the server is using an invalid certificate. The easiest way to workaround this is to use "relaxed HTTPs validation".
+                .setRelaxedHTTPSValidation()
+                .build();
     }
     @Test
     public void GetBooksDetails() {
         // Get the RequestSpecification of the request to be sent to the server.
-        RequestSpecification httpRequest = RestAssured.given();
+        RequestSpecification httpRequest = RestAssured.given().spec(bookStoreSpec);
         // specify the method type (GET) and the parameters if any.
         //In this case the request does not take any parameters
         Response response = httpRequest.request(Method.GET, "");
         // Print the status and message body of the response received from the server
         System.out.println("Status received => " + response.getStatusLine());
-        System.out.println("Response=>" + response.prettyPrint());
+        // Print the body indented straight from its bytes, prettyPrint() would copy it into a String first.
+        // A large catalog is kept off heap while it is printed, see spill.* in config.properties
+        try (ResponseBody body = ResponseBody.of(response, BodySpiller.fromConfig())) {
+            System.out.print("Response=>");
+            body.prettyPrint(System.out);
+        }
 
     }
 
   @Test
   public void ValidateBookHeaders() {
-    RequestSpecification httpRequest = RestAssured.given();
+    RequestSpecification httpRequest = RestAssured.given().spec(bookStoreSpec);
     Response response = httpRequest.get("");
     // headers() : returns Headers
     // getHeader(): returns a Header
@@ -55,16 +70,14 @@ public class TestGetAllBooks {
     @Test
     public void VerifyCityInJsonResponse()
     {
-        RestAssured.baseURI = "https://restapi.demoqa.com/utilities/weather/city";
-        RequestSpecification httpRequest = RestAssured.given();
+        RequestSpecification httpRequest = RestAssured.given()
+                .baseUri("https://restapi.demoqa.com/utilities/weather/city")
+                .relaxedHTTPSValidation();
         Response response = httpRequest.get("/Hyderabad");
 
-        // First get the JsonPath object instance from the Response interface
-        JsonPath jsonPathEvaluator = response.jsonPath();
-
-        // Then simply query the JsonPath object to get a String value of the node
-        // specified by JsonPath: City (Note: You should not put $. in the Java code)
-        String city = jsonPathEvaluator.get("City");
+        // Read the City node with the compiled extractor, a single streaming pass over the body
+        // instead of parsing it into a Groovy tree and evaluating the GPath City
+        String city = CITY.getString(response);
 
         // Let us print the city variable to see what we got
         System.out.println("City received from Response " + city);
@@ -75,7 +88,6 @@ public class TestGetAllBooks {
 
   @Test
   public void UserRegistrationSuccessful() {
-    RestAssured.baseURI = "https://demoqa.com/Account/v1";
       // Create an object to ObjectMapper
       ObjectMapper objectMapper = new ObjectMapper();
 
@@ -107,6 +119,7 @@ public class TestGetAllBooks {
       RestAssured
               .given()
               .baseUri("https://restful-booker.herokuapp.com/booking")
+              .relaxedHTTPSValidation()
               .contentType(ContentType.JSON)
               // Pass JSON pay load directly
               .body(bookingDetails)
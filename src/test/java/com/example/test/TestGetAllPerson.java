@@ -7,6 +7,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 
 public class TestGetAllPerson {
@@ -25,4 +26,11 @@ public class TestGetAllPerson {
         Assert.assertFalse(personList.isEmpty(),"Person list is empty");
 
     }
+
+    @Test
+    public void testStreamAllPerson(){
+        try(Stream<Person> persons=personServiceHelper.streamAllPerson()){
+            Assert.assertTrue(persons.allMatch(person -> person.getId()!=null),"Person without id in the stream");
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package com.example.test;
+
+import com.example.constants.Endpoints;
+import com.example.model.Person;
+import com.example.stub.PersonServiceStub;
+import com.example.transport.HttpTransport;
+import com.example.utils.ConfigManager;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The same request spec sent over the APACHE and the JDK transport against the embedded persons service stub,
+ * on self-signed HTTPS with gzip: status, headers and body come out the same, and unread bodies do not starve the pool
+ */
+public class TestHttpTransports {
+
+    private static final String STORE_PASSWORD="changeit";
+    //a pool of its own per spec, so every test gets a transport built from its settings
+    private static final AtomicInteger POOLS=new AtomicInteger();
+
+    private SSLContext selfSigned;
+
+    @BeforeClass
+    public void createCertificate() throws Exception {
+        Path store=Files.createTempFile("stub-tls", ".p12");
+        Files.delete(store);
+        //a host name the stub is never reached by, so the host name check has to be off too
+        Process keytool=new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "stub", "-keyalg", "RSA", "-keysize", "2048", "-validity", "2", "-dname", "CN=stub.invalid",
+                "-storetype", "PKCS12", "-keystore", store.toString(), "-storepass", STORE_PASSWORD, "-keypass", STORE_PASSWORD)
+                .redirectErrorStream(true).start();
+        String output=new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        Assert.assertEquals(keytool.waitFor(),0,"keytool failed: "+output);
+        KeyStore keyStore=KeyStore.getInstance("PKCS12");
+        try (InputStream in=Files.newInputStream(store)) {
+            keyStore.load(in, STORE_PASSWORD.toCharArray());
+        } finally {
+            Files.delete(store);
+        }
+        KeyManagerFactory keys=KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keys.init(keyStore, STORE_PASSWORD.toCharArray());
+        selfSigned=SSLContext.getInstance("TLS");
+        selfSigned.init(keys.getKeyManagers(), null, null);
+    }
+
+    @DataProvider(name="transports")
+    public Object[][] transports(){
+        return new Object[][]{{"APACHE"}, {"JDK"}};
+    }
+
+    @Test(dataProvider="transports")
+    public void testSameSpecOnSelfSignedHttpsWithGzip(String transport) throws Exception {
+        try (PersonServiceStub stub=PersonServiceStub.builder().seed(3).gzip(true).https(selfSigned).build()) {
+            RequestSpecification spec=spec(stub, Map.of("http.transport", transport, "http.compression", "true"));
+
+            Response single=RestAssured.given().spec(spec).get(Endpoints.GET_ALL_PERSON + "/2");
+            Assert.assertEquals(single.getStatusCode(),200,transport+" status of GET /persons/2");
+            Assert.assertTrue(single.getContentType().startsWith("application/json"),transport+" content type "+single.getContentType());
+            Assert.assertNotNull(single.getHeader("ETag"),transport+" ETag header");
+            Assert.assertNotNull(single.getHeader("Server-Timing"),transport+" Server-Timing header");
+            //RestAssured's own client reports the headers as they came over the wire, the JDK transport those of the decoded body
+            if(transport.equals("JDK")){
+                Assert.assertNull(single.getHeader("Content-Encoding"),"Content-Encoding of the decoded body");
+                Assert.assertEquals(single.getHeader("Content-Length"),String.valueOf(single.asByteArray().length),"Content-Length of the decoded body");
+            } else {
+                Assert.assertEquals(single.getHeader("Content-Encoding"),"gzip","Content-Encoding on the wire");
+            }
+            Assert.assertEquals(single.as(Person.class).getId(),Integer.valueOf(2),transport+" id of the person");
+
+            Person person=new Person();
+            person.setId(10);
+            person.setFirstName("Transport");
+            Response created=RestAssured.given().spec(spec).body(person).post(Endpoints.GET_ALL_PERSON);
+            Assert.assertEquals(created.getStatusCode(),201,transport+" status of POST /persons");
+            Assert.assertEquals(created.as(Person.class).getFirstName(),"Transport",transport+" first name of the created person");
+
+            Response all=RestAssured.given().spec(spec).get(Endpoints.GET_ALL_PERSON);
+            Assert.assertEquals(all.jsonPath().getList("id").size(),4,transport+" persons after the create");
+        }
+    }
+
+    @Test(dataProvider="transports", timeOut=60000)
+    public void testUnreadBodiesReleaseConnections(String transport) throws Exception {
+        try (PersonServiceStub stub=PersonServiceStub.builder().seed(3).build()) {
+            RequestSpecification spec=spec(stub, Map.of("http.transport", transport, "http.version", "HTTP_1_1",
+                    "http.pool.max_connections", "2", "http.pool.max_per_route", "2"));
+            //ten times the pool, a connection held by an unread body would block the third request
+            for(int i=0;i<20;i++){
+                Assert.assertEquals(RestAssured.given().spec(spec).get(Endpoints.GET_ALL_PERSON + "/404").getStatusCode(),404,transport+" status of request "+i);
+            }
+        }
+    }
+
+    @Test
+    public void testJdkTransportRefusesChallengeAuth() throws Exception {
+        try (PersonServiceStub stub=PersonServiceStub.builder().seed(3).build()) {
+            RequestSpecification spec=spec(stub, Map.of("http.transport", "JDK"));
+            Assert.assertThrows(UnsupportedOperationException.class,
+                    () -> RestAssured.given().spec(spec).auth().basic("user", "secret").get(Endpoints.GET_ALL_PERSON));
+            Assert.assertEquals(RestAssured.given().spec(spec).auth().preemptive().basic("user", "secret").get(Endpoints.GET_ALL_PERSON).getStatusCode(),
+                    200,"Status with preemptive basic auth");
+        }
+    }
+
+    /**
+     * The spec the way PersonServiceHelper builds it, on a transport of its own built with the settings
+     */
+    private static RequestSpecification spec(PersonServiceStub stub, Map<String, String> settings){
+        Map<String, String> saved=set(settings);
+        try {
+            RequestSpecBuilder builder=new RequestSpecBuilder();
+            HttpTransport.fromConfig("transport-test-"+POOLS.incrementAndGet()).configure(builder);
+            return builder.setBaseUri(stub.getBaseUrl())
+                    .setPort(stub.getPort())
+                    .setRelaxedHTTPSValidation()
+                    .setContentType(ContentType.JSON)
+                    //set by the JDK client itself, the transport must leave it out
+                    .addHeader("Connection", "keep-alive")
+                    .build();
+        } finally {
+            restore(saved);
+        }
+    }
+
+    private static Map<String, String> set(Map<String, String> values){
+        Map<String, String> saved=new HashMap<>();
+        values.forEach((key, value) -> {
+            saved.put(key, System.getProperty(key));
+            System.setProperty(key, value);
+        });
+        ConfigManager.getInstance().reload();
+        return saved;
+    }
+
+    private static void restore(Map<String, String> saved){
+        saved.forEach((key, value) -> {
+            if(value == null){
+                System.clearProperty(key);
+            } else {
+                System.setProperty(key, value);
+            }
+        });
+        ConfigManager.getInstance().reload();
+    }
+}
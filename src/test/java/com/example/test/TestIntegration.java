@@ -1,5 +1,17 @@
 package com.example.test;
 
+import com.example.fixture.PersonFixtures;
+import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import com.example.scenario.Scenario;
+import com.example.scenario.ScenarioReport;
+import com.example.scenario.ScenarioRunner;
+import com.example.utils.JsonPathExtractor;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
 
 /**
  * 1. Create a new person
@@ -10,4 +22,75 @@ package com.example.test;
  * 6. Verify if deleted
  */
 public class TestIntegration {
+
+    private static final JsonPathExtractor ID= JsonPathExtractor.compile("id");
+
+    private PersonServiceHelper personServiceHelper;
+    private PersonFixtures fixtures;
+
+    @BeforeClass
+    public void init(){
+        personServiceHelper=new PersonServiceHelper();
+        fixtures=new PersonFixtures(personServiceHelper);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown(){
+        //only persons of failed instances are left
+        fixtures.teardown();
+    }
+
+    @Test
+    public void testPersonLifecycle(){
+        ScenarioReport report=new ScenarioRunner(1).runOnce(personLifecycle());
+        System.out.println(report);
+        Assert.assertTrue(report.isPassed(),"Person lifecycle failed: "+report.getFailures());
+    }
+
+    @Test
+    public void testConcurrentPersonLifecycle(){
+        //independent persons, so the instances can run side by side
+        ScenarioReport report=new ScenarioRunner(8).run(personLifecycle(), 50);
+        System.out.println(report);
+        Assert.assertTrue(report.isPassed(),"Concurrent person lifecycle failed: "+report.getFailures());
+        Assert.assertEquals(report.getInstances().getPassed(),50,"Completed instances");
+    }
+
+    /**
+     * Every instance works on a person with a fresh fixture id
+     */
+    private Scenario personLifecycle(){
+        return Scenario.builder("person-lifecycle")
+                .step("create", context -> fixtures.create(person("ZOLO")), "id", ID)
+                .step("verify-created", context -> {
+                    Person person=personServiceHelper.getPerson(context.getInt("id"));
+                    Assert.assertEquals(person.getFirstName(),"ZOLO","Created person first name");
+                })
+                .step("update", context -> {
+                    Person patch=new Person();
+                    patch.setFirstName("Kaito");
+                    personServiceHelper.updatePerson(context.getInt("id"), patch);
+                })
+                .step("verify-updated", context -> {
+                    Person person=personServiceHelper.getPerson(context.getInt("id"));
+                    Assert.assertEquals(person.getFirstName(),"Kaito","Person is not updated");
+                })
+                .step("delete", context -> {
+                    personServiceHelper.deletePerson(context.getInt("id"));
+                    fixtures.deleted(context.getInt("id"));
+                })
+                .step("verify-deleted", context ->
+                        Assert.assertFalse(personServiceHelper.personExists(context.getInt("id")),"Person is not deleted"))
+                .build();
+    }
+
+    private static Person person(String firstName){
+        Person person=new Person();
+        person.setAddress("New york");
+        person.setAge(23);
+        person.setFirstName(firstName);
+        person.setLastName("Muffin");
+        person.setPhoneNumber("4765772273");
+        return person;
+    }
 }
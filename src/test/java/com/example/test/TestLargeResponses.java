@@ -0,0 +1,149 @@
+package com.example.test;
+
+import com.example.body.BodySpiller;
+import com.example.body.ResponseBody;
+import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import com.example.stub.PersonServiceStub;
+import com.example.utils.ConfigManager;
+import com.example.utils.JsonMappers;
+import com.example.utils.JsonPathExtractor;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Large /persons bodies spilled off heap against the embedded persons service stub: the spilled body reads, maps
+ * and hashes the same as the buffered one, on both transports, and the temp file goes away once it is closed
+ */
+public class TestLargeResponses {
+
+    private static final JsonPathExtractor IDS=JsonPathExtractor.compile("[*].id");
+    private static final JsonPathExtractor LAST_FIRST_NAME=JsonPathExtractor.compile("[4999].firstName");
+
+    @DataProvider(name="spill")
+    public Object[][] spill(){
+        return new Object[][]{{"FILE", "APACHE"}, {"DIRECT", "JDK"}};
+    }
+
+    @Test(dataProvider="spill")
+    public void testSpilledBodyMatchesBufferedBody(String mode, String transport) throws IOException {
+        try (PersonServiceStub stub=PersonServiceStub.builder().seed(5000).build()) {
+            Map<String, String> saved=set(Map.of("spill.enabled", "false"));
+            PersonServiceHelper bufferedHelper;
+            try {
+                bufferedHelper=new PersonServiceHelper(stub.getBaseUrl(), stub.getPort(), null, null);
+            } finally {
+                restore(saved);
+            }
+            saved=set(Map.of("spill.enabled", "true", "spill.threshold", "65536", "spill.mode", mode, "http.transport", transport));
+            PersonServiceHelper spillingHelper;
+            try {
+                spillingHelper=new PersonServiceHelper(stub.getBaseUrl(), stub.getPort(), null, null);
+            } finally {
+                restore(saved);
+            }
+
+            Path file;
+            try (ResponseBody buffered=bufferedHelper.getAllPersonBody(); ResponseBody spilled=spillingHelper.getAllPersonBody()) {
+                file=spilled.getFile();
+                Assert.assertFalse(buffered.isSpilled(),"Body read without spill.enabled is off heap");
+                Assert.assertTrue(spilled.isSpilled(),"Body above the threshold was kept on the heap");
+                Assert.assertTrue(spilled.size() > 65536,"Body size "+spilled.size());
+                Assert.assertEquals(file != null,mode.equals("FILE"),"Temp file of a "+mode+" body");
+                Assert.assertEquals(spilled.size(),buffered.size(),"Body size");
+                Assert.assertEquals(spilled.crc32(),buffered.crc32(),"CRC32 of the body");
+                Assert.assertEquals(spilled.sha256(),buffered.sha256(),"SHA-256 of the body");
+
+                Assert.assertEquals(spilled.getStrings(IDS).size(),5000,"Ids on the path");
+                Assert.assertEquals(spilled.getString(LAST_FIRST_NAME),buffered.getString(LAST_FIRST_NAME),"First name of the last person");
+                List<Person> persons=spilled.read(JsonMappers.PERSON_LIST_READER);
+                Assert.assertEquals(persons.size(),5000,"Mapped persons");
+                try (Stream<Person> stream=spilled.streamArray(Person.class)) {
+                    Assert.assertEquals(stream.filter(person -> person.getId() > 4990).count(),10L,"Streamed persons");
+                }
+                //read twice, from the same buffer
+                persons=spilled.read(JsonMappers.PERSON_LIST_READER);
+                Assert.assertEquals(persons.size(),5000,"Mapped persons on a second read");
+            }
+            if(file != null){
+                Assert.assertFalse(Files.exists(file),"Temp file left after close");
+            }
+            Assert.assertEquals(spillingHelper.getAllPerson().size(),5000,"Persons of getAllPerson on the spilled body");
+        }
+    }
+
+    @Test
+    public void testSmallBodyStaysOnHeap() throws IOException {
+        try (PersonServiceStub stub=PersonServiceStub.builder().seed(3).build()) {
+            Map<String, String> saved=set(Map.of("spill.enabled", "true", "spill.threshold", "1048576"));
+            PersonServiceHelper personServiceHelper;
+            try {
+                personServiceHelper=new PersonServiceHelper(stub.getBaseUrl(), stub.getPort(), null, null);
+            } finally {
+                restore(saved);
+            }
+            try (ResponseBody body=personServiceHelper.getAllPersonBody()) {
+                Assert.assertFalse(body.isSpilled(),"Body below the threshold was spilled");
+                Assert.assertNull(body.getFile(),"Temp file of a body on the heap");
+                Assert.assertEquals(body.getStrings(IDS),List.of("1","2","3"),"Ids on the path");
+            }
+            Assert.assertEquals(personServiceHelper.getAllPerson().size(),3,"Persons of getAllPerson");
+        }
+    }
+
+    @Test
+    public void testBodyOfUnknownLength() throws IOException {
+        Path directory=Files.createTempDirectory("spill-test");
+        byte[] bytes="[1,2,3,4,5,6,7,8,9,10]".getBytes(StandardCharsets.UTF_8);
+        String sha256=ResponseBody.of(bytes).sha256();
+
+        for(BodySpiller.Mode mode : BodySpiller.Mode.values()){
+            try (ResponseBody body=new BodySpiller(bytes.length, mode, directory).read(new ByteArrayInputStream(bytes), -1)) {
+                Assert.assertFalse(body.isSpilled(),mode+" body of exactly the threshold was spilled");
+            }
+            //the 8 byte first direct buffer has to grow while the body is read
+            try (ResponseBody body=new BodySpiller(3, mode, directory).read(new ByteArrayInputStream(bytes), -1)) {
+                Assert.assertTrue(body.isSpilled(),mode+" body above the threshold was kept on the heap");
+                Assert.assertEquals(body.size(),bytes.length,mode+" body size");
+                Assert.assertEquals(body.sha256(),sha256,mode+" SHA-256 of the body");
+                Assert.assertEquals(body.getInt(JsonPathExtractor.compile("[9]")),Integer.valueOf(10),mode+" last element");
+            }
+        }
+        try (Stream<Path> files=Files.list(directory)) {
+            Assert.assertEquals(files.count(),0L,"Temp files left after close");
+        }
+        Files.delete(directory);
+    }
+
+    private static Map<String, String> set(Map<String, String> values){
+        Map<String, String> saved=new HashMap<>();
+        values.forEach((key, value) -> {
+            saved.put(key, System.getProperty(key));
+            System.setProperty(key, value);
+        });
+        ConfigManager.getInstance().reload();
+        return saved;
+    }
+
+    private static void restore(Map<String, String> saved){
+        saved.forEach((key, value) -> {
+            if(value == null){
+                System.clearProperty(key);
+            } else {
+                System.setProperty(key, value);
+            }
+        });
+        ConfigManager.getInstance().reload();
+    }
+}
@@ -1,31 +1,50 @@
 package com.example.test;
 
+import com.example.fixture.PersonFixtures;
 import com.example.helpers.PersonServiceHelper;
 import com.example.model.Person;
+import com.example.utils.JsonPathExtractor;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 public class TestPatchPerson {
+
+    private static final JsonPathExtractor ID= JsonPathExtractor.compile("id");
     private PersonServiceHelper personServiceHelper;
+    private PersonFixtures fixtures;
 
     @BeforeClass
     public void init(){
         personServiceHelper=new PersonServiceHelper();
+        fixtures=new PersonFixtures(personServiceHelper);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown(){
+        fixtures.teardown();
     }
 
     @Test
     public void testPatchPerson(){
+        Person existing=new Person();
+        existing.setAddress("Boston, MA");
+        existing.setAge(31);
+        existing.setFirstName("Kaito");
+        existing.setLastName("Lane");
+        existing.setPhoneNumber("4765772274");
+        fixtures.create(existing);
 
         Person person=new Person();
         person.setAddress("New york");
         person.setAge(23);
-        person.setId(4);
+        person.setId(existing.getId());
         person.setFirstName("ZOLO");
         person.setLastName("Muffin");
         person.setPhoneNumber("4765772273");
 
-        String id=personServiceHelper.updatePerson(3, person).jsonPath().getString("id");
+        String id=ID.getString(personServiceHelper.updatePerson(existing.getId(), person));
         Assert.assertNotNull(id,"Person List is updated");
     }
 }
@@ -0,0 +1,73 @@
+package com.example.test;
+
+import com.example.contract.ContractResult;
+import com.example.contract.JsonContract;
+import com.example.data.PersonGenerator;
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Person contract checks on hand written bodies and generated arrays
+ */
+public class TestPersonContract {
+
+    private static final JsonContract CONTRACT= JsonContract.compile(Person.class, List.of("id", "firstName"), 5);
+
+    @Test
+    public void testValidPersons() throws IOException {
+        List<Person> persons=PersonGenerator.builder().seed(1).build().stream(1000).collect(Collectors.toList());
+        ContractResult result=CONTRACT.validateArray(JsonMappers.PERSON_LIST_WRITER.writeValueAsBytes(persons));
+        Assert.assertTrue(result.isValid(),"Generated persons: "+result);
+        Assert.assertEquals(result.getChecked(),1000L,"Persons checked");
+
+        //optional properties may be left out or null
+        Assert.assertTrue(CONTRACT.validate(bytes("{\"firstName\":\"ZOLO\",\"age\":null,\"id\":4}")).isValid(),"Partial person");
+    }
+
+    @Test
+    public void testViolations(){
+        ContractResult result=CONTRACT.validate(bytes("{\"firstName\":7,\"age\":\"23\",\"nickname\":{\"a\":[1]},\"address\":\"x\",\"lastName\":\"Muffin\"}"));
+        Assert.assertEquals(result.getViolations(),List.of(
+                "$.firstName: expected a string but found an integer",
+                "$.age: expected a 32 bit integer but found a string",
+                "$.nickname: unexpected property, it would land in additionalProperties",
+                "$.id: required property is missing"),"Violations");
+        Assert.assertEquals(result.getWarnings(),List.of("$.lastName: out of order, expected before address"),"Warnings");
+
+        //property order only counts when the contract is strict about it
+        String reordered="{\"id\":4,\"firstName\":\"ZOLO\"}";
+        Assert.assertTrue(CONTRACT.validate(bytes(reordered)).isValid(),"Reordered person");
+        Assert.assertEquals(JsonContract.compile(Person.class, List.of("id", "firstName"), 5, true).validate(bytes(reordered)).getViolations(),
+                List.of("$.firstName: out of order, expected before id"),"Reordered person on a strict contract");
+        Assert.assertFalse(CONTRACT.validate(bytes("{\"firstName\":\"a\",\"id\":3000000000}")).isValid(),"Id above the int range");
+        Assert.assertEquals(CONTRACT.validateArray(bytes("{\"id\":1}")).getViolations(),
+                List.of("$: expected an array of Person but found an object"),"Object instead of array");
+        Assert.assertTrue(CONTRACT.validate(bytes("{\"firstName\":\"a\",\"id\":")).getViolations().get(0).startsWith("$: malformed JSON"),"Cut off body");
+    }
+
+    @Test
+    public void testErrorCapStopsTheStreamingPass(){
+        StringBuilder body=new StringBuilder("[");
+        for(int i=0;i<100_000;i++){
+            body.append(i == 0 ? "" : ",").append("{\"firstName\":\"a\",\"id\":").append(i).append(i % 1000 == 999 ? ",\"extra\":1}" : "}");
+        }
+        body.append("]");
+        ContractResult result=CONTRACT.validateArray(new ByteArrayInputStream(bytes(body.toString())));
+        Assert.assertEquals(result.getViolations().size(),5,"Violations kept");
+        Assert.assertTrue(result.isTruncated(),"Cap was not reported");
+        Assert.assertEquals(result.getChecked(),5000L,"Persons checked before the cap");
+        Assert.assertEquals(result.getViolations().get(0),"$[999].extra: unexpected property, it would land in additionalProperties","First violation");
+    }
+
+    private static byte[] bytes(String json){
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
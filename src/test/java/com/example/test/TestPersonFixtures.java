@@ -0,0 +1,66 @@
+package com.example.test;
+
+import com.example.fixture.IdAllocator;
+import com.example.fixture.PersonFixtures;
+import com.example.helpers.BulkDeleteResult;
+import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import com.example.stub.PersonServiceStub;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Fixture ids and batched teardown against the embedded persons service stub
+ */
+public class TestPersonFixtures {
+
+    private PersonServiceStub stub;
+    private PersonServiceHelper personServiceHelper;
+
+    @BeforeClass
+    public void init() throws IOException {
+        stub=PersonServiceStub.builder().seed(3).build();
+        personServiceHelper=new PersonServiceHelper(stub.getBaseUrl(), stub.getPort());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown(){
+        stub.close();
+    }
+
+    @Test
+    public void testIdsAreUniqueAcrossThreads(){
+        IdAllocator ids=new IdAllocator(1000, 10000);
+        Set<Integer> allocated=ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 10000).parallel().forEach(i -> Assert.assertTrue(allocated.add(ids.allocate()),"Id handed out twice"));
+        Assert.assertTrue(allocated.stream().allMatch(ids::owns),"Id outside of the block");
+        Assert.assertThrows(IllegalStateException.class, ids::allocate);
+    }
+
+    @Test
+    public void testTeardownDeletesEveryCreatedPerson(){
+        PersonFixtures fixtures=new PersonFixtures(personServiceHelper, new IdAllocator(2000, 100), 4);
+        for(int i=0;i<20;i++){
+            Person person=new Person();
+            person.setFirstName("ZOLO");
+            fixtures.create(person);
+        }
+        Assert.assertEquals(fixtures.getCreated(getClass().getName()+".testTeardownDeletesEveryCreatedPerson").size(),20,"Persons recorded for the test");
+        //deleted by the test itself, teardown has to cope with it either way
+        personServiceHelper.deletePerson(2000);
+        Assert.assertEquals(stub.getPersons().size(),3+19,"Persons before teardown");
+
+        List<BulkDeleteResult> failed=fixtures.teardown();
+        Assert.assertTrue(failed.isEmpty(),"Failed deletes: "+failed);
+        Assert.assertEquals(stub.getPersons().keySet(),Set.of(1,2,3),"Persons after teardown");
+        Assert.assertEquals(fixtures.getLiveCount(),0,"Persons left to delete");
+    }
+}
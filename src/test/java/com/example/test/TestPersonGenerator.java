@@ -0,0 +1,116 @@
+package com.example.test;
+
+import com.example.data.FieldSize;
+import com.example.data.PersonFeeder;
+import com.example.data.PersonGenerator;
+import com.example.model.EmployeeDetails;
+import com.example.model.Person;
+import com.example.utils.JsonMappers;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reproducibility, uniqueness and field sizes of the synthetic persons, and their round trip through PersonFeeder
+ */
+public class TestPersonGenerator {
+
+    private static PersonGenerator.Builder generator(){
+        return PersonGenerator.builder().seed(7);
+    }
+
+    @Test
+    public void testSameSeedGivesSamePersons(){
+        PersonGenerator first=generator().build();
+        PersonGenerator second=generator().build();
+        //any order and any thread gives the same records
+        List<String> sequential=first.stream(1000).map(TestPersonGenerator::json).collect(Collectors.toList());
+        List<String> parallel=second.stream(1000).parallel().map(TestPersonGenerator::json).collect(Collectors.toList());
+        Assert.assertEquals(parallel,sequential,"Generated persons differ between runs");
+        Assert.assertEquals(json(second.person(500)),sequential.get(500),"Single record differs");
+        Assert.assertNotEquals(json(generator().seed(8).build().person(500)),sequential.get(500),"Seed is ignored");
+
+        EmployeeDetails employee=first.employee(3);
+        Assert.assertEquals(employee.getSalary(),second.employee(3).getSalary(),"Employee salary differs");
+        Assert.assertTrue(employee.getName().startsWith(first.person(3).getFirstName()+" "),"Employee name: "+employee.getName());
+    }
+
+    @Test
+    public void testIdsAndPhoneNumbersAreUnique(){
+        int count=200_000;
+        PersonGenerator generator=generator().shuffledIds(1000, count).build();
+        BitSet ids=new BitSet();
+        Set<String> phones=new HashSet<>();
+        Iterator<Person> persons=generator.iterator(0, count);
+        while(persons.hasNext()){
+            Person person=persons.next();
+            int id=person.getId()-1000;
+            Assert.assertTrue(id >= 0 && id < count,"Id outside of the id space: "+person.getId());
+            Assert.assertFalse(ids.get(id),"Id handed out twice: "+person.getId());
+            ids.set(id);
+            Assert.assertTrue(phones.add(person.getPhoneNumber()),"Phone number handed out twice: "+person.getPhoneNumber());
+            Assert.assertEquals(person.getPhoneNumber().length(),10,"Phone number length");
+        }
+        Assert.assertEquals(ids.cardinality(),count,"Ids used");
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.person(count));
+    }
+
+    @Test
+    public void testFieldSizesFollowTheDistribution(){
+        PersonGenerator generator=generator()
+                .firstNameSize(FieldSize.fixed(12))
+                .lastNameSize(FieldSize.uniform(3, 5))
+                .addressSize(FieldSize.logNormal(100, 1000))
+                .build();
+        int[] addressLengths=generator.stream(10_000).mapToInt(person -> {
+            Assert.assertEquals(person.getFirstName().length(),12,"First name length");
+            int lastName=person.getLastName().length();
+            Assert.assertTrue(lastName >= 3 && lastName <= 5,"Last name length "+lastName);
+            Assert.assertTrue(Character.isUpperCase(person.getFirstName().charAt(0)),"Name is not capitalized: "+person.getFirstName());
+            return person.getAddress().length();
+        }).sorted().toArray();
+        int median=addressLengths[addressLengths.length / 2];
+        int p99=addressLengths[addressLengths.length * 99 / 100];
+        Assert.assertTrue(median > 90 && median < 110,"Address median length "+median);
+        Assert.assertTrue(p99 > 800 && p99 < 1250,"Address p99 length "+p99);
+    }
+
+    @Test
+    public void testFilesReadBackThroughFeeder() throws IOException {
+        PersonGenerator generator=generator().build();
+        Path ndjson=Files.createTempFile("persons", ".ndjson");
+        Path csv=Files.createTempFile("persons", ".csv");
+        try {
+            Assert.assertEquals(generator.writeNdjson(ndjson, 5000),5000L,"NDJSON records written");
+            Assert.assertEquals(generator.writeCsv(csv, 5000),5000L,"CSV records written");
+            List<String> expected=generator.stream(5000).map(TestPersonGenerator::json).collect(Collectors.toList());
+            try (Stream<Person> persons=PersonFeeder.of(ndjson).stream()) {
+                Assert.assertEquals(persons.map(TestPersonGenerator::json).collect(Collectors.toList()),expected,"NDJSON rows");
+            }
+            try (Stream<Person> persons=PersonFeeder.of(csv).stream()) {
+                Assert.assertEquals(persons.map(TestPersonGenerator::json).collect(Collectors.toList()),expected,"CSV rows");
+            }
+        } finally {
+            Files.deleteIfExists(ndjson);
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    private static String json(Person person){
+        try {
+            return JsonMappers.PERSON_WRITER.writeValueAsString(person);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.test;
+
+import com.example.load.LoadGenerator;
+import com.example.load.LoadProfile;
+import com.example.load.LoadReport;
+import com.example.utils.ConfigManager;
+import com.example.utils.ConfigSnapshot;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.function.Consumer;
+
+/**
+ * Open model load run against the persons service using the load.* settings of config.properties.
+ * Only runs with -Dload.enabled=true so that the functional suite does not put load on the service
+ */
+public class TestPersonLoad {
+
+    @Test
+    public void testPersonLoad() throws InterruptedException {
+        ConfigManager config= ConfigManager.getInstance();
+        if(!config.getBoolean("load.enabled", false)){
+            throw new SkipException("Load mode is disabled, run with -Dload.enabled=true");
+        }
+        LoadGenerator generator= new LoadGenerator(LoadProfile.fromConfig());
+        //with -Dconfig.watch=true a changed load.rate in config.properties applies to the running test
+        Consumer<ConfigSnapshot> rateListener= snapshot -> generator.setTargetRate(snapshot.getDouble("load.rate"));
+        config.addListener(rateListener);
+        LoadReport report;
+        try {
+            report= generator.run();
+        } finally {
+            config.removeListener(rateListener);
+        }
+        System.out.println(report);
+        Assert.assertTrue(report.getTotalCompleted() > 0, "No request completed");
+        Assert.assertTrue(report.isComplete(), report.getUnfinished() + " requests still in flight after the run");
+    }
+}
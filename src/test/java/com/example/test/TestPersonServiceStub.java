@@ -0,0 +1,128 @@
+package com.example.test;
+
+import com.example.helpers.PersonReadCache;
+import com.example.helpers.PersonServiceHelper;
+import com.example.model.Person;
+import com.example.stub.LatencyModel;
+import com.example.stub.PersonServiceStub;
+import com.example.utils.JsonPathExtractor;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Every Endpoints route against the embedded persons service stub, no external service needed
+ */
+public class TestPersonServiceStub {
+
+    private static final JsonPathExtractor ID= JsonPathExtractor.compile("id");
+    private static final JsonPathExtractor FIRST_NAME= JsonPathExtractor.compile("firstName");
+
+    private PersonServiceStub stub;
+    private PersonServiceHelper personServiceHelper;
+
+    @BeforeClass
+    public void init() throws IOException {
+        stub=PersonServiceStub.builder()
+                .seed(3)
+                .latency(LatencyModel.uniform(Duration.ofMillis(1), Duration.ofMillis(5)))
+                .build();
+        personServiceHelper=new PersonServiceHelper(stub.getBaseUrl(), stub.getPort());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown(){
+        stub.close();
+    }
+
+    @Test
+    public void testPersonLifecycle(){
+        Person person=new Person();
+        person.setAddress("New york");
+        person.setAge(23);
+        person.setId(40);
+        person.setFirstName("ZOLO");
+        person.setLastName("Muffin");
+        person.setPhoneNumber("4765772273");
+
+        String id=ID.getString(personServiceHelper.createPerson(person));
+        Assert.assertEquals(id,"40","Created id does not match");
+
+        Person patch=new Person();
+        patch.setFirstName("Kaito");
+        String firstName=FIRST_NAME.getString(personServiceHelper.updatePerson(40, patch));
+        Assert.assertEquals(firstName,"Kaito","Person is not updated");
+        Assert.assertEquals(stub.getPersons().get(40).getLastName(),"Muffin","Patch removed untouched fields");
+
+        List<Person> personList=personServiceHelper.getAllPerson();
+        Assert.assertEquals(personList.size(),4,"Person list size");
+
+        personServiceHelper.deletePerson(40);
+        Assert.assertFalse(stub.getPersons().containsKey(40),"Person is not deleted");
+    }
+
+    @Test
+    public void testReadCacheRevalidates() throws IOException {
+        try(PersonServiceStub cached=PersonServiceStub.builder().seed(3).build()){
+            PersonReadCache readCache=new PersonReadCache(100, Duration.ofMinutes(1));
+            PersonServiceHelper helper=new PersonServiceHelper(cached.getBaseUrl(), cached.getPort(), readCache);
+
+            List<Person> first=helper.getAllPerson();
+            Assert.assertSame(helper.getAllPerson(),first,"Unchanged list was not served from the cache");
+            Assert.assertSame(helper.getPerson(2),helper.getPerson(2),"Unchanged person was not served from the cache");
+            Assert.assertEquals(readCache.getHitCount(),2,"Cache hits");
+
+            Person patch=new Person();
+            patch.setFirstName("Kaito");
+            helper.updatePerson(2, patch);
+            Assert.assertEquals(helper.getPerson(2).getFirstName(),"Kaito","Updated person was served from the cache");
+            Assert.assertEquals(helper.getAllPerson().get(1).getFirstName(),"Kaito","Updated list was served from the cache");
+            Assert.assertEquals(readCache.getHitCount(),2,"Cache hits after the update");
+        }
+    }
+
+    @Test
+    public void testBulkCreateWaitsForSentRequestsWhenTheIteratorFails() throws IOException {
+        try(PersonServiceStub slow=PersonServiceStub.builder().latency(LatencyModel.uniform(Duration.ofMillis(50), Duration.ofMillis(60))).build()){
+            Iterator<Person> failing=new Iterator<>() {
+                private int next=100;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public Person next() {
+                    if(next == 103){
+                        throw new UncheckedIOException(new IOException("Broken data file"));
+                    }
+                    Person person=new Person();
+                    person.setId(next++);
+                    return person;
+                }
+            };
+            AtomicInteger results=new AtomicInteger();
+            Assert.assertThrows(UncheckedIOException.class,
+                    () -> new PersonServiceHelper(slow.getBaseUrl(), slow.getPort()).createPersons(failing, 2, result -> results.incrementAndGet()));
+            Assert.assertEquals(results.get(),3,"Results of the persons sent before the iterator failed");
+        }
+    }
+
+    @Test
+    public void testInjectedErrors() throws IOException {
+        try(PersonServiceStub failing=PersonServiceStub.builder().errorRate(1.0, 503).build()){
+            int status=new PersonServiceHelper(failing.getBaseUrl(), failing.getPort())
+                    .createPersons(List.of(new Person()), 1).get(0).getStatusCode();
+            Assert.assertEquals(status,503,"Error was not injected");
+        }
+    }
+}
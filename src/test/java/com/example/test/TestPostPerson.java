@@ -1,19 +1,34 @@
 package com.example.test;
 
+import com.example.fixture.PersonFixtures;
+import com.example.helpers.BulkCreateResult;
 import com.example.helpers.PersonServiceHelper;
 import com.example.model.Person;
+import com.example.utils.JsonPathExtractor;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TestPostPerson {
 
+    private static final JsonPathExtractor ID= JsonPathExtractor.compile("id");
 
     private PersonServiceHelper personServiceHelper;
+    private PersonFixtures fixtures;
 
     @BeforeClass
     public void init(){
         personServiceHelper=new PersonServiceHelper();
+        fixtures=new PersonFixtures(personServiceHelper);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown(){
+        fixtures.teardown();
     }
 
     @Test
@@ -21,13 +36,34 @@ public class TestPostPerson {
         Person person=new Person();
         person.setAddress("New york");
         person.setAge(23);
-        person.setId(4);
         person.setFirstName("ZOLO");
         person.setLastName("Muffin");
         person.setPhoneNumber("4765772273");
 
-        String id= personServiceHelper.createPerson(person).jsonPath().getString("id");
+        String id= ID.getString(fixtures.create(person));
         Assert.assertNotNull(id,"Id is null");
 
     }
+
+    @Test
+    public void testCreatePersons(){
+        List<Person> persons=new ArrayList<>();
+        for(int i=0;i<10;i++){
+            Person person=new Person();
+            person.setAddress("New york");
+            person.setAge(23);
+            person.setId(fixtures.nextId());
+            person.setFirstName("ZOLO");
+            person.setLastName("Muffin");
+            person.setPhoneNumber("4765772273");
+            persons.add(person);
+            fixtures.track(person);
+        }
+
+        List<BulkCreateResult> results= personServiceHelper.createPersons(persons, 4);
+        Assert.assertEquals(results.size(), persons.size(), "Missing bulk create results");
+        for(BulkCreateResult result : results){
+            Assert.assertTrue(result.isCreated(), "Person was not created: "+result);
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.example.test;
+
+import com.example.helpers.PersonServiceHelper;
+import com.example.resilience.CircuitOpenException;
+import com.example.resilience.ResiliencePolicy;
+import com.example.resilience.ResilientCaller;
+import com.example.stub.LatencyModel;
+import com.example.stub.PersonServiceStub;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Retries, circuit breaking and hedging of the helper calls against misbehaving embedded stubs
+ */
+public class TestResilience {
+
+    @Test
+    public void testRetriesTransientErrors() throws IOException {
+        try(PersonServiceStub flaky=PersonServiceStub.builder().errorRate(0.5, 503).build()){
+            ResilientCaller resilience=new ResilientCaller(operation -> ResiliencePolicy.builder()
+                    .maxAttempts(30)
+                    .backoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                    .build());
+            PersonServiceHelper helper=new PersonServiceHelper(flaky.getBaseUrl(), flaky.getPort(), null, resilience);
+            for(int i=0;i<10;i++){
+                Assert.assertEquals(helper.getAllPerson().size(),3,"Person list size");
+            }
+            Assert.assertTrue(resilience.getRetryCount()>0,"No retry was needed");
+        }
+    }
+
+    @Test
+    public void testCircuitOpensWhenTargetIsDown() throws IOException {
+        try(PersonServiceStub down=PersonServiceStub.builder().errorRate(1.0, 503).build()){
+            ResilientCaller resilience=new ResilientCaller(operation -> ResiliencePolicy.builder()
+                    .breaker(3, Duration.ofMinutes(1))
+                    .build());
+            PersonServiceHelper helper=new PersonServiceHelper(down.getBaseUrl(), down.getPort(), null, resilience);
+            for(int i=0;i<3;i++){
+                Assert.assertThrows(AssertionError.class, helper::getAllPerson);
+            }
+            Assert.assertThrows(CircuitOpenException.class, helper::getAllPerson);
+            Assert.assertEquals(resilience.getRejectedCount(),1,"Calls refused by the open circuit");
+        }
+    }
+
+    @Test
+    public void testHedgesSlowReads() throws IOException {
+        try(PersonServiceStub slow=PersonServiceStub.builder()
+                .latency(LatencyModel.logNormal(Duration.ofMillis(2), Duration.ofMillis(100)))
+                .build()){
+            ResilientCaller resilience=new ResilientCaller(operation -> ResiliencePolicy.builder()
+                    .hedge(50, Duration.ofMillis(1), 5)
+                    .build());
+            PersonServiceHelper helper=new PersonServiceHelper(slow.getBaseUrl(), slow.getPort(), null, resilience);
+            for(int i=0;i<40;i++){
+                Assert.assertEquals(helper.getPerson(1).getId(),Integer.valueOf(1),"Person id");
+            }
+            Assert.assertTrue(resilience.getHedgeCount()>0,"No read was hedged");
+        }
+    }
+}
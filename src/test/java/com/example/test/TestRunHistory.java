@@ -0,0 +1,73 @@
+package com.example.test;
+
+import com.example.metrics.RegressionGate;
+import com.example.metrics.RunHistory;
+import com.example.metrics.RunRecord;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Run history store and p95/p99 regression gate, no service needed
+ */
+public class TestRunHistory {
+
+    private static final String TARGET="http://localhost:8081";
+
+    @Test
+    public void testAppendAndReadBack() throws IOException {
+        Path file=Files.createTempDirectory("run-history").resolve("history.bin");
+        RunHistory history=new RunHistory(file);
+        history.append(run(TARGET, 10));
+        history.append(run("http://other:80", 50));
+        history.append(run(TARGET, 12));
+        //a record cut short by a killed JVM
+        Files.write(file, new byte[]{0, 0, 1, 0, 1, 2}, StandardOpenOption.APPEND);
+
+        List<RunRecord> runs=history.readAll();
+        Assert.assertEquals(runs.size(),3,"Runs read back");
+        List<RunRecord> recent=history.recent(TARGET, 5);
+        Assert.assertEquals(recent.size(),2,"Runs for the target");
+        Assert.assertEquals(recent.get(1).getEndpoint("GET","/persons/{id}").getP95Nanos(),12_000_000L,"p95 read back");
+    }
+
+    @Test
+    public void testAppendAfterTornRecord() throws IOException {
+        Path file=Files.createTempDirectory("run-history").resolve("history.bin");
+        RunHistory history=new RunHistory(file);
+        history.append(run(TARGET, 10));
+        //length prefix torn into a negative number
+        Files.write(file, new byte[]{(byte) 0xFF, (byte) 0xFF, 0}, StandardOpenOption.APPEND);
+        history.append(run(TARGET, 11));
+        //length prefix far past the end of the file
+        Files.write(file, new byte[]{0x7F, 0, 0, 0, 0, 0, 0, 0, 1}, StandardOpenOption.APPEND);
+        Assert.assertEquals(history.readAll().size(),2,"Runs read back before the torn length");
+        history.append(run(TARGET, 12));
+
+        List<RunRecord> runs=history.readAll();
+        Assert.assertEquals(runs.size(),3,"Runs read back after appending past torn records");
+        Assert.assertEquals(runs.get(2).getEndpoint("GET","/persons/{id}").getP95Nanos(),12_000_000L,"p95 of the run appended last");
+    }
+
+    @Test
+    public void testGateFlagsRegression(){
+        RegressionGate gate=new RegressionGate(0.25, 5, 3, 20);
+        List<RunRecord> baseline=List.of(run(TARGET, 10), run(TARGET, 11), run(TARGET, 9));
+
+        Assert.assertTrue(gate.check(run(TARGET, 12), baseline).isEmpty(),"Within tolerance flagged");
+        List<String> regressions=gate.check(run(TARGET, 20), baseline);
+        Assert.assertEquals(regressions.size(),2,"p95 and p99 regressions");
+        Assert.assertTrue(gate.check(run(TARGET, 20), baseline.subList(0, 2)).isEmpty(),"Judged without enough previous runs");
+    }
+
+    private static RunRecord run(String target, long p95Millis){
+        long p95=p95Millis*1_000_000;
+        return new RunRecord(System.currentTimeMillis(), target, 60_000, List.of(
+                new RunRecord.EndpointSummary("GET", "/persons/{id}", 1000, 0, p95/2, p95, p95*2, p95*3, 16.7)));
+    }
+}
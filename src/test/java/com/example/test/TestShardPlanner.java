@@ -0,0 +1,35 @@
+package com.example.test;
+
+import com.example.shard.ShardPlanner;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Greedy bin-packing of test classes into shards, no service needed
+ */
+public class TestShardPlanner {
+
+    @Test
+    public void testShardsAreBalanced(){
+        Map<String, Long> durations=Map.of("A", 70L, "B", 50L, "C", 40L, "D", 30L, "E", 10L);
+        Map<String, Integer> plan=new ShardPlanner(2).plan(List.of("A", "B", "C", "D", "E", "F"), durations, 20);
+
+        long[] load=new long[2];
+        plan.forEach((name, shard) -> load[shard]+=durations.getOrDefault(name, 20L));
+        Assert.assertEquals(plan.size(),6,"Every class is planned");
+        Assert.assertEquals(load[0],110,"Shard 0 load");
+        Assert.assertEquals(load[1],110,"Shard 1 load");
+    }
+
+    @Test
+    public void testPlanIsDeterministic(){
+        Map<String, Long> durations=Map.of("A", 10L, "B", 10L, "C", 10L);
+        Map<String, Integer> first=new ShardPlanner(3).plan(List.of("C", "A", "B"), durations, 10);
+        Map<String, Integer> second=new ShardPlanner(3).plan(List.of("B", "C", "A"), durations, 10);
+        Assert.assertEquals(first,second,"Shards disagree on the plan");
+        Assert.assertEquals(first.get("A"),Integer.valueOf(0),"Ties go to the lowest shard, by name");
+    }
+}
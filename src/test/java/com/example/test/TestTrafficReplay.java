@@ -0,0 +1,134 @@
+package com.example.test;
+
+import com.example.constants.Endpoints;
+import com.example.model.Person;
+import com.example.replay.CaptureFilter;
+import com.example.replay.CaptureLog;
+import com.example.replay.CaptureLogReader;
+import com.example.replay.CapturedExchange;
+import com.example.replay.ReplayEngine;
+import com.example.replay.ReplayReport;
+import com.example.stub.LatencyModel;
+import com.example.stub.PersonServiceStub;
+import com.example.utils.ConfigManager;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Capture log format and capture/replay round trips against the embedded persons service stub.
+ * testReplayCapturedTraffic replays replay.file against base_url/port, only with -Dreplay.enabled=true
+ */
+public class TestTrafficReplay {
+
+    @Test
+    public void testCaptureLogRoundTrip() throws IOException {
+        Path file=Files.createTempFile("capture", ".bin");
+        try {
+            try (CaptureLog log=CaptureLog.create(file)) {
+                //appended in completion order, the slow first request completes last
+                log.append(new CapturedExchange(200, 150, 200, "GET", Endpoints.GET_SINGLE_PERSON, Map.of("id","2"), "", null));
+                log.append(new CapturedExchange(300, 50, 404, "DELETE", Endpoints.DELETE_PERSON, Map.of("id","9"), "", null));
+                log.append(new CapturedExchange(0, 1000, 201, "POST", Endpoints.CREATE_PERSON, Map.of(), "application/json",
+                        "{\"id\":7}".getBytes(StandardCharsets.UTF_8)));
+            }
+            //a JVM killed halfway through an entry
+            Files.write(file, new byte[]{40, 1, 2}, StandardOpenOption.APPEND);
+
+            CaptureLogReader reader=CaptureLogReader.open(file);
+            Assert.assertEquals(reader.size(),3,"Entries read");
+            Assert.assertEquals(reader.getPeakConcurrency(),3,"Peak concurrency");
+            Assert.assertEquals(reader.getDurationMicros(),1000L,"Captured duration");
+            CapturedExchange first=reader.get(0);
+            Assert.assertEquals(first.getMethod(),"POST","First started exchange");
+            Assert.assertEquals(new String(first.getBody(),StandardCharsets.UTF_8),"{\"id\":7}","Body");
+            Assert.assertEquals(first.getContentType(),"application/json","Content type");
+            CapturedExchange last=reader.get(2);
+            Assert.assertEquals(last.getPath(),"/persons/9","Path with its params");
+            Assert.assertEquals(last.getStatus(),404,"Status");
+            Assert.assertEquals(last.getLatencyMicros(),50L,"Latency");
+            //the dictionary entry defined by the second exchange read in start order
+            Assert.assertEquals(reader.get(1).getEndpoint(),Endpoints.GET_SINGLE_PERSON,"Endpoint template");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testReplayReproducesCapturedTraffic() throws IOException, InterruptedException {
+        Path file=Files.createTempFile("capture", ".bin");
+        try (PersonServiceStub captured=stub(); PersonServiceStub replayed=stub()) {
+            try (CaptureLog log=CaptureLog.create(file)) {
+                CaptureFilter capture=new CaptureFilter(log);
+                for(int i=0;i<10;i++){
+                    Person person=new Person();
+                    person.setId(50+i);
+                    person.setFirstName("ZOLO");
+                    request(captured, capture).body(person).post(Endpoints.CREATE_PERSON).then().statusCode(201);
+                    request(captured, capture).pathParam("id",50+i).get(Endpoints.GET_SINGLE_PERSON).then().statusCode(200);
+                    request(captured, capture).pathParam("id",50+i).delete(Endpoints.DELETE_PERSON).then().statusCode(200);
+                    request(captured, capture).pathParam("id",50+i).get(Endpoints.GET_SINGLE_PERSON).then().statusCode(404);
+                }
+            }
+
+            CaptureLogReader log=CaptureLogReader.open(file);
+            Assert.assertEquals(log.size(),40,"Captured exchanges");
+            ReplayEngine engine=new ReplayEngine(replayed.getBaseUrl()+":"+replayed.getPort(), Duration.ofSeconds(10), 100);
+
+            ReplayReport paced=engine.replay(log, 2);
+            System.out.println(paced);
+            Assert.assertEquals(paced.getTotalReplayed(),40L,"Replayed exchanges");
+            Assert.assertEquals(paced.getTotalStatusMismatches(),0L,"Status mismatches: "+paced.getStats());
+            long span=log.getStartMicros(log.size()-1)-log.getStartMicros(0);
+            Assert.assertTrue(paced.getElapsed().toNanos() >= span*1000/2,"Replay at 2x ran faster than the recorded gaps allow");
+            Assert.assertTrue(replayed.getPersons().keySet().stream().noneMatch(id -> id >= 50),"Replayed creates were not deleted");
+
+            //sequential capture, so back to back replay keeps one request in flight and the same order
+            ReplayReport max=engine.replay(log, ReplayEngine.MAX_SPEED);
+            System.out.println(max);
+            Assert.assertEquals(log.getPeakConcurrency(),1,"Peak concurrency of a sequential capture");
+            Assert.assertEquals(max.getTotalStatusMismatches(),0L,"Status mismatches at max speed: "+max.getStats());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testReplayCapturedTraffic() throws InterruptedException {
+        ConfigManager config=ConfigManager.getInstance();
+        if(!config.getBoolean("replay.enabled", false)){
+            throw new SkipException("Replay is disabled, run with -Dreplay.enabled=true");
+        }
+        CaptureLogReader log=CaptureLogReader.open(Paths.get(config.getString("replay.file")));
+        ReplayReport report=ReplayEngine.fromConfig().replay(log, ReplayEngine.parseSpeed(config.getString("replay.speed", "1x")));
+        System.out.println(report);
+        Assert.assertEquals(report.getTotalReplayed(),(long) log.size(),"Replayed exchanges");
+    }
+
+    private static PersonServiceStub stub() throws IOException {
+        return PersonServiceStub.builder()
+                .seed(3)
+                .latency(LatencyModel.uniform(Duration.ofMillis(1), Duration.ofMillis(3)))
+                .build();
+    }
+
+    private static RequestSpecification request(PersonServiceStub stub, CaptureFilter capture){
+        return RestAssured.given()
+                .baseUri(stub.getBaseUrl())
+                .port(stub.getPort())
+                .contentType(ContentType.JSON)
+                .filter(capture);
+    }
+}
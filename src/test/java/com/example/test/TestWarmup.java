@@ -0,0 +1,51 @@
+package com.example.test;
+
+import com.example.helpers.PersonServiceHelper;
+import com.example.metrics.EndpointMetrics;
+import com.example.stub.PersonServiceStub;
+import com.example.warmup.Warmup;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+/**
+ * Warm-up against the embedded persons service stub: requests sent, kept out of the metrics, failures surfaced
+ */
+public class TestWarmup {
+
+    @Test
+    public void testWarmupIsNotRecorded() throws IOException {
+        try (PersonServiceStub stub=PersonServiceStub.builder().seed(3).build()) {
+            PersonServiceHelper personServiceHelper=new PersonServiceHelper(stub.getBaseUrl(), stub.getPort(), null, null);
+            long before=requestCount();
+
+            Warmup warmup=new Warmup(personServiceHelper, 12, 3, 2);
+            long[] latencies=warmup.run();
+            System.out.println(warmup.summary(latencies));
+            Assert.assertEquals(latencies.length,12,"Warm-up requests");
+            for(long latency : latencies){
+                Assert.assertTrue(latency > 0,"Request without a latency");
+            }
+            //unknown person, only the GETs answering 404
+            Assert.assertEquals(new Warmup(personServiceHelper, 4, 2, 999).run().length,4,"Warm-up requests of a missing person");
+            Assert.assertEquals(requestCount(),before,"Warm-up traffic was recorded");
+
+            personServiceHelper.getPerson(1);
+            Assert.assertEquals(requestCount(),before+1,"Traffic after the warm-up is recorded");
+            Assert.assertFalse(Warmup.isRunning(),"Warm-up flag left on the test thread");
+        }
+    }
+
+    @Test
+    public void testWarmupFailure() throws IOException {
+        try (PersonServiceStub stub=PersonServiceStub.builder().seed(3).errorRate(1, 503).build()) {
+            Warmup warmup=new Warmup(new PersonServiceHelper(stub.getBaseUrl(), stub.getPort(), null, null), 4, 2, 1);
+            Assert.assertThrows(AssertionError.class, warmup::run);
+        }
+    }
+
+    private static long requestCount(){
+        return EndpointMetrics.global().snapshot().values().stream().mapToLong(stats -> stats.getLatency().getCount()).sum();
+    }
+}